@@ -1,10 +1,12 @@
 package xyz.hotchpotch.reversi.aiplayers;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 import java.util.stream.Stream;
 
 import xyz.hotchpotch.reversi.core.Board;
@@ -62,6 +64,12 @@ public class AIPlayerUtil {
             }
         }
         
+        private LightweightBoard(Color[] colors) {
+            assert colors != null;
+            assert colors.length == Point.HEIGHT * Point.WIDTH;
+            this.colors = colors;
+        }
+        
         /**
          * 指定された {@code map} と同じ内容を持つ、新しい {@code LightweightBoard} を生成します。<br>
          * 
@@ -307,6 +315,84 @@ public class AIPlayerUtil {
         return getParameter(gameCondition, key, Boolean::valueOf);
     }
     
+    /**
+     * {@link GameCondition} オブジェクトからパラメータ値を取得し、{@link Evaluator} のインスタンスに変換して返します。<br>
+     * パラメータ値の取得に関しては {@link #getParameter(GameCondition, String)} の説明を参照してください。<br>
+     * <br>
+     * パラメータ値には、{@link BasicEvaluator} の要素名か、評価関数の完全修飾クラス名を指定します。
+     * {@code :} を含む値は {@link EvaluatorCompiler} の形式による評価関数の記述として、
+     * {@code @} で始まる値はその記述を格納したファイルのパスとして扱い、評価関数のクラスを実行時に生成します。
+     * クラス名が指定された場合は、まず {@link GameCondition} を引数にとるコンストラクタで、
+     * 次に引数なしのコンストラクタでインスタンス化を試みます。<br>
+     * 互換性のために、{@link ToIntBiFunction}{@code <LightweightBoard, Color>} 実装クラス名も指定できます。
+     * この場合は、{@code Evaluator} に適合させたうえで返します。<br>
+     * 評価関数の記述やファイルのパスが指定された場合は、指定の誤りに気付かないまま別の評価関数で対局することのないよう、
+     * 評価関数を生成できなければ空の {@code Optional} オブジェクトを返すのではなく例外をスローします。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @param key パラメータのキー
+     * @return {@code Evaluator} のインスタンスを格納した {@code Optional} オブジェクト
+     *         （パラメータ値が存在しない場合やクラスのインスタンス化に失敗した場合は空の {@code Optional} オブジェクト）
+     * @throws NullPointerException {@code gameCondition}、{@code key} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 評価関数の記述の形式が不正な場合や、ファイルのパスが不正な場合
+     * @throws java.io.UncheckedIOException 評価関数の記述を格納したファイルの読み込みに失敗した場合
+     * @since 2.2.0
+     */
+    public static Optional<Evaluator> getEvaluatorParameter(GameCondition gameCondition, String key) {
+        Objects.requireNonNull(gameCondition);
+        Objects.requireNonNull(key);
+        
+        Optional<String> value = getParameter(gameCondition, key);
+        if (value.isPresent() && value.get().startsWith("@")) {
+            return Optional.of(EvaluatorCompiler.compile(Paths.get(value.get().substring(1))));
+        }
+        if (value.isPresent() && value.get().contains(":")) {
+            return Optional.of(EvaluatorCompiler.compile(value.get()));
+        }
+        return getParameter(gameCondition, key, s -> toEvaluator(s, gameCondition));
+    }
+    
+    private static Evaluator toEvaluator(String name, GameCondition gameCondition) {
+        assert name != null;
+        assert gameCondition != null;
+        
+        if (Arrays.stream(BasicEvaluator.values()).anyMatch(e -> e.name().equals(name))) {
+            return BasicEvaluator.valueOf(name);
+        }
+        Object instance;
+        try {
+            Class<?> evalClass = Class.forName(name);
+            try {
+                instance = evalClass.getConstructor(GameCondition.class).newInstance(gameCondition);
+            } catch (NoSuchMethodException e) {
+                instance = evalClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+        
+        if (instance instanceof Evaluator) {
+            return (Evaluator) instance;
+        }
+        if (instance instanceof ToIntBiFunction) {
+            // 旧来の評価関数は、黒を評価する側、白を相手とするリバーシ盤に変換して呼び出す。
+            @SuppressWarnings("unchecked")
+            ToIntBiFunction<LightweightBoard, Color> legacy = (ToIntBiFunction<LightweightBoard, Color>) instance;
+            return (mine, his, empties) -> {
+                Color[] colors = new Color[Point.HEIGHT * Point.WIDTH];
+                for (int i = 0; i < colors.length; i++) {
+                    if ((mine & 1L << i) != 0) {
+                        colors[i] = Color.BLACK;
+                    } else if ((his & 1L << i) != 0) {
+                        colors[i] = Color.WHITE;
+                    }
+                }
+                return legacy.applyAsInt(new LightweightBoard(colors), Color.BLACK);
+            };
+        }
+        return null;
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private AIPlayerUtil() {
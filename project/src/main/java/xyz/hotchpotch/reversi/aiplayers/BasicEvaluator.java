@@ -0,0 +1,106 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.core.Stability;
+
+/**
+ * 石の数と石を置ける位置の数に基づく、基本的な評価関数を集めた列挙型です。<br>
+ * いずれの評価関数もオブジェクトの生成を行わず、シングルスレッドで評価を行います。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public enum BasicEvaluator implements Evaluator {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 自身と相手の石の数の差に応じてリバーシ盤を評価する評価関数です。 */
+    DISCS {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            return discs(mine, his);
+        }
+    },
+    
+    /** 自身と相手の石を置ける位置の数の差に応じてリバーシ盤を評価する評価関数です。 */
+    MOBILITY {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            return mobility(mine, his);
+        }
+    },
+    
+    /** {@link #DISCS} と {@link #MOBILITY} による評価値を単純加算する評価関数です。 */
+    DISCS_PLUS_MOBILITY {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            return discs(mine, his) + mobility(mine, his);
+        }
+    },
+    
+    /** ゲームの序盤～中盤は {@link #MOBILITY}、終盤は {@link #DISCS} により評価を行う評価関数です。 */
+    SWITCHED {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            return empties <= 10 ? discs(mine, his) : mobility(mine, his);
+        }
+    },
+    
+    /**
+     * {@link #DISCS} と {@link #MOBILITY} の合算により評価を行う評価関数です。
+     * ゲームが進むにつれて、{@link #MOBILITY} から {@link #DISCS} に線形に評価のウェイトを移します。
+     */
+    BLENDED {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            int filled = Point.HEIGHT * Point.WIDTH - empties;
+            return mobility(mine, his) * empties * 10 + discs(mine, his) * filled;
+        }
+    },
+    
+    /**
+     * {@link #BLENDED} による評価値に、自身と相手の確定石の数の差に応じた評価値を加える評価関数です。
+     * 確定石は終局まで失われないため、ゲームの段階によらず一定の大きなウェイトを与えます。
+     */
+    STABILITY_BLENDED {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            return BLENDED.evaluate(mine, his, empties) + stability(mine, his) * STABILITY_WEIGHT;
+        }
+    },
+    
+    /**
+     * 着手可能数、潜在的な着手可能数、開放度のある石の数、隅の占有、X 打ちを組み合わせて評価する評価関数です。
+     * いずれの特徴量も {@link BitBoards} のビット演算により求めるため、末端の局面ごとに呼び出せる程度に高速です。
+     * 終盤は {@link #BLENDED} と同様に、石の数の差に評価のウェイトを移します。
+     */
+    FEATURES {
+        @Override
+        public int evaluate(long mine, long his, int empties) {
+            int filled = Point.HEIGHT * Point.WIDTH - empties;
+            int positional = mobility(mine, his) * 10
+                    + (Long.bitCount(BitBoards.potentialMobility(mine, his))
+                            - Long.bitCount(BitBoards.potentialMobility(his, mine))) * 4
+                    - (Long.bitCount(BitBoards.frontier(mine, his))
+                            - Long.bitCount(BitBoards.frontier(his, mine))) * 4
+                    + (Long.bitCount(mine & BitBoards.CORNERS) - Long.bitCount(his & BitBoards.CORNERS)) * 80
+                    - (Long.bitCount(BitBoards.openXSquares(mine, his))
+                            - Long.bitCount(BitBoards.openXSquares(his, mine))) * 40;
+            return positional * empties + discs(mine, his) * filled;
+        }
+    };
+    
+    private static final int STABILITY_WEIGHT = 128;
+    
+    private static int discs(long mine, long his) {
+        return Long.bitCount(mine) - Long.bitCount(his);
+    }
+    
+    private static int mobility(long mine, long his) {
+        return Long.bitCount(BitBoards.mobility(mine, his)) - Long.bitCount(BitBoards.mobility(his, mine));
+    }
+    
+    private static int stability(long mine, long his) {
+        return Long.bitCount(Stability.stableDiscs(mine, his)) - Long.bitCount(Stability.stableDiscs(his, mine));
+    }
+}
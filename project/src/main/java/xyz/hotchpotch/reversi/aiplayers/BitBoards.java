@@ -0,0 +1,206 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.util.Objects;
+
+import xyz.hotchpotch.reversi.aiplayers.AIPlayerUtil.LightweightBoard;
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Point;
+
+/**
+ * リバーシ盤をビットボードとして扱うためのユーティリティクラスです。<br>
+ * <br>
+ * ビットボードは、ある色の石が置かれているマスを {@code long} 値の各ビットで表したものです。
+ * {@link Point} の {@link Point#ordinal()} 番目のビットが、そのマスに対応します。<br>
+ * このクラスのメソッドは、処理速度を優先するためにオブジェクトの生成を行いません。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class BitBoards {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 四隅のマス（a1, h1, a8, h8）を表すマスク */
+    public static final long CORNERS = 0x8100000000000081L;
+    
+    /** 隅に斜めに隣接するマス（b2, g2, b7, g7）を表すマスク */
+    public static final long X_SQUARES = 0x0042000000004200L;
+    
+    /** 隅に辺に沿って隣接するマス（b1, g1, a2, h2, a7, h7, b8, g8）を表すマスク */
+    public static final long C_SQUARES = 0x4281000000008142L;
+    
+    /** 左端の列（a 列）を除くマスを表すマスク */
+    private static final long NOT_FILE_A = 0xFEFEFEFEFEFEFEFEL;
+    
+    /** 右端の列（h 列）を除くマスを表すマスク */
+    private static final long NOT_FILE_H = 0x7F7F7F7F7F7F7F7FL;
+    
+    /** 左右の端の列を除くマスを表すマスク */
+    private static final long INNER_COLUMNS = 0x7E7E7E7E7E7E7E7EL;
+    
+    /** 8方向それぞれのシフト量（正の値は左シフト、負の値は論理右シフト） */
+    private static final int[] SHIFTS = { 1, -1, 8, -8, 9, -9, 7, -7 };
+    
+    /** 8方向それぞれについて、途中に挟まれ得る石を表すマスク */
+    private static final long[] MASKS = {
+            INNER_COLUMNS, INNER_COLUMNS, -1L, -1L,
+            INNER_COLUMNS, INNER_COLUMNS, INNER_COLUMNS, INNER_COLUMNS };
+    
+    /**
+     * リバーシ盤の指定された色の石の配置をビットボードとして返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 石の色
+     * @return 指定された色の石の配置を表すビットボード
+     * @throws NullPointerException {@code board}、{@code color} のいずれかが {@code null} の場合
+     */
+    public static long bitsOf(Board board, Color color) {
+        Objects.requireNonNull(board);
+        Objects.requireNonNull(color);
+        
+        long bits = 0L;
+        if (board instanceof LightweightBoard) {
+            Color[] colors = ((LightweightBoard) board).colors;
+            for (int i = 0; i < colors.length; i++) {
+                if (colors[i] == color) {
+                    bits |= 1L << i;
+                }
+            }
+        } else {
+            for (Point p : Point.values()) {
+                if (board.colorAt(p) == color) {
+                    bits |= 1L << p.ordinal();
+                }
+            }
+        }
+        return bits;
+    }
+    
+    /**
+     * 空きマスの数を返します。<br>
+     * 
+     * @param mine 一方の石の配置を表すビットボード
+     * @param his 他方の石の配置を表すビットボード
+     * @return 空きマスの数
+     */
+    public static int empties(long mine, long his) {
+        return Long.SIZE - Long.bitCount(mine | his);
+    }
+    
+    /**
+     * {@code mine} の側が石を置ける位置をビットボードとして返します。<br>
+     * 
+     * @param mine 石を置く側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return {@code mine} の側が石を置ける位置を表すビットボード
+     */
+    public static long mobility(long mine, long his) {
+        long empty = ~(mine | his);
+        long moves = 0L;
+        
+        for (int d = 0; d < SHIFTS.length; d++) {
+            int shift = SHIFTS[d];
+            long masked = his & MASKS[d];
+            
+            // 自分の石に隣接する相手の石から始めて、相手の石が連続する限り伸ばしていく。
+            // 相手の石は最大でも 6 個しか連続し得ない。
+            long line = masked & shift(mine, shift);
+            line |= masked & shift(line, shift);
+            line |= masked & shift(line, shift);
+            line |= masked & shift(line, shift);
+            line |= masked & shift(line, shift);
+            line |= masked & shift(line, shift);
+            moves |= shift(line, shift);
+        }
+        return moves & empty;
+    }
+    
+    /**
+     * {@code mine} の側が指定された位置に石を置いた場合にひっくり返る石をビットボードとして返します。<br>
+     * 指定された位置に石を置けない場合は {@code 0} を返します。<br>
+     * 
+     * @param mine 石を置く側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @param square 石を置く位置（{@link Point#ordinal()} の値）
+     * @return ひっくり返る石を表すビットボード
+     */
+    public static long flips(long mine, long his, int square) {
+        long bit = 1L << square;
+        if (((mine | his) & bit) != 0) {
+            return 0L;
+        }
+        long flipped = 0L;
+        
+        for (int d = 0; d < SHIFTS.length; d++) {
+            int shift = SHIFTS[d];
+            long masked = his & MASKS[d];
+            long line = 0L;
+            long next = shift(bit, shift);
+            
+            while ((next & masked) != 0) {
+                line |= next;
+                next = shift(next, shift);
+            }
+            if ((next & mine) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+    
+    /**
+     * 指定されたマスのいずれかに縦・横・斜めで隣接するマスをビットボードとして返します。<br>
+     * 戻り値には、指定されたマス自身が含まれることもあります。<br>
+     * 
+     * @param bits マスを表すビットボード
+     * @return 隣接するマスを表すビットボード
+     */
+    public static long neighbours(long bits) {
+        long horizontal = ((bits << 1) & NOT_FILE_A) | ((bits >>> 1) & NOT_FILE_H);
+        long row = bits | horizontal;
+        return horizontal | (row << 8) | (row >>> 8);
+    }
+    
+    /**
+     * {@code mine} の側の潜在的な着手可能位置、すなわち相手の石に隣接する空きマスをビットボードとして返します。<br>
+     * 
+     * @param mine 一方の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return 相手の石に隣接する空きマスを表すビットボード
+     */
+    public static long potentialMobility(long mine, long his) {
+        return neighbours(his) & ~(mine | his);
+    }
+    
+    /**
+     * {@code mine} の側の石のうち、空きマスに隣接する石（開放度のある石）をビットボードとして返します。<br>
+     * 
+     * @param mine 一方の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return 空きマスに隣接する {@code mine} の側の石を表すビットボード
+     */
+    public static long frontier(long mine, long his) {
+        return neighbours(~(mine | his)) & mine;
+    }
+    
+    /**
+     * {@code mine} の側の石のうち、隣接する隅が空いている X 打ちの石をビットボードとして返します。<br>
+     * 
+     * @param mine 一方の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return 隣接する隅が空いている X 打ちの石を表すビットボード
+     */
+    public static long openXSquares(long mine, long his) {
+        return neighbours(CORNERS & ~(mine | his)) & X_SQUARES & mine;
+    }
+    
+    private static long shift(long bits, int shift) {
+        return 0 < shift ? bits << shift : bits >>> -shift;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private BitBoards() {
+    }
+}
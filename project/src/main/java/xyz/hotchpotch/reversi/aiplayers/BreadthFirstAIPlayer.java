@@ -1,8 +1,6 @@
 package xyz.hotchpotch.reversi.aiplayers;
 
-import java.time.Instant;
 import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -11,17 +9,19 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Random;
 import java.util.function.Function;
-import java.util.function.ToIntBiFunction;
 import java.util.stream.Collectors;
 
 import xyz.hotchpotch.reversi.aiplayers.AIPlayerUtil.LightweightBoard;
+import xyz.hotchpotch.reversi.aiplayers.TimeManager.Budget;
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
 import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
 import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.GameResult;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.SearchContext;
 
 /**
  * 幅優先探索により最良手を探す {@link Player} の実装です。<br>
@@ -30,8 +30,13 @@ import xyz.hotchpotch.reversi.framework.Player;
  * <table border="1">
  *   <caption>指定可能なオプションパラメータ</caption>
  *   <tr><th>キー</th><th>型</th><th>内容</th><th>デフォルト値</th></tr>
- *   <tr><td>{@code evaluator}</td><td>{@code String}</td><td>リバーシ盤に対する評価関数のクラス名<br>
- *           （{@link ToIntBiFunction}{@code <LightweightBoard, Color>} 実装クラス名）</td><td>（なし）</td></tr>
+ *   <tr><td>{@code evaluator}</td><td>{@code String}</td><td>リバーシ盤に対する評価関数<br>
+ *           （{@link BasicEvaluator} の要素名、{@link Evaluator} 実装クラス名、
+ *           または {@link EvaluatorCompiler} の形式による評価関数の記述。
+ *           詳細は {@link AIPlayerUtil#getEvaluatorParameter(GameCondition, String)} を参照）</td>
+ *           <td>{@link BasicEvaluator#BLENDED}</td></tr>
+ *   <tr><td>{@code cacheSize}</td><td>{@code int}</td><td>評価値のキャッシュのエントリ数（{@code 0} の場合はキャッシュしない）<br>
+ *           （詳細は {@link EvalCache} を参照）</td><td>{@value EvalCache#DEFAULT_SIZE}</td></tr>
  *   <tr><td>{@code seed}</td><td>{@code long}</td><td>乱数ジェネレータのシード値</td><td>（なし）</td></tr>
  *   <tr><td>{@code margin1}</td><td>{@code long}</td><td>探索を切り上げる余裕時間（ミリ秒）</td><td>{@code 50}</td></tr>
  *   <tr><td>{@code debug}</td><td>{@code boolean}</td><td>デバッグ出力の有無</td><td>{@code false}</td></tr>
@@ -44,55 +49,17 @@ public class BreadthFirstAIPlayer implements Player {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
-    /** 自身と相手の石の数の差に応じてリバーシ盤を評価する評価関数です。 */
-    private static final ToIntBiFunction<LightweightBoard, Color> evaluator1 = (b, c) -> {
-        int mine = (int) Point.parallelStream().filter(p -> b.colors[p.ordinal()] == c).count();
-        int his = (int) Point.parallelStream().filter(p -> b.colors[p.ordinal()] == c.opposite()).count();
-        return mine - his;
-    };
-    
-    /** 自身と相手の石を置ける位置の数の差に応じてリバーシ盤を評価する評価関数です。 */
-    private static final ToIntBiFunction<LightweightBoard, Color> evaluator2 = (b, c) -> {
-        int mine = (int) Point.parallelStream().filter(p -> Rule.canPutAt(b, c, p)).count();
-        int his = (int) Point.parallelStream().filter(p -> Rule.canPutAt(b, c.opposite(), p)).count();
-        return mine - his;
-    };
-    
-    /** {@link #evaluator1} と {@link #evaluator2} による評価値を単純加算する評価関数です。 */
-    @SuppressWarnings("unused")
-    private static final ToIntBiFunction<LightweightBoard, Color> evaluator3 = (b, c) -> {
-        return evaluator1.applyAsInt(b, c) + evaluator2.applyAsInt(b, c);
-    };
-    
-    /** ゲームの序盤～中盤は {@link #evaluator2}、終盤は {@link #evaluator1} により評価を行う評価関数です。 */
-    @SuppressWarnings("unused")
-    private static final ToIntBiFunction<LightweightBoard, Color> evaluator4 = (b, c) -> {
-        int blankCells = (int) Arrays.stream(b.colors).filter(color -> color == null).count();
-        if (blankCells <= 10) {
-            return evaluator1.applyAsInt(b, c);
-        } else {
-            return evaluator2.applyAsInt(b, c);
-        }
-    };
-    
-    /**
-     * {@link #evaluator1} と {@link #evaluator2} の合算により評価を行う評価関数です。
-     * ゲームが進むにつれて、{@link #evaluator2} から {@link #evaluator1} に線形に評価のウェイトを移します。
-     */
-    private static final ToIntBiFunction<LightweightBoard, Color> evaluator5 = (b, c) -> {
-        int blankCells = (int) Arrays.stream(b.colors).filter(color -> color == null).count();
-        int filledCells = Point.HEIGHT * Point.WIDTH - blankCells;
-        return evaluator2.applyAsInt(b, c) * blankCells * 10 + evaluator1.applyAsInt(b, c) * filledCells;
-    };
+    /** 暫定手を公開する間隔（ノードの計算回数） */
+    private static final int OFFER_INTERVAL = 256;
     
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private final Random random;
     private final Color myColor;
-    private final long margin1;
+    private final TimeManager timeManager;
     private final boolean debug;
     
-    private final ToIntBiFunction<LightweightBoard, Color> evaluator;
+    private final Evaluator evaluator;
     private final Queue<Node> queue = new ArrayDeque<>();
     private Node root;
     
@@ -101,49 +68,72 @@ public class BreadthFirstAIPlayer implements Player {
      * 
      * @param color このプレーヤーの石の色
      * @param gameCondition ゲーム実施条件
+     * @throws IllegalArgumentException パラメータ {@code evaluator} に指定された評価関数の記述の形式が不正な場合
+     * @throws java.io.UncheckedIOException パラメータ {@code evaluator} に指定されたファイルの読み込みに失敗した場合
      */
     public BreadthFirstAIPlayer(Color color, GameCondition gameCondition) {
         myColor = color;
         
         // 動作制御用パラメータの取得
-        Optional<ToIntBiFunction<LightweightBoard, Color>> evaluator =
-                AIPlayerUtil.getParameter(gameCondition, "evaluator", s -> {
-                    try {
-                        @SuppressWarnings("unchecked")
-                        Class<? extends ToIntBiFunction<LightweightBoard, Color>> evalClass =
-                                (Class<? extends ToIntBiFunction<LightweightBoard, Color>>) Class.forName(s);
-                        return evalClass.newInstance();
-                    } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
-                        return null;
-                    }
-                });
-        this.evaluator = evaluator.isPresent() ? evaluator.get() : evaluator5;
+        Evaluator base = AIPlayerUtil.getEvaluatorParameter(gameCondition, "evaluator").orElse(BasicEvaluator.BLENDED);
+        int cacheSize = AIPlayerUtil.getIntParameter(gameCondition, "cacheSize")
+                .filter(v -> 0 <= v && v <= EvalCache.MAX_SIZE).orElse(EvalCache.DEFAULT_SIZE);
+        evaluator = cacheSize == 0 ? base : EvalCache.of(base, cacheSize);
         Optional<Long> seed = AIPlayerUtil.getLongParameter(gameCondition, "seed");
         random = seed.isPresent() ? new Random(seed.get()) : new Random();
-        margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(50L);
+        long margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(50L);
         debug = AIPlayerUtil.getBooleanParameter(gameCondition, "debug").orElse(false);
+        
+        timeManager = TimeManager.of(margin1, myTurns -> 1.0);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、幅優先探索により最良手を探します。<br>
+     */
+    @Override
+    public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame) {
+        return decide(board, color, givenMillisPerTurn, remainingMillisInGame,
+                SearchContext.of(color, Long.min(givenMillisPerTurn, remainingMillisInGame)));
     }
     
     /**
      * {@inheritDoc}
      * <br>
      * この実装は、幅優先探索により最良手を探します。<br>
+     * 探索の途中経過における最良手を、暫定手として随時 {@code context} に公開します。<br>
+     * {@code context} により中断を要求された場合は、その時点での最良手を返します。<br>
+     * 展開したノードの数を、探索ノード数として {@code context} に報告します。<br>
      */
     // ホントのことを言うと相手の番の間も別スレッドで計算を続けられるのだけれど、
     // なんとなくマナー違反な気がするし実装も面倒になるので、自分の番の間だけ計算を行う方式にした。
     @Override
-    public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame) {
+    public Point decide(
+            Board board,
+            Color color,
+            long givenMillisPerTurn,
+            long remainingMillisInGame,
+            SearchContext context) {
+            
         assert color == myColor;
         
-        Instant start = Instant.now();
+        int blankCells = (int) Point.stream().filter(p -> board.colorAt(p) == null).count();
+        Budget budget = timeManager.allocate(givenMillisPerTurn, remainingMillisInGame, blankCells, context);
         LightweightBoard currBoard = new LightweightBoard(board);
         
         if (debug) {
             printStat("不要ノード削除前");
         }
         
-        // 探索ツリーの中から新たなルートとなるべきノードを探して設定する。
-        Node newRoot = search(color, currBoard);
+        // notifyOfMove により既にルートが現在のゲーム状態に進められている場合はそれを利用し、
+        // そうでない場合は探索ツリーの中から新たなルートとなるべきノードを探して設定する。
+        Node newRoot;
+        if (root != null && root.color == color && root.board.equals(currBoard)) {
+            newRoot = root;
+        } else {
+            newRoot = search(color, currBoard);
+        }
         if (newRoot != null) {
             // 探索ツリーの中から目的のノードが見つかった場合
             root = newRoot;
@@ -172,19 +162,25 @@ public class BreadthFirstAIPlayer implements Player {
         if (root.next == null) {
             root.calc();
         }
+        context.offer(root.bestPoint());
         
         // 時間の許す限り、キューの中のノードについて計算する。
-        int blankCells = (int) Point.parallelStream().filter(p -> board.colorAt(p) == null).count();
-        int myTurns = (blankCells + 1) / 2;
-        long millisForThisTurn = Long.min(givenMillisPerTurn, remainingMillisInGame / myTurns);
-        Instant deadline = start.plusMillis(millisForThisTurn - margin1);
-        
-        while (!queue.isEmpty() && Instant.now().isBefore(deadline)) {
+        int count = 0;
+        while (!queue.isEmpty() && !budget.isSoftExpired()) {
             queue.poll().calc();
+            context.addNodes(1);
+            
+            // 暫定手の公開はそれなりにコストがかかるため、一定回数ごとに行う。
+            if (++count % OFFER_INTERVAL == 0) {
+                context.offer(root.bestPoint());
+            }
         }
         
         if (debug) {
             printStat("探索実施後　　　");
+            if (evaluator instanceof EvalCache) {
+                System.out.println(evaluator);
+            }
         }
         
         // ルートノードにとっての最善手を返す。
@@ -194,6 +190,42 @@ public class BreadthFirstAIPlayer implements Player {
         return root.bestPoint();
     }
     
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、探索ツリーのルートを適用された手に対応する子ノードへと進めます。<br>
+     * 対応する子ノードが未計算の場合は探索ツリーを破棄し、次回の {@link #decide(Board, Color, long, long)} で作り直します。<br>
+     */
+    @Override
+    public void notifyOfMove(Move move) {
+        if (root == null) {
+            return;
+        }
+        
+        Node newRoot = null;
+        if (root.color == move.color && root.next != null) {
+            newRoot = root.next.get(move.point);
+        }
+        
+        if (newRoot != null) {
+            root = newRoot;
+            root.parent = null;
+        } else {
+            root = null;
+            queue.clear();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、評価関数が保持している資源を解放します。<br>
+     */
+    @Override
+    public void notifyOfResult(GameResult result) {
+        evaluator.release();
+    }
+    
     /**
      * 探索ツリーの中から現在の手番とリバーシ盤に対応するノードを見つけて返す。<br>
      * 
@@ -297,7 +329,9 @@ public class BreadthFirstAIPlayer implements Player {
             this.board = board;
             this.color = color;
             this.parent = parent;
-            score = evaluator.applyAsInt(board, myColor);
+            long mine = BitBoards.bitsOf(board, myColor);
+            long his = BitBoards.bitsOf(board, myColor.opposite());
+            score = evaluator.evaluate(mine, his, BitBoards.empties(mine, his));
         }
         
         /**
@@ -1,19 +1,23 @@
 package xyz.hotchpotch.reversi.aiplayers;
 
-import java.time.Instant;
-
 import xyz.hotchpotch.reversi.aiplayers.AIPlayerUtil.LightweightBoard;
+import xyz.hotchpotch.reversi.aiplayers.TimeManager.Budget;
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
 import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
+import xyz.hotchpotch.reversi.core.Stability;
 import xyz.hotchpotch.reversi.framework.GameCondition;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.ReusablePlayer;
+import xyz.hotchpotch.reversi.framework.SearchContext;
 
 /**
  * 深さ優先探索により必勝手を探す {@link Player} の実装です。<br>
  * 探索時間が足りない場合はランダムに手を選択します。<br>
+ * 実測した探索速度（ノード／秒）は持ち時間の配分に用いられ、
+ * マッチ内のゲームでインスタンスが再利用される場合は次のゲームに引き継がれます。<br>
  * <br>
  * 動作制御のために、次のオプションパラメータを与えることができます。<br>
  * <table border="1">
@@ -30,7 +34,7 @@ import xyz.hotchpotch.reversi.framework.Player;
  * @since 2.0.0
  * @author nmby
  */
-public class DepthFirstAIPlayer implements Player {
+public class DepthFirstAIPlayer implements ReusablePlayer {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
@@ -42,18 +46,26 @@ public class DepthFirstAIPlayer implements Player {
     private static class TimeUpException extends RuntimeException {
     }
     
+    /** 時刻を確認する間隔（探索ノード数、2 の累乗 - 1 のマスクで表す） */
+    private static final int CLOCK_CHECK_MASK = 1024 - 1;
+    
+    /** 探索を試みる最少のノード数（実測した探索速度でこれだけ探索できない場合は、探索しても読み切れない） */
+    private static final long MIN_NODES = 64 * (CLOCK_CHECK_MASK + 1);
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private final Player proxy;
-    private final long margin1;
+    private final TimeManager timeManager;
     private final int rounds;
-    private final float weight;
+    private final int initialSkip;
     private final boolean debug;
     
     private int searchableTurns = Point.HEIGHT * Point.WIDTH;
     private int round = -1;
     private int skip;
-    private Instant deadline;
+    private SearchContext context;
+    private long deadline;
+    private int nodes;
     
     /**
      * このクラスのインスタンスを生成します。<br>
@@ -65,11 +77,29 @@ public class DepthFirstAIPlayer implements Player {
         proxy = new RandomAIPlayer(null, gameCondition);
         
         // 動作制御用パラメータの取得
-        skip = AIPlayerUtil.getIntParameter(gameCondition, "skip").filter(v -> 0 <= v).orElse(12);
+        initialSkip = AIPlayerUtil.getIntParameter(gameCondition, "skip").filter(v -> 0 <= v).orElse(12);
         rounds = AIPlayerUtil.getIntParameter(gameCondition, "rounds").filter(v -> 0 < v).orElse(3);
-        margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(100L);
-        weight = AIPlayerUtil.getFloatParameter(gameCondition, "weight").filter(v -> 1.0f <= v).orElse(3.5f);
+        long margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(100L);
+        float weight = AIPlayerUtil.getFloatParameter(gameCondition, "weight").filter(v -> 1.0f <= v).orElse(3.5f);
         debug = AIPlayerUtil.getBooleanParameter(gameCondition, "debug").orElse(false);
+        
+        timeManager = TimeManager.of(margin1, myTurns -> weight, MIN_NODES);
+        skip = initialSkip;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、ゲームの進行に関する状態を初期化します。<br>
+     * これまでに実測した探索速度は初期化せず、次のゲームの持ち時間の配分にも用います。<br>
+     * 
+     * @since 2.2.0
+     */
+    @Override
+    public void reset(Color color, GameCondition gameCondition) {
+        searchableTurns = Point.HEIGHT * Point.WIDTH;
+        round = -1;
+        skip = initialSkip;
     }
     
     /**
@@ -80,6 +110,27 @@ public class DepthFirstAIPlayer implements Player {
      */
     @Override
     public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame) {
+        return decide(board, color, givenMillisPerTurn, remainingMillisInGame,
+                SearchContext.of(color, Long.min(givenMillisPerTurn, remainingMillisInGame)));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、深さ優先探索により必勝手を探します。<br>
+     * 探索時間が足りない場合や中断を要求された場合は、ランダムに手を選択します。<br>
+     * 探索ノード数を {@code context} に報告し、探索深さの上限が指定されている場合は、空きマスの数が上限以下の場合にのみ探索します。<br>
+     * 
+     * @since 2.2.0
+     */
+    @Override
+    public Point decide(
+            Board board,
+            Color color,
+            long givenMillisPerTurn,
+            long remainingMillisInGame,
+            SearchContext context) {
+            
         if (0 < skip) {
             skip--;
             return proxy.decide(board, color, 0, 0);
@@ -106,11 +157,15 @@ public class DepthFirstAIPlayer implements Player {
             return proxy.decide(board, color, 0, 0);
         }
         
-        int myTurns = (blankCells + 1) / 2;
-        long millisForThisTurn = Long.min(givenMillisPerTurn, (long) (weight * remainingMillisInGame / myTurns));
+        // 探索深さの上限が指定されている場合は、上限の範囲内で終局まで読み切れる局面でのみ探索する。
+        if (0 < context.depthBudget() && context.depthBudget() < blankCells) {
+            return proxy.decide(board, color, 0, 0);
+        }
+        
+        Budget budget = timeManager.allocate(givenMillisPerTurn, remainingMillisInGame, blankCells, context);
         
-        // 残り時間が少ない場合は探索を行わずにランダムに返す。
-        if (millisForThisTurn < margin1) {
+        // 残り時間が少ない場合や、実測した探索速度では最少のノード数も探索できない場合は、探索を行わずにランダムに返す。
+        if (budget.softNanos == 0) {
             return proxy.decide(board, color, 0, 0);
         }
         
@@ -119,8 +174,11 @@ public class DepthFirstAIPlayer implements Player {
         //
         // 本来、深さ優先探索はマルチスレッドと相性のよいアルゴリズムだが、
         // ここではソースコードの分かり易さと堅牢性を重視し、シングルスレッドでの処理とする。
+        // 途中で打ち切った探索からは何も得られないため、ハードリミットまで探索する。
         searchableTurns = 0;
-        deadline = Instant.now().plusMillis(millisForThisTurn - margin1);
+        this.context = context;
+        deadline = budget.hardDeadline();
+        nodes = 0;
         
         Point selected;
         try {
@@ -133,6 +191,13 @@ public class DepthFirstAIPlayer implements Player {
             if (debug) {
                 System.out.println(String.format("%d 手まで読めましたが、時間不足です。", searchableTurns));
             }
+        } finally {
+            context.addNodes(nodes & CLOCK_CHECK_MASK);
+            this.context = null;
+            timeManager.observe(nodes, budget.elapsedNanos());
+            if (debug) {
+                System.out.println(String.format("探索速度：%d ノード／秒", timeManager.nodesPerSecond()));
+            }
         }
         return selected;
     }
@@ -171,10 +236,25 @@ public class DepthFirstAIPlayer implements Player {
      * @return 勝者の色
      */
     private Color searchWinnerDeeply(LightweightBoard board, Color currColor, int remainingTurns) {
-        // 時間切れの場合は諦める
-        if (Instant.now().isAfter(deadline)) {
+        // 中断を要求された場合や時間切れの場合は諦める。
+        // 中断要求は volatile 変数の読み込みだけで確認できるため毎ノード確認し、
+        // 時刻の取得は比較的コストが高いため一定ノード数ごとに行う。
+        if (context.isAborted()) {
             throw new TimeUpException();
         }
+        if ((++nodes & CLOCK_CHECK_MASK) == 0) {
+            // 探索ノード数の報告も、時刻の確認と同じ間隔でまとめて行う。
+            context.addNodes(CLOCK_CHECK_MASK + 1);
+            if (0 <= System.nanoTime() - deadline) {
+                throw new TimeUpException();
+            }
+        }
+        
+        // 確定石の数は終局時の石の数の下限となるため、一方の確定石が過半数に達していれば勝敗は既に決している。
+        Color decided = decidedWinner(board, currColor);
+        if (decided != null) {
+            return decided;
+        }
         
         Color winner;
         Point[] availables = Point.stream()
@@ -214,4 +294,25 @@ public class DepthFirstAIPlayer implements Player {
         }
         return winner;
     }
+    
+    /**
+     * 確定石の数から勝者が既に決まっているかを調べる。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 現在の手番
+     * @return 勝者が既に決まっている場合はその色、そうでない場合は {@code null}
+     */
+    private static Color decidedWinner(LightweightBoard board, Color color) {
+        long mine = BitBoards.bitsOf(board, color);
+        long his = BitBoards.bitsOf(board, color.opposite());
+        int half = Point.HEIGHT * Point.WIDTH / 2;
+        
+        if (half < Long.bitCount(mine) && half < Long.bitCount(Stability.stableDiscs(mine, his))) {
+            return color;
+        }
+        if (half < Long.bitCount(his) && half < Long.bitCount(Stability.stableDiscs(his, mine))) {
+            return color.opposite();
+        }
+        return null;
+    }
 }
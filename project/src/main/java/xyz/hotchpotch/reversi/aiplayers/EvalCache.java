@@ -0,0 +1,164 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 他の評価関数による評価値を、局面のハッシュ値をキーとしてキャッシュする評価関数です。<br>
+ * <br>
+ * 探索ツリーを構築するプレーヤーは、手順の異なる同一局面に何度も到達します。
+ * このクラスで評価関数をラップすることにより、パターンやネットワークに基づくような計算コストの高い評価関数の計算を、
+ * 局面ごとに一回に抑えることができます。<br>
+ * キャッシュはダイレクトマップ方式の固定長の配列であり、衝突した場合は新しい評価値で上書きします。
+ * キャッシュにヒットした場合は、オブジェクトの生成を一切行いません。<br>
+ * <br>
+ * 64 ビットのハッシュ値のみで局面を識別するため、異なる局面のハッシュ値が一致した場合には誤った評価値を返しますが、
+ * その確率は無視できるほど小さいものとします。<br>
+ * このクラスはスレッドセーフです。ロックを用いない代わりに、キーと評価値を排他的論理和で結び付けて格納することにより、
+ * 複数のスレッドによる書き込みが交錯した不整合なエントリを検出して無視します。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class EvalCache implements Evaluator {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** キャッシュのエントリ数のデフォルト値 */
+    public static final int DEFAULT_SIZE = 1 << 16;
+    
+    /** キャッシュのエントリ数の最大値 */
+    public static final int MAX_SIZE = 1 << 24;
+    
+    /**
+     * 指定された評価関数の評価値をキャッシュする評価関数を返します。<br>
+     * エントリ数は、指定された値以上の最小の 2 のべき乗に切り上げられます。<br>
+     * 
+     * @param evaluator キャッシュする評価関数
+     * @param size キャッシュのエントリ数
+     * @return キャッシュ付きの評価関数
+     * @throws NullPointerException {@code evaluator} が {@code null} の場合
+     * @throws IllegalArgumentException {@code size} が 1 未満か {@link #MAX_SIZE} より大きい場合
+     */
+    public static EvalCache of(Evaluator evaluator, int size) {
+        Objects.requireNonNull(evaluator);
+        if (size < 1 || MAX_SIZE < size) {
+            throw new IllegalArgumentException("size=" + size);
+        }
+        return new EvalCache(evaluator, size);
+    }
+    
+    /**
+     * 局面の 64 ビットのハッシュ値を返す。<br>
+     * 空のエントリと区別するため、最下位ビットは常に 1 とする。<br>
+     * 
+     * @param mine 評価する側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return ハッシュ値
+     */
+    private static long hash(long mine, long his) {
+        long h = mine * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(his * 0xC2B2AE3D27D4EB4FL, 31);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h | 1L;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Evaluator evaluator;
+    private final int shift;
+    
+    /** ハッシュ値と評価値の排他的論理和 */
+    private final long[] keys;
+    private final int[] values;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private EvalCache(Evaluator evaluator, int size) {
+        assert evaluator != null;
+        assert 0 < size && size <= MAX_SIZE;
+        
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+        this.evaluator = evaluator;
+        shift = Long.SIZE - bits;
+        keys = new long[1 << bits];
+        values = new int[1 << bits];
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、キャッシュに評価値があればそれを返し、なければラップしている評価関数で評価してキャッシュに格納します。<br>
+     */
+    @Override
+    public int evaluate(long mine, long his, int empties) {
+        long key = hash(mine, his);
+        // エントリ数が 1 の場合、シフト量が 64 となり Java の仕様上シフトされないため、明示的に 0 とする。
+        int index = shift == Long.SIZE ? 0 : (int) (key >>> shift);
+        
+        // 評価値を先に読み、キーと突き合わせる。書き込みが交錯していれば一致しない。
+        int value = values[index];
+        if ((keys[index] ^ value) == key) {
+            hits.increment();
+            return value;
+        }
+        
+        misses.increment();
+        value = evaluator.evaluate(mine, his, empties);
+        values[index] = value;
+        keys[index] = key ^ value;
+        return value;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、ラップしている評価関数の資源を解放します。<br>
+     */
+    @Override
+    public void release() {
+        evaluator.release();
+    }
+    
+    /**
+     * キャッシュのエントリ数を返します。<br>
+     * 
+     * @return キャッシュのエントリ数
+     */
+    public int size() {
+        return keys.length;
+    }
+    
+    /**
+     * これまでにキャッシュにヒットした回数を返します。<br>
+     * 
+     * @return キャッシュにヒットした回数
+     */
+    public long hits() {
+        return hits.sum();
+    }
+    
+    /**
+     * これまでにキャッシュにヒットしなかった回数を返します。<br>
+     * 
+     * @return キャッシュにヒットしなかった回数
+     */
+    public long misses() {
+        return misses.sum();
+    }
+    
+    /**
+     * キャッシュの統計情報を表す文字列を返します。<br>
+     * 
+     * @return キャッシュの統計情報を表す文字列
+     */
+    @Override
+    public String toString() {
+        long h = hits();
+        long m = misses();
+        return String.format("%s[size=%d, hits=%d, misses=%d, hitRate=%.1f%%]",
+                getClass().getSimpleName(), size(), h, m, h + m == 0 ? 0.0 : 100.0 * h / (h + m));
+    }
+}
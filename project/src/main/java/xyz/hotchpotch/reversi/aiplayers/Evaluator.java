@@ -0,0 +1,54 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.Player;
+
+/**
+ * {@link Player} 実装クラスの思考ロジックで用いる、リバーシ盤の評価関数を表します。<br>
+ * <br>
+ * 評価関数は、リバーシ盤を {@link BitBoards} の形式のビットボードとして受け取ります。
+ * 各ビットの位置は {@link Point#ordinal()} に対応します。
+ * 探索中に大量に呼び出されることを想定し、実装クラスはオブジェクトの生成や並列ストリームの利用を避け、
+ * プリミティブ値の演算のみで評価値を求めるべきです。<br>
+ * <br>
+ * {@code Evaluator} 実装クラスは、{@link AIPlayerUtil#getEvaluatorParameter(GameCondition, String)} により
+ * クラス名を指定して読み込むことができます。そのために、次のいずれかの public なコンストラクタを持つ必要があります。<br>
+ * <ol>
+ *   <li>{@link GameCondition} を引数にとるコンストラクタ</li>
+ *   <li>引数なしのコンストラクタ</li>
+ * </ol>
+ * ひとつのインスタンスが複数のスレッドから同時に呼び出される可能性があるため、実装クラスはスレッドセーフである必要があります。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+@FunctionalInterface
+public interface Evaluator {
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * リバーシ盤を評価し、評価値を返します。<br>
+     * 評価値が大きいほど、{@code mine} の側にとって有利な状態であることを表します。<br>
+     * 
+     * @param mine 評価する側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @param empties 空きマスの数
+     * @return 評価値
+     */
+    public int evaluate(long mine, long his, int empties);
+    
+    /**
+     * この評価関数が保持している資源を解放します。<br>
+     * 評価関数を利用する {@code Player} 実装クラスは、評価関数を使い終えた時点（例えば
+     * {@link Player#notifyOfResult(xyz.hotchpotch.reversi.framework.GameResult)} の中）でこのメソッドを呼び出すべきです。<br>
+     * このメソッドを複数回呼び出しても、二回目以降は何もしません。<br>
+     * <br>
+     * デフォルト実装は何もしません。<br>
+     * 
+     * @since 2.2.0
+     */
+    public default void release() {
+    }
+}
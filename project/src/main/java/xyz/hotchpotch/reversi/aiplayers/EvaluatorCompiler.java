@@ -0,0 +1,540 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongBinaryOperator;
+import java.util.stream.Collectors;
+
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.core.Stability;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+
+/**
+ * 特徴量と重みの組み合わせを記述した文字列から、重みを定数として埋め込んだ {@link Evaluator} 実装クラスを
+ * 実行時に生成するユーティリティクラスです。<br>
+ * <br>
+ * 生成されるクラスは、特徴量ごとに {@link BitBoards} 等のメソッドを直接呼び出し、重みとの積を合計するだけの
+ * 分岐のないバイトコードから成ります。そのため、パラメータ調整のために多数の重みの組み合わせを試す場合でも、
+ * 再コンパイルすることなく、手書きの評価関数（例えば {@link BasicEvaluator}）と同等の速度で評価を行うことができます。<br>
+ * <br>
+ * 記述形式は次のとおりです。
+ * <ul>
+ *   <li>項をカンマまたは空白文字（改行を含む）で区切って列挙します。{@code #} から行末まではコメントとして無視します。</li>
+ *   <li>各項は {@code 特徴量:重み} または {@code 特徴量:序盤の重み:終盤の重み} の形式で記述します。
+ *       特徴量には {@link Feature} の要素名を大文字・小文字を区別せずに指定します。</li>
+ *   <li>{@code 特徴量:重み} の項は、特徴量の値に重みを乗じた値を評価値に加えます。</li>
+ *   <li>{@code 特徴量:序盤の重み:終盤の重み} の項は、特徴量の値に
+ *       （序盤の重み × 空きマスの数 ＋ 終盤の重み × 石のあるマスの数）を乗じた値を評価値に加えます。</li>
+ * </ul>
+ * 例えば次の記述は、{@link BasicEvaluator#BLENDED} と同じ評価値を返す評価関数を表します。
+ * <pre>
+ *     mobility:10:0, discs:0:1
+ * </pre>
+ * {@link AIPlayerUtil#getEvaluatorParameter(GameCondition, String)} に {@code :} を含む値を指定すると記述そのものとして、
+ * {@code @} で始まる値を指定するとそれに続くパスのファイルの内容として、このクラスにより評価関数を生成します。<br>
+ * <br>
+ * 生成したクラスは記述ごとに一定数までキャッシュし、同じ記述に対しては同じインスタンスを返します。
+ * 生成されるクラスはそれぞれ専用のクラスローダにより定義されるため、キャッシュから外れて参照されなくなったクラスは
+ * アンロードの対象となります。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class EvaluatorCompiler {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 評価関数の記述に用いることができる特徴量を表す列挙型です。<br>
+     * いずれの特徴量も、評価する側についての値から相手の側についての値を引いた差を表します。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static enum Feature {
+        
+        /** 石の数の差 */
+        DISCS(-1L),
+        
+        /** 隅の石の数の差 */
+        CORNERS(BitBoards.CORNERS),
+        
+        /** X 打ちの石の数の差 */
+        X_SQUARES(BitBoards.X_SQUARES),
+        
+        /** C 打ちの石の数の差 */
+        C_SQUARES(BitBoards.C_SQUARES),
+        
+        /** 着手可能位置の数の差（{@link BitBoards#mobility(long, long)}） */
+        MOBILITY(BitBoards.class, "mobility", BitBoards::mobility),
+        
+        /** 潜在的な着手可能位置の数の差（{@link BitBoards#potentialMobility(long, long)}） */
+        POTENTIAL_MOBILITY(BitBoards.class, "potentialMobility", BitBoards::potentialMobility),
+        
+        /** 開放度のある石の数の差（{@link BitBoards#frontier(long, long)}） */
+        FRONTIER(BitBoards.class, "frontier", BitBoards::frontier),
+        
+        /** 隣接する隅が空いている X 打ちの石の数の差（{@link BitBoards#openXSquares(long, long)}） */
+        OPEN_X_SQUARES(BitBoards.class, "openXSquares", BitBoards::openXSquares),
+        
+        /** 確定石の数の差（{@link Stability#stableDiscs(long, long)}） */
+        STABILITY(Stability.class, "stableDiscs", Stability::stableDiscs);
+        
+        /** 石の配置との論理積をとるマスク（メソッドにより特徴量を求める場合は 0） */
+        private final long mask;
+        
+        /** 特徴量を求める public static long xxx(long, long) メソッドの宣言クラスと名前 */
+        private final String owner;
+        private final String method;
+        private final LongBinaryOperator operator;
+        
+        private Feature(long mask) {
+            this.mask = mask;
+            owner = null;
+            method = null;
+            operator = (mine, his) -> mine & mask;
+        }
+        
+        private Feature(Class<?> owner, String method, LongBinaryOperator operator) {
+            mask = 0;
+            this.owner = owner.getName().replace('.', '/');
+            this.method = method;
+            this.operator = operator;
+        }
+        
+        /**
+         * 指定されたリバーシ盤におけるこの特徴量の値を返します。<br>
+         * 
+         * @param mine 評価する側の石の配置を表すビットボード
+         * @param his 相手の石の配置を表すビットボード
+         * @return 特徴量の値
+         */
+        public int valueAt(long mine, long his) {
+            return Long.bitCount(operator.applyAsLong(mine, his)) - Long.bitCount(operator.applyAsLong(his, mine));
+        }
+    }
+    
+    /**
+     * 評価関数の記述のうちのひとつの項を表す。<br>
+     * 項の重みは {@code coefficient × 空きマスの数 ＋ constant} として保持する。<br>
+     */
+    private static class Term {
+        private final Feature feature;
+        private final int coefficient;
+        private final int constant;
+        
+        private Term(Feature feature, int coefficient, int constant) {
+            this.feature = feature;
+            this.coefficient = coefficient;
+            this.constant = constant;
+        }
+        
+        private int weightAt(int empties) {
+            return coefficient * empties + constant;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s:%d:%d", feature, coefficient, constant);
+        }
+    }
+    
+    private static final int CACHE_SIZE = 256;
+    
+    private static final Map<String, Evaluator> cache = Collections.synchronizedMap(
+            new LinkedHashMap<String, Evaluator>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+                
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Evaluator> eldest) {
+                    return CACHE_SIZE < size();
+                }
+            });
+    
+    private static final AtomicInteger sequence = new AtomicInteger();
+    
+    /**
+     * 指定された記述に従う評価関数のクラスを生成し、そのインスタンスを返します。<br>
+     * 
+     * @param spec 評価関数の記述
+     * @return 評価関数
+     * @throws NullPointerException {@code spec} が {@code null} の場合
+     * @throws IllegalArgumentException {@code spec} の形式が不正な場合
+     */
+    public static Evaluator compile(String spec) {
+        List<Term> terms = parse(Objects.requireNonNull(spec));
+        String key = terms.stream().map(Term::toString).collect(Collectors.joining(","));
+        String description = spec.replaceAll("#[^\\r\\n]*", "").trim().replaceAll("[,\\s]+", ", ");
+        return cache.computeIfAbsent(key, k -> define(terms, description));
+    }
+    
+    /**
+     * 指定されたファイルに記述された評価関数のクラスを生成し、そのインスタンスを返します。<br>
+     * 
+     * @param path 評価関数の記述を格納したファイル（UTF-8）
+     * @return 評価関数
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IllegalArgumentException ファイルの内容の形式が不正な場合
+     * @throws UncheckedIOException ファイルの読み込みに失敗した場合
+     */
+    public static Evaluator compile(Path path) {
+        Objects.requireNonNull(path);
+        try {
+            return compile(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 指定された記述に従う評価関数を、クラスを生成せずに返す。<br>
+     * 生成したクラスの評価値を検証するためのものであり、評価速度は {@link #compile(String)} によるものに劣る。<br>
+     * 
+     * @param spec 評価関数の記述
+     * @return 評価関数
+     * @throws IllegalArgumentException {@code spec} の形式が不正な場合
+     */
+    /*package*/ static Evaluator interpret(String spec) {
+        Term[] terms = parse(spec).toArray(new Term[0]);
+        return (mine, his, empties) -> {
+            int value = 0;
+            for (Term term : terms) {
+                value += term.feature.valueAt(mine, his) * term.weightAt(empties);
+            }
+            return value;
+        };
+    }
+    
+    private static List<Term> parse(String spec) {
+        assert spec != null;
+        
+        String body = spec.replaceAll("#[^\\r\\n]*", "").trim();
+        List<Term> terms = new ArrayList<>();
+        if (body.isEmpty()) {
+            return terms;
+        }
+        for (String token : body.split("[,\\s]+")) {
+            String[] parts = token.split(":", -1);
+            if (parts.length < 2 || 3 < parts.length) {
+                throw new IllegalArgumentException("illegal term: " + token);
+            }
+            try {
+                Feature feature = Feature.valueOf(parts[0].toUpperCase(Locale.ROOT));
+                if (parts.length == 2) {
+                    terms.add(new Term(feature, 0, Integer.parseInt(parts[1])));
+                } else {
+                    int opening = Integer.parseInt(parts[1]);
+                    int ending = Integer.parseInt(parts[2]);
+                    terms.add(new Term(feature, opening - ending, ending * Point.HEIGHT * Point.WIDTH));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("illegal term: " + token, e);
+            }
+        }
+        return terms;
+    }
+    
+    /** 生成したクラスを定義するためのクラスローダ */
+    private static class Loader extends ClassLoader {
+        private Loader() {
+            super(Evaluator.class.getClassLoader());
+        }
+        
+        private Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+    
+    private static Evaluator define(List<Term> terms, String description) {
+        assert terms != null;
+        assert description != null;
+        
+        String name = EvaluatorCompiler.class.getName() + "$Generated" + sequence.incrementAndGet();
+        byte[] bytes = new ClassWriter(name.replace('.', '/')).write(terms, description);
+        try {
+            return (Evaluator) new Loader().define(name, bytes).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
+    /**
+     * 評価関数のクラスファイルを組み立てる。<br>
+     * 分岐を持たないメソッドのみから成るため、スタックマップフレームは不要である。<br>
+     */
+    private static class ClassWriter {
+        
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+        
+        private static final int ICONST_0 = 0x03;
+        private static final int BIPUSH = 0x10;
+        private static final int SIPUSH = 0x11;
+        private static final int LDC_W = 0x13;
+        private static final int LDC2_W = 0x14;
+        private static final int ILOAD = 0x15;
+        private static final int ALOAD_0 = 0x2a;
+        private static final int LLOAD_1 = 0x1f;
+        private static final int LLOAD_3 = 0x21;
+        private static final int IADD = 0x60;
+        private static final int ISUB = 0x64;
+        private static final int IMUL = 0x68;
+        private static final int LAND = 0x7f;
+        private static final int IRETURN = 0xac;
+        private static final int ARETURN = 0xb0;
+        private static final int RETURN = 0xb1;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKESTATIC = 0xb8;
+        
+        /** evaluate(long, long, int) の引数 empties のローカル変数インデックス */
+        private static final int EMPTIES = 5;
+        
+        private final String className;
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final DataOutputStream poolOut = new DataOutputStream(pool);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int poolCount = 1;
+        
+        private ClassWriter(String className) {
+            this.className = className;
+        }
+        
+        private byte[] write(List<Term> terms, String description) {
+            try {
+                int thisClass = classEntry(className);
+                int superClass = classEntry("java/lang/Object");
+                int evaluatorClass = classEntry(Evaluator.class.getName().replace('.', '/'));
+                
+                byte[] init = init();
+                byte[] evaluate = evaluate(terms);
+                byte[] toString = toString(description);
+                
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(52);
+                out.writeShort(poolCount);
+                pool.writeTo(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(evaluatorClass);
+                out.writeShort(0);
+                out.writeShort(3);
+                out.write(init);
+                out.write(evaluate);
+                out.write(toString);
+                out.writeShort(0);
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private byte[] init() throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+            out.writeByte(ALOAD_0);
+            out.writeByte(INVOKESPECIAL);
+            out.writeShort(methodEntry("java/lang/Object", "<init>", "()V"));
+            out.writeByte(RETURN);
+            return method("<init>", "()V", 1, 1, code.toByteArray());
+        }
+        
+        private byte[] evaluate(List<Term> terms) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+            int bitCount = methodEntry("java/lang/Long", "bitCount", "(J)I");
+            
+            if (terms.isEmpty()) {
+                out.writeByte(ICONST_0);
+            }
+            for (int n = 0; n < terms.size(); n++) {
+                Term term = terms.get(n);
+                
+                // 特徴量：bitCount(f(mine, his)) - bitCount(f(his, mine))
+                int[][] sides = { { LLOAD_1, LLOAD_3 }, { LLOAD_3, LLOAD_1 } };
+                for (int[] side : sides) {
+                    out.writeByte(side[0]);
+                    if (term.feature.owner != null) {
+                        out.writeByte(side[1]);
+                        out.writeByte(INVOKESTATIC);
+                        out.writeShort(methodEntry(term.feature.owner, term.feature.method, "(JJ)J"));
+                    } else if (term.feature.mask != -1L) {
+                        out.writeByte(LDC2_W);
+                        out.writeShort(longEntry(term.feature.mask));
+                        out.writeByte(LAND);
+                    }
+                    out.writeByte(INVOKESTATIC);
+                    out.writeShort(bitCount);
+                }
+                out.writeByte(ISUB);
+                
+                // 重み：coefficient × empties + constant
+                if (term.coefficient == 0) {
+                    pushInt(out, term.constant);
+                } else {
+                    out.writeByte(ILOAD);
+                    out.writeByte(EMPTIES);
+                    pushInt(out, term.coefficient);
+                    out.writeByte(IMUL);
+                    if (term.constant != 0) {
+                        pushInt(out, term.constant);
+                        out.writeByte(IADD);
+                    }
+                }
+                out.writeByte(IMUL);
+                
+                if (0 < n) {
+                    out.writeByte(IADD);
+                }
+            }
+            out.writeByte(IRETURN);
+            return method("evaluate", "(JJI)I", 8, 6, code.toByteArray());
+        }
+        
+        private byte[] toString(String description) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+            out.writeByte(LDC_W);
+            out.writeShort(stringEntry(description));
+            out.writeByte(ARETURN);
+            return method("toString", "()Ljava/lang/String;", 1, 1, code.toByteArray());
+        }
+        
+        private void pushInt(DataOutputStream out, int value) throws IOException {
+            if (Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE) {
+                out.writeByte(BIPUSH);
+                out.writeByte(value);
+            } else if (Short.MIN_VALUE <= value && value <= Short.MAX_VALUE) {
+                out.writeByte(SIPUSH);
+                out.writeShort(value);
+            } else {
+                out.writeByte(LDC_W);
+                out.writeShort(intEntry(value));
+            }
+        }
+        
+        private byte[] method(String name, String descriptor, int maxStack, int maxLocals, byte[] code)
+                throws IOException {
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(utf8Entry(name));
+            out.writeShort(utf8Entry(descriptor));
+            out.writeShort(1);
+            out.writeShort(utf8Entry("Code"));
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+            return bytes.toByteArray();
+        }
+        
+        // 以下、コンスタントプールのエントリを登録し、そのインデックスを返す。
+        
+        private int utf8Entry(String value) throws IOException {
+            Integer index = entries.get("Utf8:" + value);
+            if (index == null) {
+                poolOut.writeByte(1);
+                poolOut.writeUTF(value);
+                index = register("Utf8:" + value, 1);
+            }
+            return index;
+        }
+        
+        private int intEntry(int value) throws IOException {
+            Integer index = entries.get("Integer:" + value);
+            if (index == null) {
+                poolOut.writeByte(3);
+                poolOut.writeInt(value);
+                index = register("Integer:" + value, 1);
+            }
+            return index;
+        }
+        
+        private int longEntry(long value) throws IOException {
+            Integer index = entries.get("Long:" + value);
+            if (index == null) {
+                poolOut.writeByte(5);
+                poolOut.writeLong(value);
+                index = register("Long:" + value, 2);
+            }
+            return index;
+        }
+        
+        private int classEntry(String internalName) throws IOException {
+            Integer index = entries.get("Class:" + internalName);
+            if (index == null) {
+                int nameIndex = utf8Entry(internalName);
+                poolOut.writeByte(7);
+                poolOut.writeShort(nameIndex);
+                index = register("Class:" + internalName, 1);
+            }
+            return index;
+        }
+        
+        private int stringEntry(String value) throws IOException {
+            Integer index = entries.get("String:" + value);
+            if (index == null) {
+                int valueIndex = utf8Entry(value);
+                poolOut.writeByte(8);
+                poolOut.writeShort(valueIndex);
+                index = register("String:" + value, 1);
+            }
+            return index;
+        }
+        
+        private int methodEntry(String owner, String name, String descriptor) throws IOException {
+            String key = "Methodref:" + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int ownerIndex = classEntry(owner);
+                int nameIndex = utf8Entry(name);
+                int descriptorIndex = utf8Entry(descriptor);
+                poolOut.writeByte(12);
+                poolOut.writeShort(nameIndex);
+                poolOut.writeShort(descriptorIndex);
+                int nameAndType = register("NameAndType:" + name + descriptor, 1);
+                poolOut.writeByte(10);
+                poolOut.writeShort(ownerIndex);
+                poolOut.writeShort(nameAndType);
+                index = register(key, 1);
+            }
+            return index;
+        }
+        
+        private int register(String key, int slots) {
+            int index = poolCount;
+            entries.put(key, index);
+            poolCount += slots;
+            return index;
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private EvaluatorCompiler() {
+    }
+}
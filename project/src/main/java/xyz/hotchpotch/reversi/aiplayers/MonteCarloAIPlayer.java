@@ -1,14 +1,15 @@
 package xyz.hotchpotch.reversi.aiplayers;
 
-import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import xyz.hotchpotch.reversi.aiplayers.AIPlayerUtil.LightweightBoard;
+import xyz.hotchpotch.reversi.aiplayers.TimeManager.Budget;
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
@@ -16,6 +17,7 @@ import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
 import xyz.hotchpotch.reversi.framework.GameCondition;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.SearchContext;
 
 /**
  * モンテカルロ・シミュレーションにより最善手を選択する {@link Player} の実装です。<br>
@@ -77,10 +79,33 @@ public class MonteCarloAIPlayer implements Player {
         return 0;
     };
     
+    /**
+     * 自分の残りターン数に応じた、今回のターンの思考（試行）に費やす時間のウェイトを返す。<br>
+     * 
+     * @param myTurns 自分の残りターン数
+     * @return 平均的な持ち時間に対するウェイト
+     */
+    private static double weight(int myTurns) {
+        // 序盤～中盤に時間を割けるよう、残り手数に応じて配分を変える。
+        if (30 <= myTurns) {
+            // 黒の初手はどこを選んでも同じなので考えるだけ無駄
+            // 白の初手もランダムに選ぶことにする
+            return 0;
+        } else if (24 <= myTurns) {
+            return 1.5;
+        } else if (18 <= myTurns) {
+            return 2.0;
+        } else if (12 <= myTurns) {
+            return 1.5;
+        } else {
+            return 1.0;
+        }
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private final Player proxy;
-    private final long margin1;
+    private final TimeManager timeManager;
     private final long margin2;
     private final boolean debug;
     
@@ -94,9 +119,11 @@ public class MonteCarloAIPlayer implements Player {
         proxy = new RandomAIPlayer(null, gameCondition);
         
         // 動作制御用パラメータの取得
-        margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(100L);
+        long margin1 = AIPlayerUtil.getLongParameter(gameCondition, "margin1").filter(v -> 0 < v).orElse(100L);
         margin2 = AIPlayerUtil.getLongParameter(gameCondition, "margin2").filter(v -> 0 < v).orElse(50L);
         debug = AIPlayerUtil.getBooleanParameter(gameCondition, "debug").orElse(false);
+        
+        timeManager = TimeManager.of(margin1, MonteCarloAIPlayer::weight);
     }
     
     /**
@@ -107,6 +134,27 @@ public class MonteCarloAIPlayer implements Player {
      */
     @Override
     public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame) {
+        return decide(board, color, givenMillisPerTurn, remainingMillisInGame,
+                SearchContext.of(color, Long.min(givenMillisPerTurn, remainingMillisInGame)));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、モンテカルロ・シミュレーションにより最善手を選択します。<br>
+     * 試行時間が足りない場合はランダムに手を選択します。<br>
+     * シミュレーションの途中経過における最善手を、暫定手として随時 {@code context} に公開します。<br>
+     * {@code context} により中断を要求された場合は、その時点での最善手を返します。<br>
+     * 一回のシミュレーションを一ノードとして、探索ノード数を {@code context} に報告します。<br>
+     */
+    @Override
+    public Point decide(
+            Board board,
+            Color color,
+            long givenMillisPerTurn,
+            long remainingMillisInGame,
+            SearchContext context) {
+            
         Point[] candidates = Point.stream()
                 .filter(p -> Rule.canPutAt(board, color, p))
                 .toArray(Point[]::new);
@@ -118,15 +166,15 @@ public class MonteCarloAIPlayer implements Player {
             return candidates[0];
         }
         
-        long millisForThisTurn = millisForThisTurn(board, givenMillisPerTurn, remainingMillisInGame);
-        if (millisForThisTurn < margin2) {
+        int blankCells = (int) Point.stream().filter(p -> board.colorAt(p) == null).count();
+        Budget budget = timeManager.allocate(givenMillisPerTurn, remainingMillisInGame, blankCells, context);
+        if (budget.softNanos < TimeUnit.MILLISECONDS.toNanos(margin2)) {
             // 費やせる時間が少ない場合はシミュレーションを行わずにランダムに返す。
             return proxy.decide(board, color, 0, 0);
         }
         
         // シミュレーションを行い、候補箇所ごとの結果を受け取る。
-        Collection<Record> records =
-                simulate(board, color, candidates, Instant.now().plusMillis(millisForThisTurn));
+        Collection<Record> records = simulate(board, color, candidates, budget, context);
                 
         // デバッグモードの場合、候補箇所ごとのスコアを出力する。
         if (debug) {
@@ -142,16 +190,23 @@ public class MonteCarloAIPlayer implements Player {
     }
     
     /**
-     * 終了時刻になるまで、候補箇所それぞれに対してシミュレーションを行い、
+     * 持ち時間が尽きるか中断を要求されるまで、候補箇所それぞれに対してシミュレーションを行い、
      * 候補箇所それぞれに対する結果を返す。<br>
      * 
      * @param board 現在のリバーシ盤
      * @param color 自身の石の色
      * @param candidates 今回のターンで置ける場所（候補箇所）
-     * @param deadline シミュレーション終了時刻
+     * @param budget 今回のターンの持ち時間
+     * @param context 暫定手の公開先
      * @return 候補箇所ごとの結果が格納された {@code Set}
      */
-    private Collection<Record> simulate(Board board, Color color, Point[] candidates, Instant deadline) {
+    private Collection<Record> simulate(
+            Board board,
+            Color color,
+            Point[] candidates,
+            Budget budget,
+            SearchContext context) {
+            
         
         // 下準備
         Map<Point, Record> records = new HashMap<>();
@@ -168,13 +223,19 @@ public class MonteCarloAIPlayer implements Player {
         // 本来、モンテカルロ・シミュレーションは並行プログラミングと相性のよいアルゴリズムだが、
         // ここでは分かり易さとコードの堅牢さを優先し、シングルスレッドでの順次処理として実装する。
         do {
-            
             // 候補箇所ごとに以降のゲームをシミュレートし、結果を積算する。
             for (Point candidate : candidates) {
                 Color winner = simulateOneGame(nextBoards.get(candidate), color.opposite());
                 records.get(candidate).increment(winner);
             }
-        } while (Instant.now().isBefore(deadline));
+            // 一回のシミュレーションを一ノードとして報告する。
+            context.addNodes(candidates.length);
+            context.offer(Collections.max(records.values(), comparator).candidate);
+            
+            // 一巡ごとのシミュレーション回数は一定のため、次の一巡も前回と同程度の時間がかかると見込まれる。
+            // 持ち時間内に終えられる場合のみ続行する。
+            budget.iterationFinished(candidates.length);
+        } while (budget.canStartIteration());
         
         return records.values();
     }
@@ -200,38 +261,4 @@ public class MonteCarloAIPlayer implements Player {
         
         return Rule.winner(board);
     }
-    
-    /**
-     * 今回のターンの思考（試行）に何ミリ秒費やすかを決める。<br>
-     * 
-     * @param board 現在のリバーシ盤
-     * @param givenMillisPerTurn 一手あたりの制限時間（ミリ秒）
-     * @param remainingMillisInGame ゲーム内での残り持ち時間（ミリ秒）
-     * @return 今回のターンに費やせる時間（ミリ秒）
-     */
-    private long millisForThisTurn(Board board, long givenMillisPerTurn, long remainingMillisInGame) {
-        int blankCells = (int) Point.stream().filter(p -> board.colorAt(p) == null).count();
-        int myTurns = (blankCells + 1) / 2;
-        float weight;
-        
-        // 序盤～中盤に時間を割けるよう、残り手数に応じて配分を変える。
-        if (30 <= myTurns) {
-            // 黒の初手はどこを選んでも同じなので考えるだけ無駄
-            // 白の初手もランダムに選ぶことにする
-            return 0;
-        } else if (24 <= myTurns) {
-            weight = 1.5f;
-        } else if (18 <= myTurns) {
-            weight = 2.0f;
-        } else if (12 <= myTurns) {
-            weight = 1.5f;
-        } else if (6 <= myTurns) {
-            weight = 1.0f;
-        } else {
-            weight = 1.0f;
-        }
-        
-        long millisForThisTurn = (long) ((float) (remainingMillisInGame - margin1) * weight) / myTurns;
-        return Long.min(millisForThisTurn, givenMillisPerTurn - margin1);
-    }
 }
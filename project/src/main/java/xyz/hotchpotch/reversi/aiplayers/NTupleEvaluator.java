@@ -0,0 +1,171 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+
+import xyz.hotchpotch.reversi.aiplayers.PatternEvaluator.Indices;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+
+/**
+ * {@link PatternEvaluator} と同じパターン（N-tuple）の組を、{@code byte} 型に量子化した重みで評価する評価関数です。<br>
+ * <br>
+ * {@link PatternWeights} の {@code short} 型の重みを、ステージごとに最大の絶対値が 127 に収まるよう
+ * 共通のスケールで割って {@code byte} 型に丸めて保持し、評価時には重みの和にスケールを掛けて評価値とします。
+ * 自分と相手を入れ替えた重みテーブルもあらかじめ用意しておくため、白から見た評価でも変換表を引く必要がありません。
+ * 一回の評価で参照するのはいずれか一方のテーブルのみであり、その大きさは {@code short} 型の重みテーブルの半分となるため、
+ * CPU キャッシュに載りやすくなります。<br>
+ * <br>
+ * 探索の中で評価を繰り返す場合は、{@link Indices} を {@link Indices#apply(Color, int, long)} と
+ * {@link Indices#undo(Color, int, long)} により差分更新し、{@link #evaluate(Indices, Color, int)} を利用してください。
+ * この場合、一回の評価はインスタンスの数だけの配列参照と加算で済みます。<br>
+ * <br>
+ * 重みテーブルはパラメータ {@code patternWeights} で指定されたファイルから読み込みます。
+ * 指定がない場合は、{@link PatternWeights#heuristic()} を用います。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class NTupleEvaluator implements Evaluator {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 量子化した重みの絶対値の最大値 */
+    private static final int MAX_QUANTIZED = Byte.MAX_VALUE;
+    
+    private static final int STAGE_LENGTH = PatternEvaluator.STAGE_LENGTH;
+    private static final int[] INSTANCE_OFFSETS = PatternEvaluator.INSTANCE_OFFSETS;
+    
+    private static PatternWeights load(GameCondition gameCondition) {
+        Optional<String> path = AIPlayerUtil.getParameter(gameCondition, "patternWeights");
+        if (!path.isPresent()) {
+            return PatternWeights.heuristic();
+        }
+        try {
+            return WeightRegistry.acquire(Paths.get(path.get()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 状態 1 の側から見た、量子化した重み */
+    private final byte[] weights;
+    
+    /** 状態 2 の側から見た、量子化した重み */
+    private final byte[] swapped;
+    
+    /** ステージごとのスケール */
+    private final int[] scales;
+    
+    /**
+     * ゲーム実施条件のパラメータ {@code patternWeights} で指定されたファイルの重みテーブルを量子化して用いる、
+     * このクラスのインスタンスを生成します。<br>
+     * 重みテーブルは量子化した時点で不要となるため、このインスタンスは重みテーブルへの参照を保持しません。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @throws UncheckedIOException 重みテーブルの読み込みに失敗した場合
+     */
+    public NTupleEvaluator(GameCondition gameCondition) {
+        this(load(gameCondition), true);
+    }
+    
+    /**
+     * 指定された重みテーブルを量子化して用いる、このクラスのインスタンスを生成します。<br>
+     * 
+     * @param weights 重みテーブル
+     * @throws NullPointerException {@code weights} が {@code null} の場合
+     */
+    public NTupleEvaluator(PatternWeights weights) {
+        this(Objects.requireNonNull(weights), false);
+    }
+    
+    private NTupleEvaluator(PatternWeights source, boolean shared) {
+        assert source != null;
+        
+        weights = new byte[PatternWeights.STAGES * STAGE_LENGTH];
+        swapped = new byte[weights.length];
+        scales = new int[PatternWeights.STAGES];
+        
+        try {
+            for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+                int maxAbs = 0;
+                for (int f = 0; f < PatternEvaluator.FAMILY_CELLS.length; f++) {
+                    int size = PatternWeights.sizeOf(PatternEvaluator.FAMILY_CELLS[f]);
+                    for (int index = 0; index < size; index++) {
+                        maxAbs = Integer.max(maxAbs, Math.abs(source.get(stage, f, index)));
+                    }
+                }
+                int scale = Integer.max(1, (maxAbs + MAX_QUANTIZED - 1) / MAX_QUANTIZED);
+                scales[stage] = scale;
+                
+                int offset = stage * STAGE_LENGTH;
+                for (int f = 0; f < PatternEvaluator.FAMILY_CELLS.length; f++) {
+                    int size = PatternWeights.sizeOf(PatternEvaluator.FAMILY_CELLS[f]);
+                    for (int index = 0; index < size; index++) {
+                        byte quantized = (byte) Math.round((double) source.get(stage, f, index) / scale);
+                        weights[offset + index] = quantized;
+                        swapped[offset + PatternEvaluator.SWAPS[f][index]] = quantized;
+                    }
+                    offset += size;
+                }
+            }
+        } finally {
+            if (shared) {
+                WeightRegistry.release(source);
+            }
+        }
+    }
+    
+    /**
+     * 指定されたステージのスケール、すなわち量子化した重み 1 あたりの評価値を返します。<br>
+     * 
+     * @param stage ステージ
+     * @return スケール
+     */
+    /*package*/ int scaleOf(int stage) {
+        return scales[stage];
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、すべてのインスタンスのインデックスを盤面から直接求めます。<br>
+     */
+    @Override
+    public int evaluate(long mine, long his, int empties) {
+        int stage = PatternEvaluator.stageOf(empties);
+        int base = stage * STAGE_LENGTH;
+        int[][] instances = PatternEvaluator.INSTANCES;
+        int sum = 0;
+        for (int n = 0; n < instances.length; n++) {
+            sum += weights[base + INSTANCE_OFFSETS[n] + PatternEvaluator.index(instances[n], mine, his)];
+        }
+        return sum * scales[stage];
+    }
+    
+    /**
+     * 差分更新されたインデックスを用いてリバーシ盤を評価し、評価値を返します。<br>
+     * 
+     * @param indices 評価するリバーシ盤に対応するインデックス
+     * @param color 評価する側の色
+     * @param empties 空きマスの数
+     * @return 評価値
+     */
+    public int evaluate(Indices indices, Color color, int empties) {
+        int stage = PatternEvaluator.stageOf(empties);
+        int base = stage * STAGE_LENGTH;
+        byte[] table = color == Color.BLACK ? weights : swapped;
+        int[] values = indices.values;
+        int sum = 0;
+        for (int n = 0; n < values.length; n++) {
+            sum += table[base + INSTANCE_OFFSETS[n] + values[n]];
+        }
+        return sum * scales[stage];
+    }
+}
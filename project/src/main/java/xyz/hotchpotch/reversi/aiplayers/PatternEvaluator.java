@@ -0,0 +1,433 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+
+/**
+ * 盤面上の定型パターンごとの重みテーブルにより評価を行う評価関数です。<br>
+ * <br>
+ * 辺、隅の 3x3 領域と 2x5 領域、2～4 列目（行目）、斜めのライン等のパターンについて、
+ * 盤面の回転と鏡映により得られるすべての位置（インスタンス）を評価します。
+ * パターン内の各マスの状態（空き＝0、自分＝1、相手＝2）を 3 進数の各桁とみなしてインデックスを求め、
+ * 空きマスの数により定まるステージごとの重みテーブル（{@link PatternWeights}）から重みを引いて合算します。<br>
+ * <br>
+ * {@link #evaluate(long, long, int)} はビットボードから毎回すべてのインデックスを計算します。
+ * 探索の中で繰り返し評価を行う場合は、{@link Indices} を手の適用に合わせて差分更新し、
+ * {@link #evaluate(Indices, Color, int)} を利用してください。この場合、評価はインスタンスの数だけの配列参照で済みます。<br>
+ * <br>
+ * 重みテーブルは、パラメータ {@code patternWeights} で指定されたファイルを {@link WeightRegistry} を通じて
+ * メモリにマップして利用します。同じファイルを指定したインスタンスどうしは、ひとつのマップを共有します。
+ * 指定がない場合は、マスごとの古典的な重みから生成した {@link PatternWeights#heuristic()} を用います。<br>
+ * 使い終えたインスタンスについては {@link #release()} を呼び出してください。<br>
+ * このクラスはスレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class PatternEvaluator implements Evaluator {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * パターンのインデックスを、手の適用に合わせて差分更新できる形で保持するクラスです。<br>
+     * インデックスは黒を 1、白を 2 として求めたものを保持します。<br>
+     * <br>
+     * この実装は同期されません。複数のスレッドから同じインスタンスを操作することはしないでください。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static final class Indices {
+        
+        /**
+         * 指定されたビットボードに対応する {@code Indices} を生成します。<br>
+         * 
+         * @param black 黒石の配置を表すビットボード
+         * @param white 白石の配置を表すビットボード
+         * @return 新しい {@code Indices}
+         */
+        public static Indices of(long black, long white) {
+            Indices indices = new Indices();
+            for (int n = 0; n < INSTANCES.length; n++) {
+                indices.values[n] = index(INSTANCES[n], black, white);
+            }
+            return indices;
+        }
+        
+        /*package*/ final int[] values = new int[INSTANCES.length];
+        
+        private Indices() {
+        }
+        
+        /**
+         * このオブジェクトの複製を返します。<br>
+         * 
+         * @return このオブジェクトの複製
+         */
+        public Indices copy() {
+            Indices copy = new Indices();
+            copy.copyFrom(this);
+            return copy;
+        }
+        
+        /**
+         * 指定されたオブジェクトの内容をこのオブジェクトに複写します。<br>
+         * 探索中にオブジェクトを生成せずに局面を巻き戻すために利用できます。<br>
+         * 
+         * @param other 複写元
+         */
+        public void copyFrom(Indices other) {
+            System.arraycopy(other.values, 0, values, 0, values.length);
+        }
+        
+        /**
+         * 手の適用に合わせてインデックスを更新します。<br>
+         * 
+         * @param color 石を置いた色
+         * @param square 石を置いた位置（{@link Point#ordinal()} の値）
+         * @param flipped ひっくり返った石を表すビットボード（{@link BitBoards#flips(long, long, int)} の戻り値）
+         */
+        public void apply(Color color, int square, long flipped) {
+            update(color, square, flipped, 1);
+        }
+        
+        /**
+         * 手の適用を取り消し、{@link #apply(Color, int, long)} を呼び出す前のインデックスに戻します。<br>
+         * 引数には、取り消す手の {@link #apply(Color, int, long)} に渡したものと同じ値を指定してください。<br>
+         * 
+         * @param color 石を置いた色
+         * @param square 石を置いた位置（{@link Point#ordinal()} の値）
+         * @param flipped ひっくり返った石を表すビットボード
+         * @since 2.2.0
+         */
+        public void undo(Color color, int square, long flipped) {
+            update(color, square, flipped, -1);
+        }
+        
+        private void update(Color color, int square, long flipped, int direction) {
+            int placed = (color == Color.BLACK ? 1 : 2) * direction;
+            int[] instances = SQUARE_INSTANCES[square];
+            int[] weights = SQUARE_POWERS[square];
+            for (int k = 0; k < instances.length; k++) {
+                values[instances[k]] += placed * weights[k];
+            }
+            
+            // 白 (2) から黒 (1) へは 1 桁分減り、黒から白へは 1 桁分増える。
+            int sign = (color == Color.BLACK ? -1 : 1) * direction;
+            while (flipped != 0) {
+                int sq = Long.numberOfTrailingZeros(flipped);
+                flipped &= flipped - 1;
+                instances = SQUARE_INSTANCES[sq];
+                weights = SQUARE_POWERS[sq];
+                for (int k = 0; k < instances.length; k++) {
+                    values[instances[k]] += sign * weights[k];
+                }
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof Indices) {
+                return Arrays.equals(values, ((Indices) o).values);
+            }
+            return false;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+    
+    /** パターンの種類ごとの、代表インスタンスを構成するマス（{@code {i, j}} の並び） */
+    private static final int[][][] FAMILIES = {
+            // 2 行目
+            { { 1, 0 }, { 1, 1 }, { 1, 2 }, { 1, 3 }, { 1, 4 }, { 1, 5 }, { 1, 6 }, { 1, 7 } },
+            // 3 行目
+            { { 2, 0 }, { 2, 1 }, { 2, 2 }, { 2, 3 }, { 2, 4 }, { 2, 5 }, { 2, 6 }, { 2, 7 } },
+            // 4 行目
+            { { 3, 0 }, { 3, 1 }, { 3, 2 }, { 3, 3 }, { 3, 4 }, { 3, 5 }, { 3, 6 }, { 3, 7 } },
+            // 斜め 4 マス
+            { { 0, 3 }, { 1, 2 }, { 2, 1 }, { 3, 0 } },
+            // 斜め 5 マス
+            { { 0, 4 }, { 1, 3 }, { 2, 2 }, { 3, 1 }, { 4, 0 } },
+            // 斜め 6 マス
+            { { 0, 5 }, { 1, 4 }, { 2, 3 }, { 3, 2 }, { 4, 1 }, { 5, 0 } },
+            // 斜め 7 マス
+            { { 0, 6 }, { 1, 5 }, { 2, 4 }, { 3, 3 }, { 4, 2 }, { 5, 1 }, { 6, 0 } },
+            // 対角線
+            { { 0, 7 }, { 1, 6 }, { 2, 5 }, { 3, 4 }, { 4, 3 }, { 5, 2 }, { 6, 1 }, { 7, 0 } },
+            // 辺 + X 打ち
+            { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 0, 3 }, { 0, 4 }, { 0, 5 }, { 0, 6 }, { 0, 7 }, { 1, 1 }, { 1, 6 } },
+            // 隅 3x3
+            { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 0 }, { 1, 1 }, { 1, 2 }, { 2, 0 }, { 2, 1 }, { 2, 2 } },
+            // 隅 2x5
+            { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 0, 3 }, { 0, 4 }, { 1, 0 }, { 1, 1 }, { 1, 2 }, { 1, 3 }, { 1, 4 } },
+    };
+    
+    /** パターンの種類ごとのマスの数 */
+    /*package*/ static final int[] FAMILY_CELLS;
+    
+    /** 全インスタンスについての、構成するマス（{@link Point#ordinal()} の値の並び） */
+    /*package*/ static final int[][] INSTANCES;
+    
+    /** 全インスタンスについての、パターンの種類 */
+    /*package*/ static final int[] INSTANCE_FAMILIES;
+    
+    /** パターンの種類ごとの、自分と相手を入れ替えたインデックスへの変換表 */
+    /*package*/ static final int[][] SWAPS;
+    
+    /** ひとつのステージあたりの重みの数 */
+    /*package*/ static final int STAGE_LENGTH;
+    
+    /** 全インスタンスについての、ステージ内での重みの先頭位置 */
+    /*package*/ static final int[] INSTANCE_OFFSETS;
+    
+    /** マスごとの、そのマスを含むインスタンス */
+    private static final int[][] SQUARE_INSTANCES;
+    
+    /** マスごとの、そのマスを含むインスタンスにおけるそのマスの桁の重み（3 の累乗） */
+    private static final int[][] SQUARE_POWERS;
+    
+    static {
+        FAMILY_CELLS = Arrays.stream(FAMILIES).mapToInt(f -> f.length).toArray();
+        
+        SWAPS = new int[FAMILIES.length][];
+        for (int f = 0; f < FAMILIES.length; f++) {
+            int size = PatternWeights.sizeOf(FAMILY_CELLS[f]);
+            SWAPS[f] = new int[size];
+            for (int index = 0; index < size; index++) {
+                int swapped = 0;
+                for (int rest = index, power = 1; 0 < rest; rest /= 3, power *= 3) {
+                    swapped += (rest % 3 == 0 ? 0 : 3 - rest % 3) * power;
+                }
+                SWAPS[f][index] = swapped;
+            }
+        }
+        
+        List<int[]> instances = new ArrayList<>();
+        List<Integer> families = new ArrayList<>();
+        for (int f = 0; f < FAMILIES.length; f++) {
+            Set<Set<Integer>> seen = new HashSet<>();
+            for (int t = 0; t < 8; t++) {
+                int[] cells = new int[FAMILIES[f].length];
+                Set<Integer> cellSet = new HashSet<>();
+                for (int k = 0; k < cells.length; k++) {
+                    cells[k] = transform(t, FAMILIES[f][k][0], FAMILIES[f][k][1]);
+                    cellSet.add(cells[k]);
+                }
+                // 対称なパターンは同じマスの集合に写るため、重複して評価しないよう除く。
+                if (seen.add(cellSet)) {
+                    instances.add(cells);
+                    families.add(f);
+                }
+            }
+        }
+        INSTANCES = instances.toArray(new int[instances.size()][]);
+        INSTANCE_FAMILIES = families.stream().mapToInt(Integer::intValue).toArray();
+        
+        int[] familyOffsets = new int[FAMILIES.length];
+        int offset = 0;
+        for (int f = 0; f < FAMILIES.length; f++) {
+            familyOffsets[f] = offset;
+            offset += PatternWeights.sizeOf(FAMILY_CELLS[f]);
+        }
+        STAGE_LENGTH = offset;
+        INSTANCE_OFFSETS = Arrays.stream(INSTANCE_FAMILIES).map(f -> familyOffsets[f]).toArray();
+        
+        List<List<int[]>> squares = new ArrayList<>();
+        for (int sq = 0; sq < Point.HEIGHT * Point.WIDTH; sq++) {
+            squares.add(new ArrayList<>());
+        }
+        for (int n = 0; n < INSTANCES.length; n++) {
+            int power = 1;
+            for (int k = INSTANCES[n].length - 1; 0 <= k; k--) {
+                squares.get(INSTANCES[n][k]).add(new int[] { n, power });
+                power *= 3;
+            }
+        }
+        SQUARE_INSTANCES = squares.stream()
+                .map(l -> l.stream().mapToInt(a -> a[0]).toArray())
+                .toArray(int[][]::new);
+        SQUARE_POWERS = squares.stream()
+                .map(l -> l.stream().mapToInt(a -> a[1]).toArray())
+                .toArray(int[][]::new);
+    }
+    
+    /**
+     * 盤面の回転・鏡映のうち {@code t} 番目の変換を {@code (i, j)} に適用したマスを返す。<br>
+     * 
+     * @param t 変換の番号（0～7）
+     * @param i 行
+     * @param j 列
+     * @return 変換後のマス（{@link Point#ordinal()} の値）
+     */
+    private static int transform(int t, int i, int j) {
+        int ti = i;
+        int tj = j;
+        for (int r = 0; r < t % 4; r++) {
+            int tmp = ti;
+            ti = tj;
+            tj = Point.WIDTH - 1 - tmp;
+        }
+        if (4 <= t) {
+            tj = Point.WIDTH - 1 - tj;
+        }
+        return ti * Point.WIDTH + tj;
+    }
+    
+    /**
+     * インスタンスのインデックスを、盤面から直接求める。<br>
+     * 
+     * @param cells インスタンスを構成するマス
+     * @param one 状態 1 とする石の配置
+     * @param two 状態 2 とする石の配置
+     * @return インデックス
+     */
+    /*package*/ static int index(int[] cells, long one, long two) {
+        int index = 0;
+        for (int cell : cells) {
+            index = index * 3 + (int) ((one >>> cell) & 1L) + 2 * (int) ((two >>> cell) & 1L);
+        }
+        return index;
+    }
+    
+    /**
+     * 局面に現れる全インスタンスの重みの、全ステージ分の重みを通しての位置を求める。<br>
+     * 重みが {@link PatternWeights#toArray()} と同じ順に並んだ一次元の配列を扱う場合に利用する。<br>
+     * 
+     * @param mine 状態 1 とする石の配置
+     * @param his 状態 2 とする石の配置
+     * @param features 重みの位置の格納先（要素数はインスタンスの数）
+     */
+    /*package*/ static void features(long mine, long his, int[] features) {
+        int base = stageOf(BitBoards.empties(mine, his)) * STAGE_LENGTH;
+        for (int n = 0; n < INSTANCES.length; n++) {
+            features[n] = base + INSTANCE_OFFSETS[n] + index(INSTANCES[n], mine, his);
+        }
+    }
+    
+    /**
+     * 空きマスの数に対応するステージを返します。<br>
+     * 
+     * @param empties 空きマスの数
+     * @return ステージ
+     */
+    public static int stageOf(int empties) {
+        return Integer.min(empties, PatternWeights.MAX_EMPTIES) / PatternWeights.STAGE_WIDTH;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final PatternWeights weights;
+    
+    /** 重みテーブルを {@link WeightRegistry} から取得し、まだ返却していない場合に {@code true} */
+    private final AtomicBoolean shared;
+    
+    /**
+     * ゲーム実施条件のパラメータ {@code patternWeights} で指定されたファイルの重みテーブルを用いる、
+     * このクラスのインスタンスを生成します。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @throws UncheckedIOException 重みテーブルのマップに失敗した場合
+     */
+    public PatternEvaluator(GameCondition gameCondition) {
+        Optional<String> path = AIPlayerUtil.getParameter(gameCondition, "patternWeights");
+        if (path.isPresent()) {
+            try {
+                weights = WeightRegistry.acquire(Paths.get(path.get()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            shared = new AtomicBoolean(true);
+        } else {
+            weights = PatternWeights.heuristic();
+            shared = new AtomicBoolean(false);
+        }
+    }
+    
+    /**
+     * 指定された重みテーブルを用いる、このクラスのインスタンスを生成します。<br>
+     * 
+     * @param weights 重みテーブル
+     * @throws NullPointerException {@code weights} が {@code null} の場合
+     */
+    public PatternEvaluator(PatternWeights weights) {
+        this.weights = Objects.requireNonNull(weights);
+        shared = new AtomicBoolean(false);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、{@link WeightRegistry} から取得した重みテーブルを返却します。<br>
+     */
+    @Override
+    public void release() {
+        if (shared.compareAndSet(true, false)) {
+            WeightRegistry.release(weights);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、すべてのインスタンスのインデックスを盤面から直接求めます。<br>
+     */
+    @Override
+    public int evaluate(long mine, long his, int empties) {
+        int stage = stageOf(empties);
+        int score = 0;
+        for (int n = 0; n < INSTANCES.length; n++) {
+            score += weights.get(stage, INSTANCE_FAMILIES[n], index(INSTANCES[n], mine, his));
+        }
+        return score;
+    }
+    
+    /**
+     * 差分更新されたインデックスを用いてリバーシ盤を評価し、評価値を返します。<br>
+     * 
+     * @param indices 評価するリバーシ盤に対応するインデックス
+     * @param color 評価する側の色
+     * @param empties 空きマスの数
+     * @return 評価値
+     */
+    public int evaluate(Indices indices, Color color, int empties) {
+        int stage = stageOf(empties);
+        int[] values = indices.values;
+        int score = 0;
+        if (color == Color.BLACK) {
+            for (int n = 0; n < values.length; n++) {
+                score += weights.get(stage, INSTANCE_FAMILIES[n], values[n]);
+            }
+        } else {
+            for (int n = 0; n < values.length; n++) {
+                int family = INSTANCE_FAMILIES[n];
+                score += weights.get(stage, family, SWAPS[family][values[n]]);
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,472 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+
+/**
+ * 評価値付きの局面のデータセットから、{@link PatternEvaluator} の重みテーブルを学習するツールです。<br>
+ * <br>
+ * データセットは、次の形式のレコードを並べただけのバイナリファイルです。値はビッグエンディアンで格納します。
+ * <table border="1">
+ *   <caption>データセットのレコード形式</caption>
+ *   <tr><th>型</th><th>内容</th></tr>
+ *   <tr><td>{@code long}</td><td>黒石の配置を表すビットボード</td></tr>
+ *   <tr><td>{@code long}</td><td>白石の配置を表すビットボード</td></tr>
+ *   <tr><td>{@code byte}</td><td>黒から見た終局時の石数差（自己対戦の結果や終盤の完全読みの結果）</td></tr>
+ * </table>
+ * データセットはメモリにマップして読み込むため、ヒープに収まらない大きさのデータセットも扱えます。<br>
+ * <br>
+ * 学習はミニバッチ確率的勾配降下法により行います。
+ * ひとつのミニバッチをスレッドの数に分割して各スレッドがそれぞれの勾配バッファに勾配を集計し、
+ * それらを合算して重みを更新します。各局面は、黒から見た局面と白から見た局面の二つのサンプルとして用います。<br>
+ * 学習した重みは {@link PatternWeights#write(Path)} の形式で出力するため、
+ * {@link PatternEvaluator} や {@link NTupleEvaluator} のパラメータ {@code patternWeights} にそのまま指定できます。<br>
+ * <br>
+ * 次のように実行します。
+ * <pre>
+ *     java xyz.hotchpotch.reversi.aiplayers.PatternTrainer データセット 出力ファイル [エポック数] [バッチサイズ] [学習率] [スレッド数]
+ *     java xyz.hotchpotch.reversi.aiplayers.PatternTrainer --generate 出力ファイル ゲーム数 [シード値]
+ * </pre>
+ * 二つ目の形式は、ランダムな手による自己対戦からデータセットを生成します。動作確認用です。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class PatternTrainer {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** データセットのひとつのレコードのバイト数 */
+    public static final int RECORD_BYTES = Long.BYTES * 2 + Byte.BYTES;
+    
+    /** 石数差 1 あたりの評価値 */
+    public static final int TARGET_SCALE = 32;
+    
+    /**
+     * メモリにマップしたデータセットです。<br>
+     * {@link MappedByteBuffer} の大きさの上限を超えるファイルは、複数の領域に分けてマップします。<br>
+     * このクラスは不変であり、スレッドセーフです。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static final class Dataset {
+        
+        /** ひとつの領域に含めるレコードの数 */
+        private static final int CHUNK_RECORDS = 1 << 25;
+        
+        /**
+         * データセットのファイルをメモリにマップします。<br>
+         * 
+         * @param path データセットのファイル
+         * @return データセット
+         * @throws NullPointerException {@code path} が {@code null} の場合
+         * @throws IOException マップに失敗した場合や、ファイルの大きさがレコードの大きさの倍数でない場合
+         */
+        public static Dataset map(Path path) throws IOException {
+            Objects.requireNonNull(path);
+            
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long bytes = channel.size();
+                if (bytes % RECORD_BYTES != 0) {
+                    throw new IOException(String.format(
+                            "データセットの大きさが不正です。path=%s, size=%d", path, bytes));
+                }
+                long size = bytes / RECORD_BYTES;
+                List<MappedByteBuffer> chunks = new ArrayList<>();
+                for (long first = 0; first < size; first += CHUNK_RECORDS) {
+                    long records = Long.min(CHUNK_RECORDS, size - first);
+                    chunks.add(channel.map(MapMode.READ_ONLY, first * RECORD_BYTES, records * RECORD_BYTES));
+                }
+                return new Dataset(chunks.toArray(new MappedByteBuffer[chunks.size()]), size);
+            }
+        }
+        
+        /**
+         * レコードをひとつ書き込みます。<br>
+         * 
+         * @param out 出力先
+         * @param black 黒石の配置を表すビットボード
+         * @param white 白石の配置を表すビットボード
+         * @param margin 黒から見た終局時の石数差
+         * @throws IOException 書き込みに失敗した場合
+         */
+        public static void writeRecord(DataOutput out, long black, long white, int margin) throws IOException {
+            out.writeLong(black);
+            out.writeLong(white);
+            out.writeByte(margin);
+        }
+        
+        private final MappedByteBuffer[] chunks;
+        private final long size;
+        
+        private Dataset(MappedByteBuffer[] chunks, long size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+        
+        /**
+         * レコードの数を返します。<br>
+         * 
+         * @return レコードの数
+         */
+        public long size() {
+            return size;
+        }
+        
+        /**
+         * 指定されたレコードの黒石の配置を返します。<br>
+         * 
+         * @param n レコードの番号
+         * @return 黒石の配置を表すビットボード
+         */
+        public long black(long n) {
+            return chunk(n).getLong(offset(n));
+        }
+        
+        /**
+         * 指定されたレコードの白石の配置を返します。<br>
+         * 
+         * @param n レコードの番号
+         * @return 白石の配置を表すビットボード
+         */
+        public long white(long n) {
+            return chunk(n).getLong(offset(n) + Long.BYTES);
+        }
+        
+        /**
+         * 指定されたレコードの、黒から見た終局時の石数差を返します。<br>
+         * 
+         * @param n レコードの番号
+         * @return 黒から見た終局時の石数差
+         */
+        public int margin(long n) {
+            return chunk(n).get(offset(n) + Long.BYTES * 2);
+        }
+        
+        private MappedByteBuffer chunk(long n) {
+            return chunks[(int) (n / CHUNK_RECORDS)];
+        }
+        
+        private int offset(long n) {
+            return (int) (n % CHUNK_RECORDS) * RECORD_BYTES;
+        }
+    }
+    
+    /**
+     * ランダムな手による自己対戦から、データセットを生成する。<br>
+     * 
+     * @param path 出力先
+     * @param games ゲーム数
+     * @param seed 乱数ジェネレータのシード値
+     * @throws IOException 書き込みに失敗した場合
+     */
+    /*package*/ static void generate(Path path, int games, long seed) throws IOException {
+        Random random = new Random(seed);
+        long initialBlack = BitBoards.bitsOf(StrictBoard.initializedBoard(), Color.BLACK);
+        long initialWhite = BitBoards.bitsOf(StrictBoard.initializedBoard(), Color.WHITE);
+        
+        try (OutputStream os = Files.newOutputStream(path);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            
+            long[] blacks = new long[Long.SIZE];
+            long[] whites = new long[Long.SIZE];
+            for (int g = 0; g < games; g++) {
+                long black = initialBlack;
+                long white = initialWhite;
+                boolean blackTurn = true;
+                int count = 0;
+                
+                while (BitBoards.mobility(black, white) != 0 || BitBoards.mobility(white, black) != 0) {
+                    long mine = blackTurn ? black : white;
+                    long his = blackTurn ? white : black;
+                    long moves = BitBoards.mobility(mine, his);
+                    if (moves != 0) {
+                        int nth = random.nextInt(Long.bitCount(moves));
+                        for (int k = 0; k < nth; k++) {
+                            moves &= moves - 1;
+                        }
+                        int square = Long.numberOfTrailingZeros(moves);
+                        long flipped = BitBoards.flips(mine, his, square);
+                        mine |= flipped | 1L << square;
+                        his &= ~flipped;
+                        black = blackTurn ? mine : his;
+                        white = blackTurn ? his : mine;
+                        blacks[count] = black;
+                        whites[count] = white;
+                        count++;
+                    }
+                    blackTurn = !blackTurn;
+                }
+                
+                int margin = Long.bitCount(black) - Long.bitCount(white);
+                for (int k = 0; k < count; k++) {
+                    Dataset.writeRecord(out, blacks[k], whites[k], margin);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 重みテーブルを学習します。<br>
+     * 
+     * @param args 実行時引数（クラスの説明を参照）
+     * @throws IOException データセットの読み込みや重みテーブルの書き込みに失敗した場合
+     * @throws InterruptedException 学習中に割り込まれた場合
+     * @throws ExecutionException 学習中に例外が発生した場合
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (0 < args.length && "--generate".equals(args[0])) {
+            if (args.length < 3) {
+                System.err.println("usage: PatternTrainer --generate <out> <games> [seed]");
+                System.exit(1);
+            }
+            generate(Paths.get(args[1]), Integer.parseInt(args[2]), 3 < args.length ? Long.parseLong(args[3]) : 0L);
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("usage: PatternTrainer <dataset> <out> [epochs] [batchSize] [learningRate] [threads]");
+            System.exit(1);
+        }
+        
+        Dataset dataset = Dataset.map(Paths.get(args[0]));
+        Path out = Paths.get(args[1]);
+        int epochs = 2 < args.length ? Integer.parseInt(args[2]) : 10;
+        int batchSize = 3 < args.length ? Integer.parseInt(args[3]) : 1024;
+        float learningRate = 4 < args.length ? Float.parseFloat(args[4]) : 0.01f;
+        int threads = 5 < args.length ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        
+        System.out.printf("局面数 %,d, エポック数 %d, バッチサイズ %d, 学習率 %s, スレッド数 %d%n",
+                dataset.size(), epochs, batchSize, learningRate, threads);
+        
+        PatternTrainer trainer = new PatternTrainer(threads, batchSize, learningRate);
+        Random random = new Random(0L);
+        try {
+            for (int epoch = 1; epoch <= epochs; epoch++) {
+                long start = System.nanoTime();
+                double rmse = trainer.epoch(dataset, random);
+                System.out.printf("epoch %d : RMSE %.3f 石, %d ms%n",
+                        epoch, rmse, (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            trainer.shutdown();
+        }
+        
+        trainer.toWeights().write(out);
+        System.out.printf("重みテーブルを出力しました。%s%n", out);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * スレッドごとの勾配バッファです。<br>
+     * 勾配を集計した位置を記録しておき、合算の際にその位置だけをクリアします。<br>
+     * 
+     * @author nmby
+     */
+    private class Gradient implements Callable<Double> {
+        private final float[] sums = new float[weights.length];
+        private final int[] counts = new int[weights.length];
+        private final int[] touched;
+        private final int[] features = new int[PatternEvaluator.INSTANCES.length];
+        private int size;
+        
+        private Dataset dataset;
+        private long first;
+        private long last;
+        
+        private Gradient(int records) {
+            // ひとつのレコードあたり、黒から見たサンプルと白から見たサンプルの二つを用いる。
+            touched = new int[records * 2 * PatternEvaluator.INSTANCES.length];
+        }
+        
+        /**
+         * 担当範囲のレコードについて勾配を集計し、誤差の二乗和を返す。<br>
+         */
+        @Override
+        public Double call() {
+            double squares = 0.0;
+            for (long n = first; n < last; n++) {
+                long black = dataset.black(n);
+                long white = dataset.white(n);
+                float target = dataset.margin(n) * TARGET_SCALE;
+                squares += accumulate(black, white, target);
+                squares += accumulate(white, black, -target);
+            }
+            return squares;
+        }
+        
+        private double accumulate(long mine, long his, float target) {
+            PatternEvaluator.features(mine, his, features);
+            float error = -target;
+            for (int feature : features) {
+                error += weights[feature];
+            }
+            for (int feature : features) {
+                if (counts[feature] == 0) {
+                    touched[size++] = feature;
+                }
+                sums[feature] += error;
+                counts[feature]++;
+            }
+            return (double) error * error;
+        }
+    }
+    
+    private final float[] weights = new float[PatternWeights.length()];
+    private final int batchSize;
+    private final float learningRate;
+    private final ExecutorService executor;
+    private final List<Gradient> gradients = new ArrayList<>();
+    
+    /**
+     * このクラスのインスタンスを生成します。<br>
+     * 重みの初期値はすべて {@code 0} です。<br>
+     * 
+     * @param threads スレッド数
+     * @param batchSize ミニバッチに含めるレコードの数
+     * @param learningRate 学習率
+     * @throws IllegalArgumentException いずれかの引数が正の数でない場合
+     */
+    public PatternTrainer(int threads, int batchSize, float learningRate) {
+        if (threads <= 0 || batchSize <= 0 || !(0 < learningRate)) {
+            throw new IllegalArgumentException(String.format(
+                    "threads=%d, batchSize=%d, learningRate=%s", threads, batchSize, learningRate));
+        }
+        this.batchSize = batchSize;
+        this.learningRate = learningRate;
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 一つ目のバッファには全スレッドの勾配を合算するため、ミニバッチ全体の分の領域を確保する。
+        int share = (batchSize + threads - 1) / threads;
+        for (int t = 0; t < threads; t++) {
+            gradients.add(new Gradient(t == 0 ? batchSize : share));
+        }
+    }
+    
+    /**
+     * データセットを一巡して重みを学習し、学習中の誤差の平均二乗平方根を石数差の単位で返します。<br>
+     * ミニバッチの順序は毎回ランダムに入れ替えます。<br>
+     * 
+     * @param dataset データセット
+     * @param random ミニバッチの順序を決める乱数ジェネレータ
+     * @return 誤差の平均二乗平方根（石数差）
+     * @throws NullPointerException いずれかの引数が {@code null} の場合
+     * @throws InterruptedException 学習中に割り込まれた場合
+     * @throws ExecutionException 学習中に例外が発生した場合
+     */
+    public double epoch(Dataset dataset, Random random) throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(dataset);
+        Objects.requireNonNull(random);
+        
+        long batches = (dataset.size() + batchSize - 1) / batchSize;
+        long[] order = new long[(int) batches];
+        for (int b = 0; b < order.length; b++) {
+            order[b] = b;
+        }
+        for (int b = order.length - 1; 0 < b; b--) {
+            int k = random.nextInt(b + 1);
+            long tmp = order[b];
+            order[b] = order[k];
+            order[k] = tmp;
+        }
+        
+        double squares = 0.0;
+        for (long b : order) {
+            squares += batch(dataset, b * batchSize, Long.min(dataset.size(), (b + 1) * batchSize));
+        }
+        return dataset.size() == 0 ? 0.0 : Math.sqrt(squares / (dataset.size() * 2)) / TARGET_SCALE;
+    }
+    
+    /**
+     * ひとつのミニバッチについて勾配を並列に集計し、重みを更新する。<br>
+     * 
+     * @return 誤差の二乗和
+     */
+    private double batch(Dataset dataset, long first, long last) throws InterruptedException, ExecutionException {
+        long share = (last - first + gradients.size() - 1) / gradients.size();
+        List<Future<Double>> futures = new ArrayList<>();
+        for (int t = 0; t < gradients.size(); t++) {
+            Gradient gradient = gradients.get(t);
+            gradient.dataset = dataset;
+            gradient.first = Long.min(last, first + t * share);
+            gradient.last = Long.min(last, gradient.first + share);
+            futures.add(executor.submit(gradient));
+        }
+        double squares = 0.0;
+        for (Future<Double> future : futures) {
+            squares += future.get();
+        }
+        
+        // スレッドごとの勾配を一つ目のバッファに合算してから更新する。
+        // 各重みの勾配はそれを含むサンプルの数で平均し、出現頻度によらず同じ歩幅で更新する。
+        Gradient total = gradients.get(0);
+        for (int t = 1; t < gradients.size(); t++) {
+            Gradient gradient = gradients.get(t);
+            for (int k = 0; k < gradient.size; k++) {
+                int feature = gradient.touched[k];
+                if (total.counts[feature] == 0) {
+                    total.touched[total.size++] = feature;
+                }
+                total.sums[feature] += gradient.sums[feature];
+                total.counts[feature] += gradient.counts[feature];
+                gradient.sums[feature] = 0.0f;
+                gradient.counts[feature] = 0;
+            }
+            gradient.size = 0;
+        }
+        for (int k = 0; k < total.size; k++) {
+            int feature = total.touched[k];
+            weights[feature] -= learningRate * total.sums[feature] / total.counts[feature];
+            total.sums[feature] = 0.0f;
+            total.counts[feature] = 0;
+        }
+        total.size = 0;
+        return squares;
+    }
+    
+    /**
+     * 学習中の重みを {@code short} 型に丸めた重みテーブルを返します。<br>
+     * 
+     * @return 重みテーブル
+     */
+    public PatternWeights toWeights() {
+        short[] values = new short[weights.length];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weights[n])));
+        }
+        return PatternWeights.of(values);
+    }
+    
+    /**
+     * 学習に用いるスレッドを終了します。<br>
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
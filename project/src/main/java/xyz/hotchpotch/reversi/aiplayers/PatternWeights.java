@@ -0,0 +1,396 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * {@link PatternEvaluator} の、ステージごと・パターンの種類ごとの重みテーブルです。<br>
+ * <br>
+ * 重みは、空きマス {@value #STAGE_WIDTH} 個ごとに区切ったステージ（全 {@value #STAGES} ステージ）ごとに、
+ * パターンの種類ごとに 3<sup>マスの数</sup> 個の {@code short} 値として保持します。
+ * 重みはいずれも、状態 1 のマスを持つ側から見た評価値です。<br>
+ * <br>
+ * 重みテーブルのファイル形式は次のとおりです。すべての値はビッグエンディアンで格納されます。
+ * <table border="1">
+ *   <caption>重みテーブルのファイル形式</caption>
+ *   <tr><th>型</th><th>内容</th></tr>
+ *   <tr><td>{@code int}</td><td>マジックナンバー（{@code 0x52505457}）</td></tr>
+ *   <tr><td>{@code int}</td><td>形式のバージョン（{@value #VERSION}）</td></tr>
+ *   <tr><td>{@code int}</td><td>ステージの数</td></tr>
+ *   <tr><td>{@code int}</td><td>パターンの種類の数</td></tr>
+ *   <tr><td>{@code int[]}</td><td>パターンの種類ごとのマスの数</td></tr>
+ *   <tr><td>{@code int}</td><td>重みの CRC-32 チェックサム</td></tr>
+ *   <tr><td>{@code int}</td><td>ここまでのヘッダの CRC-32 チェックサム</td></tr>
+ *   <tr><td>{@code short[]}</td><td>重み（ステージ、パターンの種類、インデックスの順に並ぶ）</td></tr>
+ * </table>
+ * <br>
+ * 重みテーブルは、{@link #read(Path)} によりヒープ上に読み込むことも、
+ * {@link #map(Path)} によりファイルをメモリにマップして利用することもできます。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class PatternWeights {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** ファイル先頭のマジックナンバー */
+    /*package*/ static final int MAGIC = 0x52505457;
+    
+    /** ファイル形式のバージョン */
+    public static final int VERSION = 2;
+    
+    /** ひとつのステージに含まれる空きマスの数の幅 */
+    public static final int STAGE_WIDTH = 4;
+    
+    /** 考慮する空きマスの数の最大値 */
+    public static final int MAX_EMPTIES = 60;
+    
+    /** ステージの数 */
+    public static final int STAGES = MAX_EMPTIES / STAGE_WIDTH + 1;
+    
+    /**
+     * 指定されたマスの数のパターンのインデックスの数（3<sup>マスの数</sup>）を返します。<br>
+     * 
+     * @param cells パターンのマスの数
+     * @return インデックスの数
+     */
+    public static int sizeOf(int cells) {
+        int size = 1;
+        for (int k = 0; k < cells; k++) {
+            size *= 3;
+        }
+        return size;
+    }
+    
+    /**
+     * 全ステージ分の重みの数を返します。<br>
+     * 
+     * @return 重みの数
+     */
+    public static int length() {
+        return STAGES * Arrays.stream(PatternEvaluator.FAMILY_CELLS).map(PatternWeights::sizeOf).sum();
+    }
+    
+    /**
+     * 指定された重みを持つ重みテーブルを生成します。<br>
+     * {@code values} の要素は、ステージ、パターンの種類、インデックスの順に並んでいる必要があります。<br>
+     * 
+     * @param values 重み
+     * @return 新しい重みテーブル
+     * @throws NullPointerException {@code values} が {@code null} の場合
+     * @throws IllegalArgumentException {@code values} の要素数が {@link #length()} と異なる場合
+     */
+    public static PatternWeights of(short[] values) {
+        Objects.requireNonNull(values);
+        if (values.length != length()) {
+            throw new IllegalArgumentException(
+                    String.format("重みの数が不正です。expected=%d, actual=%d", length(), values.length));
+        }
+        return new PatternWeights(ShortBuffer.wrap(Arrays.copyOf(values, values.length)));
+    }
+    
+    /**
+     * マスごとの古典的な重みから生成した重みテーブルを返します。<br>
+     * 学習済みの重みテーブルが無い場合の既定値として利用できます。<br>
+     * 
+     * @return マスごとの重みから生成した重みテーブル
+     */
+    public static PatternWeights heuristic() {
+        final int[] squareValues = {
+                100, -20, 10, 5, 5, 10, -20, 100,
+                -20, -50, -2, -2, -2, -2, -50, -20,
+                10, -2, -1, -1, -1, -1, -2, 10,
+                5, -2, -1, -1, -1, -1, -2, 5,
+                5, -2, -1, -1, -1, -1, -2, 5,
+                10, -2, -1, -1, -1, -1, -2, 10,
+                -20, -50, -2, -2, -2, -2, -50, -20,
+                100, -20, 10, 5, 5, 10, -20, 100 };
+        final int scale = 8;
+        
+        // マスの重みを、そのマスを含むインスタンスの数で按分する。
+        int[] coverage = new int[squareValues.length];
+        for (int[] cells : PatternEvaluator.INSTANCES) {
+            for (int cell : cells) {
+                coverage[cell]++;
+            }
+        }
+        
+        int[] cells = PatternEvaluator.FAMILY_CELLS;
+        short[] values = new short[length()];
+        int offset = 0;
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int f = 0; f < cells.length; f++) {
+                // 各種類の最初のインスタンスは代表インスタンスそのもの
+                int[] instance = firstInstanceOf(f);
+                for (int index = 0; index < sizeOf(cells[f]); index++) {
+                    double value = 0;
+                    int rest = index;
+                    for (int k = instance.length - 1; 0 <= k; k--, rest /= 3) {
+                        int state = rest % 3;
+                        int cell = instance[k];
+                        if (state != 0) {
+                            value += (state == 1 ? 1 : -1) * scale * squareValues[cell] / (double) coverage[cell];
+                        }
+                    }
+                    values[offset++] = (short) Math.round(value);
+                }
+            }
+        }
+        return new PatternWeights(ShortBuffer.wrap(values));
+    }
+    
+    private static int[] firstInstanceOf(int family) {
+        for (int n = 0; n < PatternEvaluator.INSTANCES.length; n++) {
+            if (PatternEvaluator.INSTANCE_FAMILIES[n] == family) {
+                return PatternEvaluator.INSTANCES[n];
+            }
+        }
+        throw new AssertionError(family);
+    }
+    
+    /**
+     * ファイルから重みテーブルを読み込み、ヒープ上に保持します。<br>
+     * ヘッダと重みの両方のチェックサムを検証します。<br>
+     * 
+     * @param path 重みテーブルのファイル
+     * @return 読み込んだ重みテーブル
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IOException 読み込みに失敗した場合や、ファイルの形式が不正な場合
+     * @see #map(Path)
+     */
+    public static PatternWeights read(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        int bodyCrc = checkHeader(buffer, path);
+        ByteBuffer body = buffer.slice();
+        if (crcOf(body) != bodyCrc) {
+            throw new IOException("重みテーブルのチェックサムが一致しません。" + path);
+        }
+        
+        short[] values = new short[length()];
+        body.asShortBuffer().get(values);
+        return new PatternWeights(ShortBuffer.wrap(values), bodyCrc);
+    }
+    
+    /**
+     * ファイルを読み取り専用でメモリにマップし、重みテーブルとして返します。<br>
+     * <br>
+     * 重みはファイルから直接参照されるため、このメソッドはファイルの大きさに依らずすぐに復帰し、
+     * 各ページは初めて参照された時点で読み込まれます。
+     * また、同じファイルをマップした重みテーブルは、複数存在しても物理メモリを共有します。<br>
+     * このメソッドが検証するのはヘッダのチェックサムのみです。重みのチェックサムを検証するには {@link #verify()} を利用してください。<br>
+     * 通常は、このメソッドを直接呼び出す代わりに {@link WeightRegistry} を利用してください。<br>
+     * 
+     * @param path 重みテーブルのファイル
+     * @return ファイルをマップした重みテーブル
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IOException マップに失敗した場合や、ファイルの形式が不正な場合
+     */
+    public static PatternWeights map(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // マップされた領域は、チャネルを閉じた後も有効なまま残る。
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            int bodyCrc = checkHeader(buffer, path);
+            return new PatternWeights(buffer.slice().asShortBuffer(), bodyCrc);
+        }
+    }
+    
+    /**
+     * ヘッダを読み込んで検証し、{@code buffer} の位置を重みの先頭に進める。<br>
+     * 
+     * @param buffer ファイルの内容
+     * @param path エラーメッセージ用のファイルパス
+     * @return ヘッダに記録された重みのチェックサム
+     * @throws IOException ファイルの形式が不正な場合
+     */
+    private static int checkHeader(ByteBuffer buffer, Path path) throws IOException {
+        int[] cells = PatternEvaluator.FAMILY_CELLS;
+        int headerLength = headerLength();
+        if (buffer.remaining() < 2 * Integer.BYTES) {
+            throw new IOException("重みテーブルのファイルではありません。" + path);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("重みテーブルのファイルではありません。" + path);
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("対応していないバージョンです。version=" + version);
+        }
+        if (buffer.remaining() != headerLength + 2 * length()) {
+            throw new IOException(String.format("重みテーブルの大きさが不正です。size=%d", buffer.remaining()));
+        }
+        
+        ByteBuffer header = buffer.duplicate();
+        header.limit(headerLength - Integer.BYTES);
+        int headerCrc = buffer.getInt(headerLength - Integer.BYTES);
+        if (crcOf(header) != headerCrc) {
+            throw new IOException("重みテーブルのヘッダのチェックサムが一致しません。" + path);
+        }
+        
+        buffer.position(2 * Integer.BYTES);
+        int stages = buffer.getInt();
+        int families = buffer.getInt();
+        if (stages != STAGES || families != cells.length) {
+            throw new IOException(String.format("重みテーブルの構成が不正です。stages=%d, families=%d", stages, families));
+        }
+        for (int f = 0; f < families; f++) {
+            int c = buffer.getInt();
+            if (c != cells[f]) {
+                throw new IOException(String.format("重みテーブルの構成が不正です。family=%d, cells=%d", f, c));
+            }
+        }
+        int bodyCrc = buffer.getInt();
+        buffer.getInt();
+        return bodyCrc;
+    }
+    
+    private static int headerLength() {
+        return Integer.BYTES * (6 + PatternEvaluator.FAMILY_CELLS.length);
+    }
+    
+    private static int crcOf(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        ByteBuffer tmp = buffer.duplicate();
+        byte[] chunk = new byte[8192];
+        while (tmp.hasRemaining()) {
+            int n = Integer.min(chunk.length, tmp.remaining());
+            tmp.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        return (int) crc.getValue();
+    }
+    
+    private static int crcOf(ShortBuffer values) {
+        ByteBuffer bytes = ByteBuffer.allocate(2 * values.limit());
+        bytes.asShortBuffer().put(values.duplicate());
+        return crcOf(bytes);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 重みの実体 */
+    private final ShortBuffer values;
+    
+    /** パターンの種類ごとの、ステージ内での先頭位置 */
+    private final int[] familyOffsets;
+    
+    /** ひとつのステージあたりの重みの数 */
+    private final int stageLength;
+    
+    /** 重みのチェックサム */
+    private final int bodyCrc;
+    
+    private PatternWeights(ShortBuffer values) {
+        this(values, crcOf(values));
+    }
+    
+    private PatternWeights(ShortBuffer values, int bodyCrc) {
+        assert values != null;
+        assert values.limit() == length();
+        
+        this.values = values;
+        this.bodyCrc = bodyCrc;
+        
+        int[] cells = PatternEvaluator.FAMILY_CELLS;
+        familyOffsets = new int[cells.length];
+        int offset = 0;
+        for (int f = 0; f < cells.length; f++) {
+            familyOffsets[f] = offset;
+            offset += sizeOf(cells[f]);
+        }
+        stageLength = offset;
+    }
+    
+    /**
+     * 重みを返します。<br>
+     * このメソッドでは、処理速度を優先するためにパラメータチェックを省略しています。<br>
+     * 
+     * @param stage ステージ
+     * @param family パターンの種類
+     * @param index インデックス
+     * @return 重み
+     */
+    public int get(int stage, int family, int index) {
+        return values.get(stage * stageLength + familyOffsets[family] + index);
+    }
+    
+    /**
+     * 全ステージ分の重みを、ステージ、パターンの種類、インデックスの順に並べた配列として返します。<br>
+     * 
+     * @return 重みの配列
+     */
+    public short[] toArray() {
+        short[] array = new short[values.limit()];
+        for (int n = 0; n < array.length; n++) {
+            array[n] = values.get(n);
+        }
+        return array;
+    }
+    
+    /**
+     * 重みがヘッダに記録されたチェックサムと一致するかを検証します。<br>
+     * {@link #map(Path)} で得た重みテーブルの場合、このメソッドはすべてのページを読み込みます。<br>
+     * 
+     * @return 一致する場合は {@code true}
+     */
+    public boolean verify() {
+        return crcOf(values) == bodyCrc;
+    }
+    
+    /**
+     * この重みテーブルをファイルに書き出します。<br>
+     * 
+     * @param path 書き出し先のファイル
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IOException 書き出しに失敗した場合
+     */
+    public void write(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        
+        int[] cells = PatternEvaluator.FAMILY_CELLS;
+        ByteBuffer header = ByteBuffer.allocate(headerLength());
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(STAGES);
+        header.putInt(cells.length);
+        for (int c : cells) {
+            header.putInt(c);
+        }
+        header.putInt(bodyCrc);
+        header.flip();
+        int headerCrc = crcOf(header);
+        header.limit(header.capacity());
+        header.position(header.capacity() - Integer.BYTES);
+        header.putInt(headerCrc);
+        header.flip();
+        
+        ByteBuffer body = ByteBuffer.allocate(2 * values.limit());
+        body.asShortBuffer().put(values.duplicate());
+        
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+}
@@ -9,10 +9,12 @@ import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
 import xyz.hotchpotch.reversi.framework.GameCondition;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.WaitingPlayer;
 
 /**
  * ランダムに手を選びますが、のろまな {@link Player} の実装です。<br>
  * 早晩、時間切れで敗退することでしょう。<br>
+ * 思考時間のほとんどを眠って過ごすため、{@link WaitingPlayer} を実装します。<br>
  * <br>
  * 動作制御のために、次のオプションパラメータを与えることができます。
  * <table border="1">
@@ -25,7 +27,7 @@ import xyz.hotchpotch.reversi.framework.Player;
  * @since 2.0.0
  * @author nmby
  */
-public class SlowpokeAIPlayer implements Player {
+public class SlowpokeAIPlayer implements Player, WaitingPlayer {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
@@ -0,0 +1,304 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.GameResult;
+import xyz.hotchpotch.reversi.framework.Player;
+
+/**
+ * 対戦を重ねながら TD(λ) 法により評価関数の重みを学習する {@link Player} の実装です。<br>
+ * <br>
+ * 評価関数は {@link PatternEvaluator} と同じパターンの重みテーブルであり、
+ * 手を選ぶ際は、置ける位置のそれぞれについて石を置いた後の局面を評価し、最も評価の高い手を選びます。
+ * ただし、一定の確率でランダムに手を選び、新しい局面を探索します。<br>
+ * ゲーム中に自分の手を打った後の局面を記録しておき、{@link #notifyOfResult(GameResult)} において、
+ * 終局時の石数差を報酬として記録した局面の重みを TD(λ) 法により更新します。<br>
+ * <br>
+ * 重みテーブルは、パラメータ {@code tdWeights} で指定されたファイルごとに JVM 内のすべてのインスタンスで共有します。
+ * 複数のゲームが並行して実行される場合に備えて、重みの更新は重みの位置により分割したロック（ストライプロック）の下で行います。
+ * 手を選ぶ際の重みの読み込みはロックを取らずに行うため、更新途中の重みを読むことがありますが、学習への影響は無視できるものとします。<br>
+ * 重みテーブルは {@code saveInterval} ゲームごとに {@link PatternWeights} の形式でファイルに保存します。
+ * 保存は一時ファイルに書き込んでから置き換えることで行うため、保存中のファイルが他のプレーヤーから読まれることはありません。
+ * 保存したファイルは、{@link PatternEvaluator} や {@link NTupleEvaluator} のパラメータ {@code patternWeights} にそのまま指定できます。
+ * ファイルが既に存在する場合はその重みから学習を再開し、存在しない場合は {@link PatternWeights#heuristic()} から学習を始めます。<br>
+ * このため、長いリーグ戦をそのまま学習の機会とすることができます。<br>
+ * <br>
+ * 動作制御のために、次のオプションパラメータを与えることができます。<br>
+ * <table border="1">
+ *   <caption>指定可能なオプションパラメータ</caption>
+ *   <tr><th>キー</th><th>型</th><th>内容</th><th>デフォルト値</th></tr>
+ *   <tr><td>{@code tdWeights}</td><td>{@code String}</td><td>重みテーブルのファイル</td>
+ *           <td>（なし。ファイルに保存せず、JVM 内でのみ共有する）</td></tr>
+ *   <tr><td>{@code alpha}</td><td>{@code double}</td><td>学習率</td><td>{@code 0.01}</td></tr>
+ *   <tr><td>{@code lambda}</td><td>{@code double}</td><td>TD(λ) 法の λ</td><td>{@code 0.7}</td></tr>
+ *   <tr><td>{@code epsilon}</td><td>{@code double}</td><td>ランダムに手を選ぶ確率</td><td>{@code 0.05}</td></tr>
+ *   <tr><td>{@code saveInterval}</td><td>{@code int}</td><td>重みテーブルを保存する間隔（ゲーム数）</td><td>{@code 100}</td></tr>
+ *   <tr><td>{@code seed}</td><td>{@code long}</td><td>乱数ジェネレータのシード値</td><td>（なし）</td></tr>
+ *   <tr><td>{@code debug}</td><td>{@code boolean}</td><td>デバッグ出力の有無</td><td>{@code false}</td></tr>
+ * </table>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class TDLearningAIPlayer implements Player {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** ロックの分割数（2 のべき乗） */
+    private static final int STRIPES = 64;
+    
+    /**
+     * JVM 内で共有する重みテーブルです。<br>
+     * 
+     * @author nmby
+     */
+    private static class SharedWeights {
+        
+        /** 保存先（保存しない場合は {@code null}） */
+        private final Path path;
+        
+        private final float[] values;
+        private final Object[] locks = new Object[STRIPES];
+        private final AtomicInteger games = new AtomicInteger();
+        
+        private SharedWeights(Path path) throws IOException {
+            this.path = path;
+            short[] initial = path != null && Files.exists(path)
+                    ? PatternWeights.read(path).toArray()
+                    : PatternWeights.heuristic().toArray();
+            values = new float[initial.length];
+            for (int n = 0; n < values.length; n++) {
+                values[n] = initial[n];
+            }
+            for (int s = 0; s < STRIPES; s++) {
+                locks[s] = new Object();
+            }
+        }
+        
+        private float valueOf(int[] features) {
+            float value = 0.0f;
+            for (int feature : features) {
+                value += values[feature];
+            }
+            return value;
+        }
+        
+        private void add(int[] features, float delta) {
+            for (int feature : features) {
+                synchronized (locks[feature & (STRIPES - 1)]) {
+                    values[feature] += delta;
+                }
+            }
+        }
+        
+        /**
+         * 重みテーブルをファイルに保存する。<br>
+         * 一時ファイルに書き込んでから置き換える。<br>
+         */
+        private synchronized void save() throws IOException {
+            short[] rounded = new short[values.length];
+            for (int n = 0; n < rounded.length; n++) {
+                rounded[n] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(values[n])));
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try {
+                PatternWeights.of(rounded).write(tmp);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+    
+    private static final Map<Path, SharedWeights> sharedWeights = new HashMap<>();
+    
+    /**
+     * 指定されたファイルに対応する、JVM 内で共有する重みテーブルを返す。<br>
+     * 
+     * @param path 重みテーブルのファイル（保存しない場合は {@code null}）
+     * @return 共有する重みテーブル
+     */
+    private static synchronized SharedWeights sharedWeightsOf(Path path) {
+        Path key = path == null ? Paths.get("") : path.toAbsolutePath().normalize();
+        SharedWeights weights = sharedWeights.get(key);
+        if (weights == null) {
+            try {
+                weights = new SharedWeights(path == null ? null : key);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sharedWeights.put(key, weights);
+        }
+        return weights;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Color myColor;
+    private final SharedWeights weights;
+    private final float alpha;
+    private final float lambda;
+    private final double epsilon;
+    private final int saveInterval;
+    private final Random random;
+    private final boolean debug;
+    
+    /** 自分の手を打った後の局面（自分の石の配置） */
+    private final long[] mines = new long[Point.HEIGHT * Point.WIDTH];
+    
+    /** 自分の手を打った後の局面（相手の石の配置） */
+    private final long[] hises = new long[Point.HEIGHT * Point.WIDTH];
+    
+    /** 記録した局面の数 */
+    private int count;
+    
+    private final int[] features = new int[PatternEvaluator.INSTANCES.length];
+    
+    /**
+     * このクラスのインスタンスを生成します。<br>
+     * 
+     * @param color このプレーヤーの石の色
+     * @param gameCondition ゲーム実施条件
+     * @throws UncheckedIOException {@code tdWeights} で指定された重みテーブルの読み込みに失敗した場合
+     */
+    public TDLearningAIPlayer(Color color, GameCondition gameCondition) {
+        myColor = color;
+        
+        // 動作制御用パラメータの取得
+        Optional<String> path = AIPlayerUtil.getParameter(gameCondition, "tdWeights");
+        weights = sharedWeightsOf(path.isPresent() ? Paths.get(path.get()) : null);
+        alpha = AIPlayerUtil.getDoubleParameter(gameCondition, "alpha").filter(v -> 0 < v).orElse(0.01).floatValue();
+        lambda = AIPlayerUtil.getDoubleParameter(gameCondition, "lambda")
+                .filter(v -> 0 <= v && v <= 1).orElse(0.7).floatValue();
+        epsilon = AIPlayerUtil.getDoubleParameter(gameCondition, "epsilon").filter(v -> 0 <= v && v <= 1).orElse(0.05);
+        saveInterval = AIPlayerUtil.getIntParameter(gameCondition, "saveInterval").filter(v -> 0 < v).orElse(100);
+        Optional<Long> seed = AIPlayerUtil.getLongParameter(gameCondition, "seed");
+        random = seed.isPresent() ? new Random(seed.get()) : new Random();
+        debug = AIPlayerUtil.getBooleanParameter(gameCondition, "debug").orElse(false);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、石を置いた後の局面の評価が最も高い手を選びます。ただし、一定の確率でランダムに手を選びます。<br>
+     */
+    @Override
+    public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame) {
+        assert color == myColor;
+        
+        long mine = BitBoards.bitsOf(board, color);
+        long his = BitBoards.bitsOf(board, color.opposite());
+        long moves = BitBoards.mobility(mine, his);
+        if (moves == 0) {
+            return null;
+        }
+        
+        int selected = -1;
+        if (random.nextDouble() < epsilon) {
+            int nth = random.nextInt(Long.bitCount(moves));
+            for (int k = 0; k < nth; k++) {
+                moves &= moves - 1;
+            }
+            selected = Long.numberOfTrailingZeros(moves);
+        
+        } else {
+            float best = Float.NEGATIVE_INFINITY;
+            for (long rest = moves; rest != 0; rest &= rest - 1) {
+                int square = Long.numberOfTrailingZeros(rest);
+                long flipped = BitBoards.flips(mine, his, square);
+                PatternEvaluator.features(mine | flipped | 1L << square, his & ~flipped, features);
+                float value = weights.valueOf(features);
+                if (best < value) {
+                    best = value;
+                    selected = square;
+                }
+            }
+        }
+        
+        long flipped = BitBoards.flips(mine, his, selected);
+        mines[count] = mine | flipped | 1L << selected;
+        hises[count] = his & ~flipped;
+        count++;
+        return Point.of(selected / Point.WIDTH, selected % Point.WIDTH);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、局面の記録を初期化します。<br>
+     */
+    @Override
+    public void notifyOfGameStart(Board board) {
+        count = 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、終局時の石数差を報酬として、記録した局面の重みを TD(λ) 法により更新します。
+     * ルール違反によりゲームが終了した場合は学習しません。<br>
+     * また、一定のゲーム数ごとに重みテーブルをファイルに保存します。<br>
+     */
+    @Override
+    public void notifyOfResult(GameResult result) {
+        if (result.violation() == null && 0 < count) {
+            learn(result.board);
+        }
+        count = 0;
+        
+        int games = weights.games.incrementAndGet();
+        if (weights.path != null && games % saveInterval == 0) {
+            try {
+                weights.save();
+                if (debug) {
+                    System.out.println(String.format("重みテーブルを保存しました。%s（%d ゲーム）", weights.path, games));
+                }
+            } catch (IOException e) {
+                // 保存に失敗してもゲームの進行には影響させず、次の機会に改めて保存を試みる。
+                System.err.println(String.format("重みテーブルを保存できませんでした。%s : %s", weights.path, e));
+            }
+        }
+    }
+    
+    /**
+     * 記録した局面の重みを、λ 収益を目標値として後ろから順に更新する。<br>
+     * 
+     * @param board 終局時のリバーシ盤
+     */
+    private void learn(Board board) {
+        long mine = BitBoards.bitsOf(board, myColor);
+        long his = BitBoards.bitsOf(board, myColor.opposite());
+        float target = (Long.bitCount(mine) - Long.bitCount(his)) * PatternTrainer.TARGET_SCALE;
+        float sumSquares = 0.0f;
+        
+        for (int t = count - 1; 0 <= t; t--) {
+            PatternEvaluator.features(mines[t], hises[t], features);
+            float value = weights.valueOf(features);
+            float error = target - value;
+            sumSquares += error * error;
+            weights.add(features, alpha * error);
+            
+            // 一つ前の局面の目標値は、この局面の（更新前の）評価値と目標値を λ で按分したものとする。
+            target = (1 - lambda) * value + lambda * target;
+        }
+        
+        if (debug) {
+            System.out.println(String.format("TD 誤差（平均二乗平方根）：%.2f 石",
+                    Math.sqrt(sumSquares / count) / PatternTrainer.TARGET_SCALE));
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+
+import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.SearchContext;
+
+/**
+ * {@link Player} 実装クラスの持ち時間を管理するためのクラスです。<br>
+ * <br>
+ * ゲーム内での残り持ち時間と空きマスの数から、一手ごとに費やすべき時間の目安（ソフトリミット）と、
+ * 超えてはならない時間（ハードリミット）を {@link Budget} として割り当てます。
+ * ソフトリミットは、自分の残りターン数で持ち時間を均等に割った値に、
+ * 残りターン数に応じたウェイトを掛けて求めます。
+ * ハードリミットは、ソフトリミットの {@value #HARD_FACTOR} 倍を上限とし、
+ * 一手あたりの制限時間と、以降の各ターンのために確保すべき時間の範囲内に収まるよう決めます。<br>
+ * ただし、{@link SearchContext} に探索量の上限が指定されている場合は、探索量を時間ではなく上限で決めるため、
+ * ソフトリミット・ハードリミットともにこの一手の制限時間いっぱいとします。<br>
+ * <br>
+ * {@link #observe(long, long)} により探索の実績を記録しておくと、その移動平均から探索速度を求め、持ち時間の割り当てに用います。
+ * 観測された探索速度ではソフトリミット内に最低限のノード数（{@link #of(long, IntToDoubleFunction, long)} で指定）を
+ * 探索できない場合は、探索しても意味のある結果が得られないものとして、ソフトリミット・ハードリミットともに {@code 0} とします。<br>
+ * <br>
+ * 反復深化など探索を反復する {@code Player} 実装クラスは、反復を終えるたびに {@link Budget#iterationFinished(long)}
+ * でその反復の探索ノード数を記録し、{@link Budget#canStartIteration()} により次の反復を開始すべきかを判断することができます。
+ * 次の反復に要する時間は、直前の反復に要した時間に、直前の二回の反復の探索ノード数の比（実効分岐数）を掛けて予測します。<br>
+ * <br>
+ * この実装は同期されません。{@code Player} 実装クラスのインスタンスごとに、このクラスのインスタンスを生成してください。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class TimeManager {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 一手分の持ち時間の割り当てと、その手における探索の反復の実績を表すクラスです。<br>
+     * 各時刻は {@link System#nanoTime()} の値で表されます。<br>
+     * この実装は同期されません。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static final class Budget {
+        
+        /** 割り当てを行った時刻 */
+        public final long start;
+        
+        /** 費やすべき時間の目安（ナノ秒） */
+        public final long softNanos;
+        
+        /** 超えてはならない時間（ナノ秒） */
+        public final long hardNanos;
+        
+        private final SearchContext context;
+        
+        private long iterationStart;
+        private long lastIterationNanos;
+        private long lastIterationNodes;
+        private long previousIterationNodes;
+        
+        private Budget(long start, long softNanos, long hardNanos, SearchContext context) {
+            assert 0 <= softNanos && softNanos <= hardNanos;
+            
+            this.start = start;
+            this.softNanos = softNanos;
+            this.hardNanos = hardNanos;
+            this.context = context;
+            iterationStart = start;
+        }
+        
+        /**
+         * 割り当てを行ってからの経過時間を返します。<br>
+         * 
+         * @return 経過時間（ナノ秒）
+         */
+        public long elapsedNanos() {
+            return System.nanoTime() - start;
+        }
+        
+        /**
+         * ソフトリミットの時刻を返します。<br>
+         * 
+         * @return ソフトリミットの時刻（{@link System#nanoTime()} の値）
+         */
+        public long softDeadline() {
+            return start + softNanos;
+        }
+        
+        /**
+         * ハードリミットの時刻を返します。<br>
+         * 
+         * @return ハードリミットの時刻（{@link System#nanoTime()} の値）
+         */
+        public long hardDeadline() {
+            return start + hardNanos;
+        }
+        
+        /**
+         * 費やすべき時間の目安を過ぎたかを返します。<br>
+         * 中断を要求されている場合も {@code true} を返します。<br>
+         * 
+         * @return 費やすべき時間の目安を過ぎた場合は {@code true}
+         */
+        public boolean isSoftExpired() {
+            return context.isAborted() || softNanos <= elapsedNanos();
+        }
+        
+        /**
+         * 超えてはならない時間を過ぎたかを返します。<br>
+         * 中断を要求されている場合も {@code true} を返します。<br>
+         * 
+         * @return 超えてはならない時間を過ぎた場合は {@code true}
+         */
+        public boolean isHardExpired() {
+            return context.isAborted() || hardNanos <= elapsedNanos();
+        }
+        
+        /**
+         * 探索の反復をひとつ終えたことを記録します。<br>
+         * 反復に要した時間は、前回この反復を記録した時点（初回は割り当てを行った時点）からの経過時間とします。<br>
+         * 
+         * @param nodes この反復で探索したノード数
+         * @throws IllegalArgumentException {@code nodes} が負の場合
+         */
+        public void iterationFinished(long nodes) {
+            if (nodes < 0) {
+                throw new IllegalArgumentException("nodes=" + nodes);
+            }
+            long now = System.nanoTime();
+            lastIterationNanos = now - iterationStart;
+            iterationStart = now;
+            previousIterationNodes = lastIterationNodes;
+            lastIterationNodes = nodes;
+        }
+        
+        /**
+         * 直前の二回の反復の探索ノード数の比から、実効分岐数を返します。<br>
+         * 反復の記録が二回に満たない場合や、実効分岐数が {@code 1.0} を下回る場合は {@code 1.0} を返します。<br>
+         * 
+         * @return 実効分岐数
+         */
+        public double branchingFactor() {
+            if (previousIterationNodes == 0) {
+                return 1.0;
+            }
+            return Double.max(1.0, (double) lastIterationNodes / previousIterationNodes);
+        }
+        
+        /**
+         * 次の反復に要する時間を、直前の反復に要した時間に実効分岐数を掛けて予測します。<br>
+         * 
+         * @return 次の反復に要すると見込まれる時間（ナノ秒）（反復が記録されていない場合は {@code 0}）
+         */
+        public long predictNextIterationNanos() {
+            return (long) Double.min(Long.MAX_VALUE, lastIterationNanos * branchingFactor());
+        }
+        
+        /**
+         * 探索の反復において、次の反復を開始すべきかを返します。<br>
+         * 費やすべき時間の目安を過ぎておらず、かつ、{@link #predictNextIterationNanos()} により予測した時間で
+         * 超えてはならない時間までに次の反復を終えられる見込みの場合に {@code true} を返します。<br>
+         * 
+         * @return 次の反復を開始すべき場合は {@code true}
+         */
+        public boolean canStartIteration() {
+            if (isSoftExpired()) {
+                return false;
+            }
+            return elapsedNanos() + predictNextIterationNanos() <= hardNanos;
+        }
+    }
+    
+    /** ハードリミットの、ソフトリミットに対する最大倍率 */
+    public static final int HARD_FACTOR = 3;
+    
+    /** 探索速度の移動平均を求める際の、直近の実績の重み */
+    private static final double SMOOTHING = 0.3;
+    
+    /**
+     * 新しい {@code TimeManager} を生成します。<br>
+     * 次のふたつの呼び出しは同値です。
+     * <pre>
+     *     TimeManager.of(margin, weight);
+     *     TimeManager.of(margin, weight, 0);
+     * </pre>
+     * 
+     * @param margin 一手ごとに差し引く、思考以外の処理のために確保する時間（ミリ秒）
+     * @param weight 自分の残りターン数を受け取り、平均的な持ち時間に対するウェイトを返す関数
+     * @return 新しい {@code TimeManager}
+     * @throws NullPointerException {@code weight} が {@code null} の場合
+     * @throws IllegalArgumentException {@code margin} が負の場合
+     */
+    public static TimeManager of(long margin, IntToDoubleFunction weight) {
+        return of(margin, weight, 0);
+    }
+    
+    /**
+     * 一手で最低限探索すべきノード数を指定して、新しい {@code TimeManager} を生成します。<br>
+     * 
+     * @param margin 一手ごとに差し引く、思考以外の処理のために確保する時間（ミリ秒）
+     * @param weight 自分の残りターン数を受け取り、平均的な持ち時間に対するウェイトを返す関数
+     * @param minNodes 一手で最低限探索すべきノード数（{@code 0} の場合は探索速度による制限を行わない）
+     * @return 新しい {@code TimeManager}
+     * @throws NullPointerException {@code weight} が {@code null} の場合
+     * @throws IllegalArgumentException {@code margin}、{@code minNodes} のいずれかが負の場合
+     */
+    public static TimeManager of(long margin, IntToDoubleFunction weight, long minNodes) {
+        Objects.requireNonNull(weight);
+        if (margin < 0 || minNodes < 0) {
+            throw new IllegalArgumentException(String.format("margin=%d, minNodes=%d", margin, minNodes));
+        }
+        return new TimeManager(margin, weight, minNodes);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final long margin;
+    private final IntToDoubleFunction weight;
+    private final long minNodes;
+    
+    /** 観測された探索速度（ノード／ナノ秒）。未観測の場合は 0 */
+    private double nodesPerNano;
+    
+    private TimeManager(long margin, IntToDoubleFunction weight, long minNodes) {
+        assert 0 <= margin;
+        assert weight != null;
+        assert 0 <= minNodes;
+        
+        this.margin = margin;
+        this.weight = weight;
+        this.minNodes = minNodes;
+    }
+    
+    /**
+     * 今回のターンの持ち時間を割り当てます。<br>
+     * 
+     * @param givenMillisPerTurn 一手あたりの制限時間（ミリ秒）
+     * @param remainingMillisInGame ゲーム内での残り持ち時間（ミリ秒）
+     * @param blankCells 空きマスの数
+     * @param context 今回のターンの {@link SearchContext}
+     * @return 今回のターンの持ち時間
+     * @throws NullPointerException {@code context} が {@code null} の場合
+     */
+    public Budget allocate(long givenMillisPerTurn, long remainingMillisInGame, int blankCells, SearchContext context) {
+        Objects.requireNonNull(context);
+        long start = System.nanoTime();
+        
+        // 探索量の上限が指定されている場合は、計算機の負荷によって探索量が変わらないように、時間による打ち切りは安全装置に留める。
+        if (context.hasSearchBudget()) {
+            long limit = Long.max(0, TimeUnit.NANOSECONDS.toMillis(context.remainingNanos()) - margin);
+            return new Budget(start, TimeUnit.MILLISECONDS.toNanos(limit), TimeUnit.MILLISECONDS.toNanos(limit), context);
+        }
+        
+        int myTurns = Integer.max(1, (blankCells + 1) / 2);
+        
+        // 以降の各ターンにも最低限 margin ずつは残しておく。
+        long hard = Long.min(givenMillisPerTurn, remainingMillisInGame - margin * (myTurns - 1)) - margin;
+        hard = Long.min(hard, TimeUnit.NANOSECONDS.toMillis(context.remainingNanos()) - margin);
+        
+        long soft = (long) (weight.applyAsDouble(myTurns) * remainingMillisInGame / myTurns) - margin;
+        soft = Long.max(0, Long.min(soft, hard));
+        hard = Long.max(soft, Long.min(hard, soft * HARD_FACTOR));
+        
+        // 観測された探索速度では最低限のノード数も探索できない場合は、探索しないよう割り当てを 0 とする。
+        if (0 < nodesPerNano && TimeUnit.MILLISECONDS.toNanos(soft) * nodesPerNano < minNodes) {
+            soft = 0;
+            hard = 0;
+        }
+        
+        return new Budget(
+                start,
+                TimeUnit.MILLISECONDS.toNanos(soft),
+                TimeUnit.MILLISECONDS.toNanos(hard),
+                context);
+    }
+    
+    /**
+     * 探索の実績を記録します。<br>
+     * 記録された実績の移動平均から求めた探索速度は、以降の {@link #allocate(long, long, int, SearchContext)} で用いられます。<br>
+     * 
+     * @param nodes 探索したノード数
+     * @param nanos 探索に要した時間（ナノ秒）
+     */
+    public void observe(long nodes, long nanos) {
+        if (nodes <= 0 || nanos <= 0) {
+            return;
+        }
+        double latest = (double) nodes / nanos;
+        nodesPerNano = nodesPerNano == 0 ? latest : SMOOTHING * latest + (1 - SMOOTHING) * nodesPerNano;
+    }
+    
+    /**
+     * これまでに記録された探索の実績から求めた探索速度を返します。<br>
+     * 
+     * @return 探索速度（ノード／秒）（実績が記録されていない場合は 0）
+     */
+    public long nodesPerSecond() {
+        return (long) (nodesPerNano * TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,106 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * メモリにマップした重みテーブルを、JVM 内のすべてのプレーヤーで共有するための参照カウント付きレジストリです。<br>
+ * <br>
+ * {@link #acquire(Path)} は、同じファイルに対しては同じ {@link PatternWeights} インスタンスを返します。
+ * そのため、並行して実行されるゲームの数やプレーヤーの数が増えても、重みテーブルのためのメモリ使用量は増えず、
+ * 二つ目以降のプレーヤーの初期化はマップ済みの重みテーブルを参照するだけで済みます。<br>
+ * 重みテーブルを使い終えたら、必ず {@link #release(PatternWeights)} を呼び出してください。
+ * 参照がなくなった重みテーブルはレジストリから取り除かれ、マップされた領域はガベージコレクションの際に解放されます。<br>
+ * <br>
+ * マップ中の重みテーブルのファイルを書き換えないでください。書き換えた場合の動作は保証されません。<br>
+ * このクラスのメソッドはスレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class WeightRegistry {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * マップ済みの重みテーブルと、その参照数の組です。<br>
+     * 
+     * @author nmby
+     */
+    private static class Entry {
+        private final PatternWeights weights;
+        private int references;
+        
+        private Entry(PatternWeights weights) {
+            this.weights = weights;
+        }
+    }
+    
+    private static final Map<Path, Entry> entries = new HashMap<>();
+    
+    /**
+     * 指定されたファイルの重みテーブルを取得し、参照数を 1 増やします。<br>
+     * まだマップされていないファイルの場合は、{@link PatternWeights#map(Path)} によりマップします。<br>
+     * 
+     * @param path 重みテーブルのファイル
+     * @return 重みテーブル
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IOException マップに失敗した場合や、ファイルの形式が不正な場合
+     */
+    public static synchronized PatternWeights acquire(Path path) throws IOException {
+        Path key = Objects.requireNonNull(path).toRealPath();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(PatternWeights.map(key));
+            entries.put(key, entry);
+        }
+        entry.references++;
+        return entry.weights;
+    }
+    
+    /**
+     * {@link #acquire(Path)} で取得した重みテーブルの参照数を 1 減らします。<br>
+     * 参照数が 0 になった重みテーブルは、レジストリから取り除かれます。<br>
+     * このレジストリで管理されていない重みテーブルが指定された場合は、何もしません。<br>
+     * 
+     * @param weights 重みテーブル
+     * @throws NullPointerException {@code weights} が {@code null} の場合
+     */
+    public static synchronized void release(PatternWeights weights) {
+        Objects.requireNonNull(weights);
+        
+        Iterator<Entry> itr = entries.values().iterator();
+        while (itr.hasNext()) {
+            Entry entry = itr.next();
+            if (entry.weights == weights) {
+                entry.references--;
+                if (entry.references == 0) {
+                    itr.remove();
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 指定されたファイルの重みテーブルの現在の参照数を返します。<br>
+     * 
+     * @param path 重みテーブルのファイル
+     * @return 参照数（マップされていない場合は {@code 0}）
+     * @throws NullPointerException {@code path} が {@code null} の場合
+     * @throws IOException ファイルのパスの解決に失敗した場合
+     */
+    public static synchronized int references(Path path) throws IOException {
+        Entry entry = entries.get(Objects.requireNonNull(path).toRealPath());
+        return entry == null ? 0 : entry.references;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private WeightRegistry() {
+    }
+}
@@ -242,6 +242,19 @@ public class Point implements Serializable, Comparable<Point> {
         }
     }
     
+    /**
+     * この {@code Point} のハッシュコード値として、序数を返します。<br>
+     * {@code Point} は座標ごとに単一のインスタンスであるため、{@link Object#equals(Object)} はそのまま用います。
+     * ハッシュコード値を座標から決めることで、{@code HashMap} 等の反復順序が実行環境やスレッドのスケジューリングに左右されないようにしています。<br>
+     * 
+     * @return この {@code Point} のハッシュコード値
+     * @since 2.2.0
+     */
+    @Override
+    public int hashCode() {
+        return ordinal();
+    }
+    
     /**
      * この {@code Point} の文字列表現を {@code (i, j)} 形式で返します。<br>
      * 
@@ -0,0 +1,254 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 確定石（今後どのように手が進んでもひっくり返されることのない石）を求めるユーティリティクラスです。<br>
+ * <br>
+ * 次の手順で確定石を求めます。
+ * <ol>
+ *   <li>辺の 8 マスについて、辺の上だけで起こり得るすべての手順を考慮して確定石を求めた表を引き、
+ *       四辺の確定石を求めます。</li>
+ *   <li>縦・横・斜めの 4 つの軸それぞれについて、その軸のラインが埋まっているか、
+ *       軸上の隣のマスが盤の外か同じ色の確定石である石を確定石とし、これ以上増えなくなるまで繰り返します。</li>
+ * </ol>
+ * この方法で求められる確定石は、真の確定石の部分集合です。すなわち、確定石であるにもかかわらず
+ * 確定石と判定されない石はあり得ますが、確定石でない石を確定石と判定することはありません。<br>
+ * 従って、ある色の確定石の数は、その色の終局時の石の数の下限として利用できます。
+ * 同様に、マスの総数から相手の確定石の数を引いた値は、上限として利用できます。<br>
+ * <br>
+ * リバーシ盤は、各色の石が置かれているマスを {@code long} 値の各ビットで表したビットボードとして扱います。
+ * {@link Point#ordinal()} 番目のビットが、そのマスに対応します。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class Stability {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = 0x8080808080808080L;
+    private static final long RANK_1 = 0x00000000000000FFL;
+    private static final long RANK_8 = 0xFF00000000000000L;
+    private static final long BORDER = FILE_A | FILE_H | RANK_1 | RANK_8;
+    
+    /** 左上から右下への斜めのライン（i - j が一定）を表すマスク */
+    private static final long[] DIAGONALS = new long[Point.HEIGHT + Point.WIDTH - 1];
+    
+    /** 右上から左下への斜めのライン（i + j が一定）を表すマスク */
+    private static final long[] ANTI_DIAGONALS = new long[Point.HEIGHT + Point.WIDTH - 1];
+    
+    /**
+     * 辺の確定石の表です。<br>
+     * 辺の 8 マスについて、自分の石の配置を上位 8 ビット、相手の石の配置を下位 8 ビットとした値をインデックスとし、
+     * 自分の石のうちの確定石を値として保持します。
+     */
+    private static final byte[] EDGE_TABLE = new byte[1 << 16];
+    
+    static {
+        for (int i = 0; i < Point.HEIGHT; i++) {
+            for (int j = 0; j < Point.WIDTH; j++) {
+                DIAGONALS[i - j + Point.WIDTH - 1] |= 1L << (i * Point.WIDTH + j);
+                ANTI_DIAGONALS[i + j] |= 1L << (i * Point.WIDTH + j);
+            }
+        }
+        
+        boolean[] computed = new boolean[EDGE_TABLE.length];
+        for (int mine = 0; mine < 0x100; mine++) {
+            for (int his = 0; his < 0x100; his++) {
+                if ((mine & his) == 0) {
+                    edgeStable(mine, his, computed);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 辺の上だけで起こり得るすべての手順を考慮して、辺の確定石を求める。<br>
+     * 辺の上の空きマスには、合法手であるか否かにかかわらず、どちらの色の石も置かれ得るものとみなす。<br>
+     * 
+     * @param mine 自分の石の配置（8 ビット）
+     * @param his 相手の石の配置（8 ビット）
+     * @param computed 計算済みの組み合わせ
+     * @return 自分の石のうちの確定石（8 ビット）
+     */
+    private static int edgeStable(int mine, int his, boolean[] computed) {
+        int key = mine << 8 | his;
+        if (computed[key]) {
+            return EDGE_TABLE[key] & 0xFF;
+        }
+        
+        int stable = mine;
+        for (int x = 0; x < 8 && stable != 0; x++) {
+            if (((mine | his) & 1 << x) != 0) {
+                continue;
+            }
+            // 自分が置く場合
+            int flipped = lineFlips(mine, his, x);
+            stable &= edgeStable(mine | flipped | 1 << x, his & ~flipped, computed);
+            
+            // 相手が置く場合
+            flipped = lineFlips(his, mine, x);
+            stable &= edgeStable(mine & ~flipped, his | flipped | 1 << x, computed);
+        }
+        
+        EDGE_TABLE[key] = (byte) stable;
+        computed[key] = true;
+        return stable;
+    }
+    
+    /**
+     * 8 マスのラインの上で、{@code own} の側が {@code x} に石を置いた場合にひっくり返る石を返す。<br>
+     * 
+     * @param own 石を置く側の石の配置（8 ビット）
+     * @param opp 相手の石の配置（8 ビット）
+     * @param x 石を置く位置
+     * @return ひっくり返る石（8 ビット）
+     */
+    private static int lineFlips(int own, int opp, int x) {
+        int flipped = 0;
+        for (int d = -1; d <= 1; d += 2) {
+            int line = 0;
+            int p = x + d;
+            while (0 <= p && p < 8 && (opp & 1 << p) != 0) {
+                line |= 1 << p;
+                p += d;
+            }
+            if (0 <= p && p < 8 && (own & 1 << p) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+    
+    /**
+     * {@code mine} の石のうちの確定石をビットボードとして返します。<br>
+     * 
+     * @param mine 確定石を求める側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return {@code mine} の石のうちの確定石を表すビットボード
+     */
+    public static long stableDiscs(long mine, long his) {
+        long filled = mine | his;
+        long stable = edgeStableDiscs(mine, his);
+        
+        long fullH = 0L;
+        long fullV = 0L;
+        for (int k = 0; k < 8; k++) {
+            long rank = RANK_1 << (8 * k);
+            if ((filled & rank) == rank) {
+                fullH |= rank;
+            }
+            long file = FILE_A << k;
+            if ((filled & file) == file) {
+                fullV |= file;
+            }
+        }
+        long fullD = 0L;
+        long fullA = 0L;
+        for (int k = 0; k < DIAGONALS.length; k++) {
+            if ((filled & DIAGONALS[k]) == DIAGONALS[k]) {
+                fullD |= DIAGONALS[k];
+            }
+            if ((filled & ANTI_DIAGONALS[k]) == ANTI_DIAGONALS[k]) {
+                fullA |= ANTI_DIAGONALS[k];
+            }
+        }
+        fullH |= FILE_A | FILE_H;
+        fullV |= RANK_1 | RANK_8;
+        fullD |= BORDER;
+        fullA |= BORDER;
+        
+        // 4 つの軸のすべてについて、ラインが埋まっているか、隣が盤外か同じ色の確定石である石を、確定石に加えていく。
+        while (true) {
+            long h = fullH | ((stable << 1) & ~FILE_A) | ((stable >>> 1) & ~FILE_H);
+            long v = fullV | (stable << 8) | (stable >>> 8);
+            long d = fullD | ((stable << 9) & ~FILE_A) | ((stable >>> 9) & ~FILE_H);
+            long a = fullA | ((stable << 7) & ~FILE_H) | ((stable >>> 7) & ~FILE_A);
+            long next = stable | (mine & h & v & d & a);
+            if (next == stable) {
+                return stable;
+            }
+            stable = next;
+        }
+    }
+    
+    /**
+     * 四辺の確定石を、辺の確定石の表を引いて求める。<br>
+     * 
+     * @param mine 確定石を求める側の石の配置を表すビットボード
+     * @param his 相手の石の配置を表すビットボード
+     * @return {@code mine} の石のうちの、四辺の確定石を表すビットボード
+     */
+    private static long edgeStableDiscs(long mine, long his) {
+        long stable = 0L;
+        
+        // 上辺と下辺
+        stable |= edge((int) (mine & 0xFF), (int) (his & 0xFF));
+        stable |= edge((int) (mine >>> 56), (int) (his >>> 56)) << 56;
+        
+        // 左辺と右辺
+        int mineA = 0;
+        int hisA = 0;
+        int mineH = 0;
+        int hisH = 0;
+        for (int i = 0; i < 8; i++) {
+            mineA |= (int) ((mine >>> (8 * i)) & 1L) << i;
+            hisA |= (int) ((his >>> (8 * i)) & 1L) << i;
+            mineH |= (int) ((mine >>> (8 * i + 7)) & 1L) << i;
+            hisH |= (int) ((his >>> (8 * i + 7)) & 1L) << i;
+        }
+        long stableA = edge(mineA, hisA);
+        long stableH = edge(mineH, hisH);
+        for (int i = 0; i < 8; i++) {
+            stable |= ((stableA >>> i) & 1L) << (8 * i);
+            stable |= ((stableH >>> i) & 1L) << (8 * i + 7);
+        }
+        return stable;
+    }
+    
+    private static long edge(int mine, int his) {
+        return EDGE_TABLE[mine << 8 | his] & 0xFFL;
+    }
+    
+    /**
+     * リバーシ盤上の指定された色の確定石の位置を返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 石の色
+     * @return 確定石の位置を格納した {@code Set}
+     * @throws NullPointerException {@code board}, {@code color} のいずれかが {@code null} の場合
+     */
+    public static Set<Point> stableDiscs(Board board, Color color) {
+        Objects.requireNonNull(board);
+        Objects.requireNonNull(color);
+        
+        long mine = 0L;
+        long his = 0L;
+        for (Point p : Point.values()) {
+            if (board.colorAt(p) == color) {
+                mine |= 1L << p.ordinal();
+            } else if (board.colorAt(p) == color.opposite()) {
+                his |= 1L << p.ordinal();
+            }
+        }
+        
+        long stable = stableDiscs(mine, his);
+        Set<Point> points = new HashSet<>();
+        for (Point p : Point.values()) {
+            if ((stable & 1L << p.ordinal()) != 0) {
+                points.add(p);
+            }
+        }
+        return Collections.unmodifiableSet(points);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private Stability() {
+    }
+}
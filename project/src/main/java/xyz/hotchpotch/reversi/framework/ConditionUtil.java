@@ -1,5 +1,6 @@
 package xyz.hotchpotch.reversi.framework;
 
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -71,6 +72,82 @@ import java.util.Map;
         return value;
     }
     
+    /*package*/ static long getLongNonNegativeValue(Map<String, String> map, String key, long defaultValue) {
+        assert map != null;
+        assert key != null;
+        
+        String str = map.get(key);
+        if (str == null) {
+            return defaultValue;
+        }
+        long value;
+        
+        try {
+            value = Long.parseLong(str);
+            
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(
+                    "整数値が必要です。%s=%s", key, str));
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "0 以上の整数値が必要です。%s=%d", key, value));
+        }
+        return value;
+    }
+    
+    /*package*/ static double getDoubleValue(Map<String, String> map, String key) {
+        assert map != null;
+        assert key != null;
+        
+        String str = getValue(map, key);
+        double value;
+        
+        try {
+            value = Double.parseDouble(str);
+            
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(
+                    "数値が必要です。%s=%s", key, str));
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(String.format(
+                    "有限の数値が必要です。%s=%s", key, str));
+        }
+        return value;
+    }
+    
+    /*package*/ static double getDoubleValue(Map<String, String> map, String key, double defaultValue) {
+        assert map != null;
+        assert key != null;
+        
+        return map.containsKey(key) ? getDoubleValue(map, key) : defaultValue;
+    }
+    
+    /*package*/ static <E extends Enum<E>> E getEnumValue(
+            Map<String, String> map,
+            String key,
+            Class<E> enumType,
+            E defaultValue) {
+            
+        assert map != null;
+        assert key != null;
+        assert enumType != null;
+        
+        String str = map.get(key);
+        if (str == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(enumType, str);
+            
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                    "%s のいずれかの値が必要です。%s=%s",
+                    Arrays.toString(enumType.getEnumConstants()), key, str));
+        }
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private ConditionUtil() {
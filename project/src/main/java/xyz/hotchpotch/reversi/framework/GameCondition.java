@@ -26,9 +26,37 @@ public class GameCondition implements Condition<Game>, Serializable {
     /*package*/ static final String KEY_PLAYER_WHITE = "player.white";
     /*package*/ static final String KEY_MILLIS_PER_TURN = "givenMillisPerTurn";
     /*package*/ static final String KEY_MILLIS_IN_GAME = "givenMillisInGame";
+    /*package*/ static final String KEY_TIME_UP_POLICY = "timeUpPolicy";
+    /*package*/ static final String KEY_NODES_PER_MOVE = "nodesPerMove";
+    /*package*/ static final String KEY_DEPTH_PER_MOVE = "depthPerMove";
+    /*package*/ static final String KEY_THREADS_PER_PLAYER = "threadsPerPlayer";
+    
+    /** {@code threadsPerPlayer} に指定できる最大値（{@link java.util.concurrent.ForkJoinPool} の並列度の上限） */
+    private static final int MAX_THREADS_PER_PLAYER = 0x7fff;
     
     private static final long serialVersionUID = 1L;
     
+    /**
+     * プレーヤーが制限時間を超過した場合の扱いを表す列挙型です。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static enum TimeUpPolicy {
+        
+        /** 制限時間を超過したプレーヤーの負けとします。 */
+        LOSE,
+        
+        /**
+         * 制限時間を超過したプレーヤーが {@link SearchContext#offer(xyz.hotchpotch.reversi.core.Point)}
+         * により暫定手を公開していた場合は、その暫定手を指したものとみなします。
+         * 暫定手が公開されていなかった場合や、中断の要求に応じずに制限時間を超過した後も思考を続けた場合は、
+         * 制限時間を超過したプレーヤーの負けとします。<br>
+         * なお、ゲーム全体での持ち時間を使い切った場合は、次の手番で負けとなります。
+         */
+        PROVISIONAL;
+    }
+    
     /**
      * {@link GameCondition} のシリアライゼーションプロキシです。<br>
      * 
@@ -95,7 +123,8 @@ public class GameCondition implements Condition<Game>, Serializable {
      * @return ゲーム実施条件
      * @throws NullPointerException {@code playerBlack}、{@code playerWhite}、{@code params}
      *                              のいずれかが {@code null} の場合
-     * @throws IllegalArgumentException {@code givenMillisPerTurn}、{@code givenMillisInGame} のいずれかが正の整数でない場合
+     * @throws IllegalArgumentException {@code givenMillisPerTurn}、{@code givenMillisInGame} のいずれかが正の整数でない場合や
+     *                                  {@code params} に含まれる任意パラメータの値が不正な場合
      */
     public static GameCondition of(
             Class<? extends Player> playerBlack,
@@ -119,12 +148,22 @@ public class GameCondition implements Condition<Game>, Serializable {
         copy.put(KEY_PLAYER_WHITE, playerWhite.getName());
         copy.put(KEY_MILLIS_PER_TURN, String.valueOf(givenMillisPerTurn));
         copy.put(KEY_MILLIS_IN_GAME, String.valueOf(givenMillisInGame));
+        TimeUpPolicy timeUpPolicy = ConditionUtil.getEnumValue(
+                copy, KEY_TIME_UP_POLICY, TimeUpPolicy.class, TimeUpPolicy.LOSE);
+        long nodesPerMove = ConditionUtil.getLongNonNegativeValue(copy, KEY_NODES_PER_MOVE, 0);
+        int depthPerMove = (int) Long.min(Integer.MAX_VALUE,
+                ConditionUtil.getLongNonNegativeValue(copy, KEY_DEPTH_PER_MOVE, 0));
+        int threadsPerPlayer = getThreadsPerPlayer(copy);
         
         return new GameCondition(
                 playerBlack,
                 playerWhite,
                 givenMillisPerTurn,
                 givenMillisInGame,
+                timeUpPolicy,
+                nodesPerMove,
+                depthPerMove,
+                threadsPerPlayer,
                 copy);
     }
     
@@ -139,6 +178,15 @@ public class GameCondition implements Condition<Game>, Serializable {
      *   <tr><td>{@code givenMillisPerTurn}</td><td>一手あたりの制限時間（ミリ秒）</td><td>{@code 1000}</td></tr>
      *   <tr><td>{@code givenMillisInGame}</td><td>ゲーム全体での持ち時間（ミリ秒）</td><td>{@code 15000}</td></tr>
      * </table>
+     * また、次の任意パラメータを含むことができます。<br>
+     * <table border="1">
+     *   <caption>任意パラメータ</caption>
+     *   <tr><th>パラメータ名</th><th>内容</th><th>デフォルト値</th></tr>
+     *   <tr><td>{@code timeUpPolicy}</td><td>制限時間を超過した場合の扱い（{@link TimeUpPolicy} の要素名）</td><td>{@code LOSE}</td></tr>
+     *   <tr><td>{@code nodesPerMove}</td><td>一手あたりの探索ノード数の上限（{@code 0} は上限なし）</td><td>{@code 0}</td></tr>
+     *   <tr><td>{@code depthPerMove}</td><td>一手あたりの探索深さの上限（{@code 0} は上限なし）</td><td>{@code 0}</td></tr>
+     *   <tr><td>{@code threadsPerPlayer}</td><td>プレーヤーごとの並列処理用スレッド数（{@code 0} は共有の共通プールを利用）</td><td>{@code 0}</td></tr>
+     * </table>
      * 
      * @param params パラメータが格納された {@code Map}
      * @return ゲーム実施条件
@@ -154,15 +202,36 @@ public class GameCondition implements Condition<Game>, Serializable {
         Class<? extends Player> playerWhite = ConditionUtil.getPlayerClass(copy, KEY_PLAYER_WHITE);
         long givenMillisPerTurn = ConditionUtil.getLongPositiveValue(copy, KEY_MILLIS_PER_TURN);
         long givenMillisInGame = ConditionUtil.getLongPositiveValue(copy, KEY_MILLIS_IN_GAME);
+        TimeUpPolicy timeUpPolicy = ConditionUtil.getEnumValue(
+                copy, KEY_TIME_UP_POLICY, TimeUpPolicy.class, TimeUpPolicy.LOSE);
+        long nodesPerMove = ConditionUtil.getLongNonNegativeValue(copy, KEY_NODES_PER_MOVE, 0);
+        int depthPerMove = (int) Long.min(Integer.MAX_VALUE,
+                ConditionUtil.getLongNonNegativeValue(copy, KEY_DEPTH_PER_MOVE, 0));
+        int threadsPerPlayer = getThreadsPerPlayer(copy);
         
         return new GameCondition(
                 playerBlack,
                 playerWhite,
                 givenMillisPerTurn,
                 givenMillisInGame,
+                timeUpPolicy,
+                nodesPerMove,
+                depthPerMove,
+                threadsPerPlayer,
                 copy);
     }
     
+    private static int getThreadsPerPlayer(Map<String, String> map) {
+        assert map != null;
+        
+        long value = ConditionUtil.getLongNonNegativeValue(map, KEY_THREADS_PER_PLAYER, 0);
+        if (MAX_THREADS_PER_PLAYER < value) {
+            throw new IllegalArgumentException(String.format(
+                    "%d 以下の整数値が必要です。%s=%d", MAX_THREADS_PER_PLAYER, KEY_THREADS_PER_PLAYER, value));
+        }
+        return (int) value;
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     // 不変なメンバ変数は直接公開してしまう。
@@ -177,6 +246,47 @@ public class GameCondition implements Condition<Game>, Serializable {
     /** ゲーム全体での持ち時間（ミリ秒） */
     public transient final long givenMillisInGame;
     
+    /**
+     * 制限時間を超過した場合の扱い
+     * 
+     * @since 2.2.0
+     */
+    public transient final TimeUpPolicy timeUpPolicy;
+    
+    /**
+     * 一手あたりの探索ノード数の上限（{@code 0} の場合は上限なし）。<br>
+     * 上限が指定された場合、ゲーム実行フレームワークは {@link SearchContext} を通してプレーヤーに上限を伝え、
+     * プレーヤーが報告した探索ノード数が上限に達した時点で思考の中断を要求します。
+     * 計算機の負荷によらず同じ量の思考をさせることができるため、多数のゲームを並行して実行する場合でも再現性のある結果が得られます。
+     * 制限時間は引き続き適用されるため、上限に見合った十分な制限時間を指定してください。<br>
+     * 
+     * @see SearchContext#nodeBudget()
+     * @since 2.2.0
+     */
+    public transient final long nodesPerMove;
+    
+    /**
+     * 一手あたりの探索深さの上限（{@code 0} の場合は上限なし）。<br>
+     * ゲーム実行フレームワークは {@link SearchContext} を通してプレーヤーに上限を伝えます。
+     * 上限を守ることはプレーヤーの責任です。<br>
+     * 
+     * @see SearchContext#depthBudget()
+     * @since 2.2.0
+     */
+    public transient final int depthPerMove;
+    
+    /**
+     * プレーヤーごとに割り当てる、並列処理用のスレッド数（{@code 0} の場合は割り当てない）。<br>
+     * 指定された場合、ゲーム実行フレームワークはプレーヤーごとにこの並列度の {@link java.util.concurrent.ForkJoinPool} を用意し、
+     * その中でプレーヤーに手を考えさせます。
+     * このため、プレーヤーが思考中に利用する {@code parallelStream()} や {@link java.util.concurrent.ForkJoinTask#fork()} は、
+     * JVM 全体で共有される共通プールではなくそのプレーヤー専用のプールで実行されます。
+     * ゲームを並行して実行する場合に、あるプレーヤーの並列処理が他のプレーヤーのスレッドを奪うことを防ぎます。<br>
+     * 
+     * @since 2.2.0
+     */
+    public transient final int threadsPerPlayer;
+    
     private transient final Map<String, String> params;
     
     private GameCondition(
@@ -184,12 +294,20 @@ public class GameCondition implements Condition<Game>, Serializable {
             Class<? extends Player> playerClassWhite,
             long givenMillisPerTurn,
             long givenMillisInGame,
+            TimeUpPolicy timeUpPolicy,
+            long nodesPerMove,
+            int depthPerMove,
+            int threadsPerPlayer,
             Map<String, String> params) {
             
         assert playerClassBlack != null;
         assert playerClassWhite != null;
         assert 0 < givenMillisPerTurn;
         assert 0 < givenMillisInGame;
+        assert timeUpPolicy != null;
+        assert 0 <= nodesPerMove;
+        assert 0 <= depthPerMove;
+        assert 0 <= threadsPerPlayer && threadsPerPlayer <= MAX_THREADS_PER_PLAYER;
         assert params != null;
         
         Map<Color, Class<? extends Player>> playerClasses = new EnumMap<>(Color.class);
@@ -198,6 +316,10 @@ public class GameCondition implements Condition<Game>, Serializable {
         this.playerClasses = Collections.unmodifiableMap(playerClasses);
         this.givenMillisPerTurn = givenMillisPerTurn;
         this.givenMillisInGame = givenMillisInGame;
+        this.timeUpPolicy = timeUpPolicy;
+        this.nodesPerMove = nodesPerMove;
+        this.depthPerMove = depthPerMove;
+        this.threadsPerPlayer = threadsPerPlayer;
         this.params = Collections.unmodifiableMap(params);
     }
     
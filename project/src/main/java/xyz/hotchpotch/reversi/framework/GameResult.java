@@ -1,8 +1,10 @@
 package xyz.hotchpotch.reversi.framework;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -38,6 +40,28 @@ public class GameResult implements Result<Game> {
             Board board,
             Map<Color, Long> remainingMillisInGame) {
             
+        return of(gameCondition, board, remainingMillisInGame, Collections.emptyList());
+    }
+    
+    /**
+     * ルール違反なくゲームが正常終了した場合のゲーム結果を、一手ごとの記録とともに生成します。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @param board ゲーム終了時のリバーシ盤
+     * @param remainingMillisInGame 黒白それぞれの残り持ち時間（ミリ秒）が格納された {@code Map}
+     * @param moves 一手ごとの記録（手番順）
+     * @return ゲーム結果
+     * @throws NullPointerException {@code gameCondition}、{@code board}、{@code remainingMillisInGame}、{@code moves}
+     *                              のいずれかが {@code null} の場合、または {@code moves} が {@code null} 要素を含む場合
+     * @throws IllegalArgumentException {@code board} がゲーム終了状態にない場合
+     * @since 2.2.0
+     */
+    public static GameResult of(
+            GameCondition gameCondition,
+            Board board,
+            Map<Color, Long> remainingMillisInGame,
+            List<MoveRecord> moves) {
+            
         Objects.requireNonNull(gameCondition);
         Objects.requireNonNull(board);
         Objects.requireNonNull(remainingMillisInGame);
@@ -49,7 +73,8 @@ public class GameResult implements Result<Game> {
         return new GameResult(
                 gameCondition,
                 BoardSnapshot.of(board),
-                new EnumMap<>(remainingMillisInGame));
+                new EnumMap<>(remainingMillisInGame),
+                copyOf(moves));
     }
     
     /**
@@ -69,6 +94,30 @@ public class GameResult implements Result<Game> {
             Map<Color, Long> remainingMillisInGame,
             RuleViolationException violation) {
             
+        return of(gameCondition, board, remainingMillisInGame, Collections.emptyList(), violation);
+    }
+    
+    /**
+     * ルール違反によりゲームが終了した場合のゲーム結果を、一手ごとの記録とともに生成します。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @param board ゲーム終了時のリバーシ盤
+     * @param remainingMillisInGame 黒白それぞれの残り持ち時間（ミリ秒）が格納された {@code Map}
+     * @param moves 一手ごとの記録（手番順）
+     * @param violation ルール違反を表す例外
+     * @return ゲーム結果
+     * @throws NullPointerException {@code gameCondition}、{@code board}、{@code remainingMillisInGame}、{@code moves}、
+     *                              {@code violation} のいずれかが {@code null} の場合、
+     *                              または {@code moves} が {@code null} 要素を含む場合
+     * @since 2.2.0
+     */
+    public static GameResult of(
+            GameCondition gameCondition,
+            Board board,
+            Map<Color, Long> remainingMillisInGame,
+            List<MoveRecord> moves,
+            RuleViolationException violation) {
+            
         Objects.requireNonNull(gameCondition);
         Objects.requireNonNull(board);
         Objects.requireNonNull(remainingMillisInGame);
@@ -78,9 +127,16 @@ public class GameResult implements Result<Game> {
                 gameCondition,
                 BoardSnapshot.of(board),
                 new EnumMap<>(remainingMillisInGame),
+                copyOf(moves),
                 copyOf(violation));
     }
     
+    private static List<MoveRecord> copyOf(List<MoveRecord> moves) {
+        List<MoveRecord> copy = new ArrayList<>(Objects.requireNonNull(moves));
+        copy.forEach(Objects::requireNonNull);
+        return copy;
+    }
+    
     private static RuleViolationException copyOf(RuleViolationException original) {
         assert original != null;
         
@@ -113,38 +169,40 @@ public class GameResult implements Result<Game> {
     /** 黒白それぞれの残り持ち時間（ミリ秒）が格納された {@code Map} */
     public final Map<Color, Long> remainingMillisInGame;
     
+    /**
+     * 一手ごとの記録（手番順）を格納した {@code List}。<br>
+     * ルール違反となった手も、プレーヤーが手を返した場合は含みます。<br>
+     * 
+     * @since 2.2.0
+     */
+    public final List<MoveRecord> moves;
+    
     /** 勝者の色（引き分けの場合は {@code null}） */
     public final Color winner;
     
     private final RuleViolationException violation;
-    private final String description;
     
     // ルール違反なくゲームが正常終了した場合のコンストラクタ
     private GameResult(
             GameCondition gameCondition,
             Board board,
-            Map<Color, Long> remainingMillisInGame) {
+            Map<Color, Long> remainingMillisInGame,
+            List<MoveRecord> moves) {
             
         assert gameCondition != null;
         assert board != null;
         assert !Rule.isGameOngoing(board);
         assert remainingMillisInGame != null;
+        assert moves != null;
         
         // 防御的コピーをとるのは static メソッドのレイヤ、public で公開するために不変化ラップするのはコンストラクタのレイヤとする。
         this.gameCondition = gameCondition;
         this.board = board;
         this.remainingMillisInGame = Collections.unmodifiableMap(remainingMillisInGame);
+        this.moves = Collections.unmodifiableList(moves);
         this.violation = null;
         
         winner = Rule.winner(this.board);
-        int black = (int) Point.stream().map(this.board::colorAt).filter(c -> c == Color.BLACK).count();
-        int white = (int) Point.stream().map(this.board::colorAt).filter(c -> c == Color.WHITE).count();
-        
-        description = String.format("%s %s:%d（残り %d ms）, %s:%d（残り %d ms）",
-                winner == null ? "引き分けです。" : String.format("%s:%s の勝ちです。",
-                        winner, gameCondition.playerClasses.get(winner).getSimpleName()),
-                Color.BLACK, black, this.remainingMillisInGame.get(Color.BLACK),
-                Color.WHITE, white, this.remainingMillisInGame.get(Color.WHITE));
     }
     
     // ルール違反によりゲームが終了した場合のコンストラクタ
@@ -152,25 +210,21 @@ public class GameResult implements Result<Game> {
             GameCondition gameCondition,
             Board board,
             Map<Color, Long> remainingMillisInGame,
+            List<MoveRecord> moves,
             RuleViolationException violation) {
             
         assert gameCondition != null;
         assert board != null;
         assert remainingMillisInGame != null;
+        assert moves != null;
         assert violation != null;
         
         this.gameCondition = gameCondition;
         this.board = board;
         this.remainingMillisInGame = Collections.unmodifiableMap(remainingMillisInGame);
+        this.moves = Collections.unmodifiableList(moves);
         this.violation = violation;
         winner = violation.violator.opposite();
-        description = String.format(
-                "%s:%s の反則負けです。%s（残り %s:%d ms, %s:%d ms）",
-                violation.violator,
-                gameCondition.playerClasses.get(violation.violator).getSimpleName(),
-                violation.getMessage(),
-                Color.BLACK, remainingMillisInGame.get(Color.BLACK),
-                Color.WHITE, remainingMillisInGame.get(Color.WHITE));
     }
     
     /**
@@ -190,6 +244,23 @@ public class GameResult implements Result<Game> {
      */
     @Override
     public String toString() {
-        return description;
+        // 大量のゲームを実行する場合に備え、文字列表現はゲーム結果の生成時ではなく必要になった時点で組み立てる。
+        if (violation != null) {
+            return String.format(
+                    "%s:%s の反則負けです。%s（残り %s:%d ms, %s:%d ms）",
+                    violation.violator,
+                    gameCondition.playerClasses.get(violation.violator).getSimpleName(),
+                    violation.getMessage(),
+                    Color.BLACK, remainingMillisInGame.get(Color.BLACK),
+                    Color.WHITE, remainingMillisInGame.get(Color.WHITE));
+        }
+        
+        int black = (int) Point.stream().map(board::colorAt).filter(c -> c == Color.BLACK).count();
+        int white = (int) Point.stream().map(board::colorAt).filter(c -> c == Color.WHITE).count();
+        return String.format("%s %s:%d（残り %d ms）, %s:%d（残り %d ms）",
+                winner == null ? "引き分けです。" : String.format("%s:%s の勝ちです。",
+                        winner, gameCondition.playerClasses.get(winner).getSimpleName()),
+                Color.BLACK, black, remainingMillisInGame.get(Color.BLACK),
+                Color.WHITE, white, remainingMillisInGame.get(Color.WHITE));
     }
 }
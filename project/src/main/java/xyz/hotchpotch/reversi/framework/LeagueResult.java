@@ -1,12 +1,15 @@
 package xyz.hotchpotch.reversi.framework;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import xyz.hotchpotch.reversi.framework.League.Pair;
 import xyz.hotchpotch.reversi.framework.Match.Entrant;
+import xyz.hotchpotch.reversi.framework.Ratings.Rating;
 
 /**
  * リーグの結果を表す不変クラスです。<br>
@@ -61,6 +64,14 @@ public class LeagueResult implements Result<League> {
     /** ペアごとの対戦成績が格納された {@code Map}（{@code Pair#idxA} から見た成績） */
     public final Map<Pair, ResultCount> counts;
     
+    /**
+     * 各プレーヤーのレーティングが、リーグ参加プレーヤーのリストと同じ順に格納された {@code List}
+     * 
+     * @see Ratings
+     * @since 2.2.0
+     */
+    public final List<Rating> ratings;
+    
     private final String description;
     
     private LeagueResult(LeagueCondition leagueCondition, Map<Pair, MatchResult> matchResults) {
@@ -71,10 +82,12 @@ public class LeagueResult implements Result<League> {
         
         Map<Pair, ResultCount> counts = new HashMap<>();
         int num = leagueCondition.playerClasses.size();
+        Ratings ratings = Ratings.of(num);
         
         for (int idxA = 0; idxA < num - 1; idxA++) {
             for (int idxB = idxA + 1; idxB < num; idxB++) {
                 MatchResult matchResult = matchResults.get(Pair.of(idxA, idxB));
+                ratings.add(idxA, idxB, matchResult);
                 
                 for (Entrant entrant : Entrant.values()) {
                     ResultCount count = matchResult.resultCounts.get(entrant);
@@ -83,6 +96,7 @@ public class LeagueResult implements Result<League> {
             }
         }
         this.counts = Collections.unmodifiableMap(counts);
+        this.ratings = ratings.ratings();
         
         // これ以降、表示用文字列の組み立て。
         // ↓↓↓ 文字列イメージ ↓↓↓
@@ -95,6 +109,11 @@ public class LeagueResult implements Result<League> {
         //   [1]     -/  -/  -     2/  0/  8     5/  0/  5        7/   0/  13
         //   [2]     8/  0/  2     -/  -/  -     1/  0/  9        9/   0/  11
         //   [3]     5/  0/  5     9/  0/  1     -/  -/  -       14/   0/   6
+        // 
+        // ＜レーティング（95% 信頼区間）＞
+        //    1. [3]    +85.2 ± 160.3
+        //    2. [2]     +2.1 ± 158.7
+        //    3. [1]    -87.3 ± 161.0
         
         StringBuilder str = new StringBuilder();
         for (int i = 0; i < num; i++) {
@@ -124,6 +143,17 @@ public class LeagueResult implements Result<League> {
             str.append(String.format("     %4d/%4d/%4d", total.win, total.draw, total.lose)).append(BR);
         }
         
+        str.append(BR);
+        str.append("＜レーティング（95% 信頼区間）＞").append(BR);
+        Rating[] ranking = this.ratings.stream()
+                .sorted(Comparator.comparingDouble((Rating r) -> r.elo).reversed())
+                .toArray(Rating[]::new);
+        for (int rank = 0; rank < ranking.length; rank++) {
+            str.append(String.format("%5s %-6s %8.1f ± %.1f",
+                    (rank + 1) + ".", "[" + (ranking[rank].idx + 1) + "]", ranking[rank].elo, ranking[rank].margin))
+                    .append(BR);
+        }
+        
         description = str.toString();
     }
     
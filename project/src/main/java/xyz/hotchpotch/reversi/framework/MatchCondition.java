@@ -29,6 +29,13 @@ public class MatchCondition implements Condition<Match>, Serializable {
     /*package*/ static final String KEY_TIMES = "times";
     /*package*/ static final String KEY_PRINT_LEVEL = "print.level";
     /*package*/ static final String KEY_AUTO = "auto";
+    /*package*/ static final String KEY_SPRT_ELO0 = "sprt.elo0";
+    /*package*/ static final String KEY_SPRT_ELO1 = "sprt.elo1";
+    /*package*/ static final String KEY_SPRT_ALPHA = "sprt.alpha";
+    /*package*/ static final String KEY_SPRT_BETA = "sprt.beta";
+    
+    /** 逐次確率比検定の過誤の確率のデフォルト値 */
+    private static final double DEFAULT_SPRT_ERROR = 0.05;
     
     private static final long serialVersionUID = 1L;
     
@@ -151,6 +158,17 @@ public class MatchCondition implements Condition<Match>, Serializable {
      *   <tr><td>{@code givenMillisInGame}</td><td>ゲーム全体での持ち時間（ミリ秒）</td><td>{@code 15000}</td></tr>
      *   <tr><td>{@code times}</td><td>対戦回数</td><td>{@code 10}</td></tr>
      * </table>
+     * また、次の任意パラメータを含むことができます。
+     * {@code sprt.elo0}、{@code sprt.elo1} の両方を指定すると、逐次確率比検定によりマッチを打ち切ります（{@link Sprt} を参照）。
+     * この場合、{@code times} は対戦回数の上限となります。<br>
+     * <table border="1">
+     *   <caption>任意パラメータ</caption>
+     *   <tr><th>パラメータ名</th><th>内容</th><th>デフォルト値</th></tr>
+     *   <tr><td>{@code sprt.elo0}</td><td>帰無仮説のレーティング差</td><td>（なし）</td></tr>
+     *   <tr><td>{@code sprt.elo1}</td><td>対立仮説のレーティング差</td><td>（なし）</td></tr>
+     *   <tr><td>{@code sprt.alpha}</td><td>第一種の過誤の確率</td><td>{@code 0.05}</td></tr>
+     *   <tr><td>{@code sprt.beta}</td><td>第二種の過誤の確率</td><td>{@code 0.05}</td></tr>
+     * </table>
      * 
      * @param params パラメータが格納された {@code Map}
      * @return マッチ実施条件
@@ -191,9 +209,16 @@ public class MatchCondition implements Condition<Match>, Serializable {
     /** ゲーム全体での持ち時間（ミリ秒） */
     public transient final long givenMillisInGame;
     
-    /** 対戦回数 */
+    /** 対戦回数（{@link #sprt} が指定されている場合は対戦回数の上限） */
     public transient final int times;
     
+    /**
+     * マッチを打ち切るための逐次確率比検定の設定（指定されていない場合は {@code null}）
+     * 
+     * @since 2.2.0
+     */
+    public transient final Sprt sprt;
+    
     /** ゲーム実施条件が格納された {@code Map} */
     public transient final Map<Entrant, GameCondition> gameConditions;
     
@@ -223,6 +248,16 @@ public class MatchCondition implements Condition<Match>, Serializable {
         this.times = times;
         this.params = Collections.unmodifiableMap(params);
         
+        if (params.containsKey(KEY_SPRT_ELO0) || params.containsKey(KEY_SPRT_ELO1)) {
+            sprt = Sprt.of(
+                    ConditionUtil.getDoubleValue(params, KEY_SPRT_ELO0),
+                    ConditionUtil.getDoubleValue(params, KEY_SPRT_ELO1),
+                    ConditionUtil.getDoubleValue(params, KEY_SPRT_ALPHA, DEFAULT_SPRT_ERROR),
+                    ConditionUtil.getDoubleValue(params, KEY_SPRT_BETA, DEFAULT_SPRT_ERROR));
+        } else {
+            sprt = null;
+        }
+        
         Map<String, String> gameParams = new HashMap<>(params);
         
         if (!gameParams.containsKey(KEY_PRINT_LEVEL)) {
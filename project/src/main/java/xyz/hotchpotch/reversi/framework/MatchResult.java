@@ -20,6 +20,24 @@ public class MatchResult implements Result<Match> {
     
     // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
+    /**
+     * マッチが終了した理由を表す列挙型です。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static enum StopReason {
+        
+        /** 対戦回数のゲームをすべて実施しました。 */
+        TIMES_REACHED,
+        
+        /** 逐次確率比検定により帰無仮説 H0 を採択し、マッチを打ち切りました。 */
+        H0_ACCEPTED,
+        
+        /** 逐次確率比検定により対立仮説 H1 を採択し、マッチを打ち切りました。 */
+        H1_ACCEPTED;
+    }
+    
     /**
      * マッチ実施条件と個々のゲーム結果からマッチ結果を生成します。<br>
      * 
@@ -30,24 +48,60 @@ public class MatchResult implements Result<Match> {
      * @throws IllegalArgumentException {@code gameResults} の内容が不正な場合
      */
     public static MatchResult of(MatchCondition matchCondition, Map<Entrant, List<GameResult>> gameResults) {
+        return of(matchCondition, gameResults, StopReason.TIMES_REACHED, Collections.emptyList());
+    }
+    
+    /**
+     * マッチ実施条件と個々のゲーム結果、マッチが終了した理由、対数尤度比の推移からマッチ結果を生成します。<br>
+     * 
+     * @param matchCondition マッチ実施条件
+     * @param gameResults ゲーム実施条件A, Bそれぞれにおけるゲーム結果のリストが格納された {@code Map}
+     * @param stopReason マッチが終了した理由
+     * @param llrs 対戦順の各ゲームの終了時点での対数尤度比のリスト（逐次確率比検定を行わなかった場合は空のリスト）
+     * @return マッチ結果
+     * @throws NullPointerException {@code matchCondition}、{@code gameResults}、{@code stopReason}、{@code llrs}
+     *                              のいずれかが {@code null} の場合や、{@code llrs} が {@code null} 要素を含む場合
+     * @throws IllegalArgumentException {@code gameResults} の内容が不正な場合や、
+     *                                  {@code llrs} の要素数がゲーム結果の数と一致せず、かつ空でもない場合
+     * @since 2.2.0
+     */
+    public static MatchResult of(
+            MatchCondition matchCondition,
+            Map<Entrant, List<GameResult>> gameResults,
+            StopReason stopReason,
+            List<Double> llrs) {
+            
         Objects.requireNonNull(matchCondition);
         Objects.requireNonNull(gameResults);
+        Objects.requireNonNull(stopReason);
+        Objects.requireNonNull(llrs);
         
         if (!gameResults.containsKey(Entrant.A) || !gameResults.containsKey(Entrant.B)) {
             throw new IllegalArgumentException(String.format(
                     "ゲーム結果が格納されていません。contains key? A:%b, B:%b",
                     gameResults.containsKey(Entrant.A), gameResults.containsKey(Entrant.B)));
         }
-        if (gameResults.get(Entrant.A).size() + gameResults.get(Entrant.B).size() != matchCondition.times) {
+        int games = gameResults.get(Entrant.A).size() + gameResults.get(Entrant.B).size();
+        // 逐次確率比検定によりマッチを打ち切った場合は、対戦回数よりも少なくてよい。
+        boolean validGames = stopReason == StopReason.TIMES_REACHED
+                ? games == matchCondition.times
+                : 0 < games && games <= matchCondition.times;
+        if (!validGames) {
             throw new IllegalArgumentException(String.format(
-                    "ゲーム結果の数が不正です。times=%d, resultA.size=%d, resultB.size=%d",
-                    matchCondition.times, gameResults.get(Entrant.A).size(), gameResults.get(Entrant.B).size()));
+                    "ゲーム結果の数が不正です。times=%d, stopReason=%s, resultA.size=%d, resultB.size=%d",
+                    matchCondition.times, stopReason,
+                    gameResults.get(Entrant.A).size(), gameResults.get(Entrant.B).size()));
         }
+        if (!llrs.isEmpty() && llrs.size() != games) {
+            throw new IllegalArgumentException(String.format(
+                    "対数尤度比の数が不正です。games=%d, llrs.size=%d", games, llrs.size()));
+        }
+        llrs.forEach(Objects::requireNonNull);
         
         Map<Entrant, List<GameResult>> copy = new EnumMap<>(Entrant.class);
         copy.put(Entrant.A, new ArrayList<>(gameResults.get(Entrant.A)));
         copy.put(Entrant.B, new ArrayList<>(gameResults.get(Entrant.B)));
-        return new MatchResult(matchCondition, copy);
+        return new MatchResult(matchCondition, copy, stopReason, new ArrayList<>(llrs));
     }
     
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
@@ -64,16 +118,40 @@ public class MatchResult implements Result<Match> {
     /** プレーヤーA, Bそれぞれの対戦成績が格納された {@code Map} */
     public final Map<Entrant, ResultCount> resultCounts;
     
+    /**
+     * マッチが終了した理由
+     * 
+     * @since 2.2.0
+     */
+    public final StopReason stopReason;
+    
+    /**
+     * 対戦順の各ゲームの終了時点での、プレーヤーAから見た対数尤度比の推移（逐次確率比検定を行わなかった場合は空のリスト）
+     * 
+     * @see Sprt#llr(int, int, int)
+     * @since 2.2.0
+     */
+    public final List<Double> llrs;
+    
     private final String description;
     
-    private MatchResult(MatchCondition matchCondition, Map<Entrant, List<GameResult>> gameResults) {
+    private MatchResult(
+            MatchCondition matchCondition,
+            Map<Entrant, List<GameResult>> gameResults,
+            StopReason stopReason,
+            List<Double> llrs) {
+            
         assert matchCondition != null;
         assert gameResults != null;
         assert gameResults.containsKey(Entrant.A);
         assert gameResults.containsKey(Entrant.B);
-        assert gameResults.get(Entrant.A).size() + gameResults.get(Entrant.B).size() == matchCondition.times;
+        assert stopReason != null;
+        assert llrs != null;
         
+        int games = gameResults.get(Entrant.A).size() + gameResults.get(Entrant.B).size();
         this.matchCondition = matchCondition;
+        this.stopReason = stopReason;
+        this.llrs = Collections.unmodifiableList(llrs);
         
         Map<Entrant, ResultCount> resultCounts = new EnumMap<>(Entrant.class);
         for (Entrant entrant : Entrant.values()) {
@@ -93,7 +171,7 @@ public class MatchResult implements Result<Match> {
         
         ResultCount countA = resultCounts.get(Entrant.A);
         ResultCount countB = resultCounts.get(Entrant.B);
-        assert countA.win + countA.draw + countA.lose == matchCondition.times;
+        assert countA.win + countA.draw + countA.lose == games;
         assert countA.win == countB.lose;
         assert countA.lose == countB.win;
         assert countA.draw == countB.draw;
@@ -110,7 +188,9 @@ public class MatchResult implements Result<Match> {
                 Entrant.A, matchCondition.playerClasses.get(Entrant.A).getSimpleName(),
                 Entrant.B, matchCondition.playerClasses.get(Entrant.B).getSimpleName(),
                 winner == null ? "引き分けです。" : winner + "の勝ちです。",
-                Entrant.A, countA.win, Entrant.B, countA.lose, countA.draw);
+                Entrant.A, countA.win, Entrant.B, countA.lose, countA.draw)
+                + (llrs.isEmpty() ? "" : String.format("\tSPRT:%s (%d 局, LLR=%.3f) ",
+                        stopReason, games, llrs.get(llrs.size() - 1)));
     }
     
     /**
@@ -0,0 +1,103 @@
+package xyz.hotchpotch.reversi.framework;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import xyz.hotchpotch.reversi.core.Move;
+
+/**
+ * ゲーム中の一手について、選択された手とその思考に要した時間を表す不変クラスです。<br>
+ * <br>
+ * {@link #elapsedNanos} は思考の開始から手が返されるまでの実時間、
+ * {@link #cpuNanos} はその間に思考スレッドが実際に消費した CPU 時間です。
+ * ゲームを並行して実行している場合などには、実時間に比べて CPU 時間が極端に短いことがあります。
+ * この場合、プレーヤーの思考が遅かったのではなく、思考スレッドが CPU を割り当てられずに待たされていたことを意味します。<br>
+ * {@link #nodes} は、プレーヤーが {@link SearchContext#addNodes(long)} で報告した探索ノード数の合計です。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class MoveRecord {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** CPU 時間を計測できなかったことを表す値 */
+    public static final long UNMEASURED = -1L;
+    
+    /**
+     * 一手の記録を生成します。<br>
+     * 
+     * @param move 選択された手
+     * @param elapsedNanos 思考に要した実時間（ナノ秒）
+     * @param cpuNanos 思考スレッドが消費した CPU 時間（ナノ秒）。計測できなかった場合は {@link #UNMEASURED}
+     * @return 一手の記録
+     * @throws NullPointerException {@code move} が {@code null} の場合
+     * @throws IllegalArgumentException {@code elapsedNanos} が負の場合、
+     *                                  または {@code cpuNanos} が負でかつ {@link #UNMEASURED} でない場合
+     */
+    public static MoveRecord of(Move move, long elapsedNanos, long cpuNanos) {
+        return of(move, elapsedNanos, cpuNanos, 0);
+    }
+    
+    /**
+     * 探索ノード数を含む一手の記録を生成します。<br>
+     * 
+     * @param move 選択された手
+     * @param elapsedNanos 思考に要した実時間（ナノ秒）
+     * @param cpuNanos 思考スレッドが消費した CPU 時間（ナノ秒）。計測できなかった場合は {@link #UNMEASURED}
+     * @param nodes プレーヤーが報告した探索ノード数
+     * @return 一手の記録
+     * @throws NullPointerException {@code move} が {@code null} の場合
+     * @throws IllegalArgumentException {@code elapsedNanos}、{@code nodes} のいずれかが負の場合、
+     *                                  または {@code cpuNanos} が負でかつ {@link #UNMEASURED} でない場合
+     */
+    public static MoveRecord of(Move move, long elapsedNanos, long cpuNanos, long nodes) {
+        Objects.requireNonNull(move);
+        if (elapsedNanos < 0 || nodes < 0) {
+            throw new IllegalArgumentException(String.format("elapsedNanos=%d, nodes=%d", elapsedNanos, nodes));
+        }
+        if (cpuNanos < 0 && cpuNanos != UNMEASURED) {
+            throw new IllegalArgumentException("cpuNanos=" + cpuNanos);
+        }
+        return new MoveRecord(move, elapsedNanos, cpuNanos, nodes);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 選択された手 */
+    public final Move move;
+    
+    /** 思考に要した実時間（ナノ秒） */
+    public final long elapsedNanos;
+    
+    /** 思考スレッドが消費した CPU 時間（ナノ秒）。計測できなかった場合は {@link #UNMEASURED} */
+    public final long cpuNanos;
+    
+    /** プレーヤーが報告した探索ノード数 */
+    public final long nodes;
+    
+    private MoveRecord(Move move, long elapsedNanos, long cpuNanos, long nodes) {
+        assert move != null;
+        assert 0 <= elapsedNanos;
+        assert 0 <= nodes;
+        
+        this.move = move;
+        this.elapsedNanos = elapsedNanos;
+        this.cpuNanos = cpuNanos;
+        this.nodes = nodes;
+    }
+    
+    /**
+     * この記録の文字列表現を返します。<br>
+     * 
+     * @return この記録の文字列表現
+     */
+    @Override
+    public String toString() {
+        return String.format("%s（%d ミリ秒経過、CPU 時間 %s、%d ノード）",
+                move,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                cpuNanos == UNMEASURED ? "不明" : TimeUnit.NANOSECONDS.toMillis(cpuNanos) + " ミリ秒",
+                nodes);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Move;
 import xyz.hotchpotch.reversi.core.Point;
 
 /**
@@ -21,15 +22,21 @@ import xyz.hotchpotch.reversi.core.Point;
  * ゲーム実行フレームワークから {@code Player} 実装クラスに伝えられます。
  * {@code Player} 実装クラスはこれらの情報を自身の戦略に役立ててもよいですし、単に無視しても構いません。<br>
  * <br>
+ * ゲームが始まると、ゲーム実行フレームワークは {@link #notifyOfGameStart(Board)} を呼び出します。<br>
+ * <br>
  * このプレーヤーの番になるたびに、ゲーム実行フレームワークは {@link #decide(Board, Color, long, long)} を呼び出します。<br>
  * {@code Player} 実装クラスは打つ手を返さなければなりません。
  * 打てる手がない場合は、パスを宣言しなければなりません。<br>
  * ルール違反の手を指定したり持ち時間をオーバーしたりした場合は、その時点で負けとなります。<br>
  * <br>
+ * 黒白いずれかの手がリバーシ盤に適用されるたびに、ゲーム実行フレームワークは {@link #notifyOfMove(Move)} を呼び出します。<br>
+ * {@code Player} 実装クラスは、これを利用して探索木等の内部状態を差分で更新してもよいですし、単に無視しても構いません。<br>
+ * <br>
  * ゲームが終了すると、ゲーム実行フレームワークは {@link #notifyOfResult(GameResult)} を呼び出します。<br>
  * {@code Player} 実装クラスは、ゲーム結果を記録して今後の戦略に役立ててもよいですし、単に無視しても構いません。<br>
  * <br>
- * ゲームの間中、同じプレーヤーインスタンスが利用され、ゲームの終了とともに破棄されます。<br>
+ * ゲームの間中、同じプレーヤーインスタンスが利用され、ゲームの終了とともに破棄されます。
+ * ただし、{@link ReusablePlayer} を実装したプレーヤーのインスタンスは、マッチ内の以降のゲームで再利用されることがあります。<br>
  * ゲーム実行フレームワークがひとつの {@code Player} インスタンスを複数のスレッドから操作することはありません。<br>
  * 
  * @since 2.0.0
@@ -102,6 +109,64 @@ public interface Player {
      */
     public Point decide(Board board, Color color, long givenMillisPerTurn, long remainingMillisInGame);
     
+    /**
+     * プレーヤーが自身の手を指定するためのメソッドです。<br>
+     * ゲーム実行フレームワークは {@link #decide(Board, Color, long, long)} の代わりにこのメソッドを呼び出します。<br>
+     * {@code Player} 実装クラスは、このメソッドをオーバーライドすることにより、
+     * 思考中の暫定的な最善手を {@code context} を通してゲーム実行フレームワークに伝えることができます。<br>
+     * <br>
+     * デフォルト実装においては、{@code context} を無視して {@link #decide(Board, Color, long, long)} を呼び出します。<br>
+     * 
+     * @param board 現在のリバーシ盤（このリバーシ盤に対する更新操作は行えません）
+     * @param color このプレーヤーの石の色（同じゲーム中、毎回同じ値が渡されます）
+     * @param givenMillisPerTurn 一手ごとの制限時間（ミリ秒）（同じゲーム中、毎回同じ値が渡されます）
+     * @param remainingMillisInGame ゲーム内での残り持ち時間（ミリ秒）（自身の消費に応じて徐々に減っていきます）
+     * @param context この一手の思考の間、ゲーム実行フレームワークと共有される情報
+     * @return 石を打つ位置（パスの場合は {@code null}）
+     * @see SearchContext
+     * @since 2.2.0
+     */
+    public default Point decide(
+            Board board,
+            Color color,
+            long givenMillisPerTurn,
+            long remainingMillisInGame,
+            SearchContext context) {
+            
+        return decide(board, color, givenMillisPerTurn, remainingMillisInGame);
+    }
+    
+    /**
+     * ゲーム実行フレームワークがゲームの開始をプレーヤーに通知するためのメソッドです。<br>
+     * ゲーム実行フレームワークは、最初の {@link #decide(Board, Color, long, long)} 呼び出しよりも前に、
+     * 黒白両方のプレーヤーに対してこのメソッドを呼び出します。<br>
+     * このメソッドの実行時間は持ち時間に算入されませんが、速やかに処理を終えるようにしてください。
+     * 実行時例外を発生させた場合はこのプレーヤーの負けとなります。<br>
+     * <br>
+     * デフォルト実装においては、何も行いません。<br>
+     * 
+     * @param board ゲーム開始時のリバーシ盤（このリバーシ盤に対する更新操作は行えません）
+     * @since 2.2.0
+     */
+    public default void notifyOfGameStart(Board board) {
+    }
+    
+    /**
+     * ゲーム実行フレームワークがリバーシ盤に適用された手をプレーヤーに通知するためのメソッドです。<br>
+     * 自身の手か相手の手か、また石を置く手かパスかを問わず、手がリバーシ盤に適用されるたびに、
+     * ゲーム実行フレームワークは黒白両方のプレーヤーに対してこのメソッドを呼び出します。<br>
+     * {@code Player} 実装クラスは、このメソッドを利用して探索木のルートやハッシュ値等の内部状態を差分で更新することができます。<br>
+     * このメソッドの実行時間は持ち時間に算入されませんが、速やかに処理を終えるようにしてください。
+     * 実行時例外を発生させた場合はこのプレーヤーの負けとなります。<br>
+     * <br>
+     * デフォルト実装においては、何も行いません。<br>
+     * 
+     * @param move リバーシ盤に適用された手
+     * @since 2.2.0
+     */
+    public default void notifyOfMove(Move move) {
+    }
+    
     /**
      * ゲーム実行フレームワークがゲーム結果をプレーヤーに通知するためのメソッドです。<br>
      * ゲームが正常に終了したかどちらかのプレーヤーのルール違反により終了したかを問わず、
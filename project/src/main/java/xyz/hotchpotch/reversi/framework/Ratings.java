@@ -0,0 +1,217 @@
+package xyz.hotchpotch.reversi.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import xyz.hotchpotch.reversi.framework.Match.Entrant;
+import xyz.hotchpotch.reversi.framework.Result.ResultCount;
+
+/**
+ * リーグ参加プレーヤーの対戦成績から、Bradley-Terry モデルに基づくレーティング（Elo）を求めるクラスです。<br>
+ * <br>
+ * プレーヤー i の強さを γ<sub>i</sub> とし、プレーヤー i がプレーヤー j に勝つ確率を γ<sub>i</sub> / (γ<sub>i</sub> + γ<sub>j</sub>) とするモデルを、
+ * MM アルゴリズム（Hunter, 2004）による反復計算で最尤推定します。レーティングは 400 log<sub>10</sub> γ<sub>i</sub> とし、
+ * 全プレーヤーの平均が {@code 0} となるように平行移動します。引き分けは双方の 0.5 勝として扱います。<br>
+ * 全勝や全敗のプレーヤーがいても推定値が発散しないよう、各プレーヤーはレーティング 0 の仮想的な相手と
+ * {@value #PRIOR_GAMES} ゲーム引き分けたものとして扱います。<br>
+ * 信頼区間は、各プレーヤーのレーティングに対するフィッシャー情報量から、他のプレーヤーのレーティングを既知とみなして近似的に求めます。<br>
+ * <br>
+ * {@link #add(int, int, ResultCount)} によりマッチ結果を追加するたびに、{@link #ratings()} で最新のレーティングを得ることができます。
+ * 反復計算は前回の推定値から開始するため、マッチ結果をひとつ追加した後の再計算は、通常は少ない反復回数で収束します。<br>
+ * このクラスはスレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class Ratings {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * プレーヤーひとりのレーティングを表す不変クラスです。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    public static final class Rating {
+        
+        /** リーグ参加プレーヤーのリストにおける、プレーヤーのインデックス */
+        public final int idx;
+        
+        /** レーティング（全プレーヤーの平均を {@code 0} とする Elo） */
+        public final double elo;
+        
+        /** 95% 信頼区間の半幅（信頼区間は {@code elo ± margin}） */
+        public final double margin;
+        
+        private Rating(int idx, double elo, double margin) {
+            this.idx = idx;
+            this.elo = elo;
+            this.margin = margin;
+        }
+        
+        /**
+         * このレーティングの文字列表現を返します。<br>
+         * 
+         * @return このレーティングの文字列表現
+         */
+        @Override
+        public String toString() {
+            return String.format("%+.1f ± %.1f", elo, margin);
+        }
+    }
+    
+    /** 各プレーヤーが、レーティング 0 の仮想的な相手と引き分けたものとして扱うゲーム数 */
+    public static final int PRIOR_GAMES = 2;
+    
+    /** 反復計算を打ち切る、log γ の変化量の閾値（レーティングに換算して 0.001 程度） */
+    private static final double TOLERANCE = 2.5e-6;
+    
+    /** 反復計算の最大回数 */
+    private static final int MAX_ITERATIONS = 100000;
+    
+    /** 95% 信頼区間を求めるための、標準正規分布の上側 2.5% 点 */
+    private static final double Z_95 = 1.959964;
+    
+    /** log γ からレーティングへの換算係数 */
+    private static final double ELO_PER_LOG = 400 / Math.log(10);
+    
+    /**
+     * 指定された人数のプレーヤーのレーティングを求める、空の {@code Ratings} を生成します。<br>
+     * 
+     * @param players プレーヤーの人数
+     * @return 新しい {@code Ratings}
+     * @throws IllegalArgumentException {@code players} が正の整数でない場合
+     */
+    public static Ratings of(int players) {
+        if (players <= 0) {
+            throw new IllegalArgumentException("players=" + players);
+        }
+        return new Ratings(players);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final int players;
+    
+    /** wins[i][j]：プレーヤー i のプレーヤー j に対する勝ち数（引き分けは 0.5 勝） */
+    private final double[][] wins;
+    
+    /** 前回の推定値（log γ）。次回の反復計算の初期値とする */
+    private final double[] logGammas;
+    
+    private Ratings(int players) {
+        assert 0 < players;
+        
+        this.players = players;
+        wins = new double[players][players];
+        logGammas = new double[players];
+    }
+    
+    /**
+     * マッチ結果を追加します。<br>
+     * 
+     * @param idxA リーグ参加プレーヤーのリストにおける、プレーヤーAのインデックス
+     * @param idxB リーグ参加プレーヤーのリストにおける、プレーヤーBのインデックス
+     * @param countOfA プレーヤーAから見た対戦成績
+     * @throws NullPointerException {@code countOfA} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code idxA}、{@code idxB} のいずれかが範囲外の場合
+     * @throws IllegalArgumentException {@code idxA} と {@code idxB} が等しい場合
+     */
+    public synchronized void add(int idxA, int idxB, ResultCount countOfA) {
+        Objects.requireNonNull(countOfA);
+        if (idxA < 0 || players <= idxA || idxB < 0 || players <= idxB) {
+            throw new IndexOutOfBoundsException(String.format("idxA=%d, idxB=%d, players=%d", idxA, idxB, players));
+        }
+        if (idxA == idxB) {
+            throw new IllegalArgumentException(String.format("idxA=%d, idxB=%d", idxA, idxB));
+        }
+        
+        wins[idxA][idxB] += countOfA.win + 0.5 * countOfA.draw;
+        wins[idxB][idxA] += countOfA.lose + 0.5 * countOfA.draw;
+    }
+    
+    /**
+     * マッチ結果を追加します。<br>
+     * 
+     * @param idxA リーグ参加プレーヤーのリストにおける、プレーヤーAのインデックス
+     * @param idxB リーグ参加プレーヤーのリストにおける、プレーヤーBのインデックス
+     * @param matchResult マッチ結果
+     * @throws NullPointerException {@code matchResult} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code idxA}、{@code idxB} のいずれかが範囲外の場合
+     * @throws IllegalArgumentException {@code idxA} と {@code idxB} が等しい場合
+     */
+    public void add(int idxA, int idxB, MatchResult matchResult) {
+        Objects.requireNonNull(matchResult);
+        add(idxA, idxB, matchResult.resultCounts.get(Entrant.A));
+    }
+    
+    /**
+     * これまでに追加されたマッチ結果から、各プレーヤーのレーティングを求めます。<br>
+     * 
+     * @return 各プレーヤーのレーティングが、リーグ参加プレーヤーのリストと同じ順に格納された {@code List}
+     */
+    public synchronized List<Rating> ratings() {
+        fit();
+        
+        // 仮想的な相手のレーティングを 0 として推定した値を、全プレーヤーの平均が 0 となるように平行移動する。
+        double mean = Arrays.stream(logGammas).average().orElse(0);
+        
+        List<Rating> ratings = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            double gamma = Math.exp(logGammas[i]);
+            
+            // 仮想的な相手との引き分けも情報量に含める。
+            double p0 = gamma / (gamma + 1);
+            double information = PRIOR_GAMES * p0 * (1 - p0);
+            for (int j = 0; j < players; j++) {
+                double games = wins[i][j] + wins[j][i];
+                if (0 < games) {
+                    double p = gamma / (gamma + Math.exp(logGammas[j]));
+                    information += games * p * (1 - p);
+                }
+            }
+            ratings.add(new Rating(
+                    i,
+                    ELO_PER_LOG * (logGammas[i] - mean),
+                    ELO_PER_LOG * Z_95 / Math.sqrt(information)));
+        }
+        return Collections.unmodifiableList(ratings);
+    }
+    
+    /**
+     * MM アルゴリズムにより、前回の推定値を初期値として log γ を推定する。<br>
+     */
+    private void fit() {
+        double[] gammas = Arrays.stream(logGammas).map(Math::exp).toArray();
+        
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double maxDelta = 0;
+            
+            for (int i = 0; i < players; i++) {
+                // 仮想的な相手（γ = 1）との引き分けを加える。
+                double w = 0.5 * PRIOR_GAMES;
+                double denominator = PRIOR_GAMES / (gammas[i] + 1);
+                for (int j = 0; j < players; j++) {
+                    double games = wins[i][j] + wins[j][i];
+                    if (0 < games) {
+                        w += wins[i][j];
+                        denominator += games / (gammas[i] + gammas[j]);
+                    }
+                }
+                double next = w / denominator;
+                maxDelta = Double.max(maxDelta, Math.abs(Math.log(next / gammas[i])));
+                gammas[i] = next;
+            }
+            if (maxDelta < TOLERANCE) {
+                break;
+            }
+        }
+        for (int i = 0; i < players; i++) {
+            logGammas[i] = Math.log(gammas[i]);
+        }
+    }
+}
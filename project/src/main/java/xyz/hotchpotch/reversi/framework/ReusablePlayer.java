@@ -0,0 +1,39 @@
+package xyz.hotchpotch.reversi.framework;
+
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+
+/**
+ * 複数のゲームにわたってインスタンスを再利用できる {@link Player} を表します。<br>
+ * <br>
+ * 通常、ゲーム実行フレームワークはゲームごとに {@code Player} 実装クラスのインスタンスを生成し、ゲームの終了とともに破棄します。
+ * このインタフェースを実装したプレーヤーの場合、ゲーム実行フレームワークは、マッチ内で終了したゲームのインスタンスを保持しておき、
+ * 以降のゲームで {@link #reset(Color, GameCondition)} を呼び出したうえで再利用することができます。
+ * 石の色はゲームごとに入れ替わることがあります。<br>
+ * {@code Player} 実装クラスは、探索速度の実測値や置換表、評価値のキャッシュ等、ゲームをまたいで有効な情報を保持し続けることができます。
+ * 一方、ゲームに固有の状態は {@link #reset(Color, GameCondition)} で初期化しなければなりません。<br>
+ * <br>
+ * ルール違反によりゲームに負けたプレーヤーのインスタンスは、状態が不定であるため再利用されません。
+ * また、再利用される場合も、ゲーム実行フレームワークがひとつのインスタンスを複数のゲームで同時に利用することはありません。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public interface ReusablePlayer extends Player {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 次のゲームのために、このプレーヤーのゲームに固有の状態を初期化します。<br>
+     * ゲーム実行フレームワークは、インスタンスを再利用する場合に、
+     * {@link #notifyOfGameStart(Board)} よりも前にこのメソッドを呼び出します。<br>
+     * このメソッドの実行時間は持ち時間に算入されませんが、速やかに処理を終えるようにしてください。
+     * 実行時例外を発生させた場合はこのプレーヤーの負けとなります。<br>
+     * 
+     * @param color 次のゲームでのこのプレーヤーの石の色
+     * @param gameCondition 次のゲームのゲーム実施条件
+     */
+    public void reset(Color color, GameCondition gameCondition);
+}
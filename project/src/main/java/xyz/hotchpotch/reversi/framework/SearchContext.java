@@ -0,0 +1,216 @@
+package xyz.hotchpotch.reversi.framework;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.Point;
+
+/**
+ * 一手分の思考の間、{@link Player} 実装クラスとゲーム実行フレームワークとの間で共有される情報を表します。<br>
+ * <br>
+ * ゲーム実行フレームワークは、プレーヤーの番になるたびに新たな {@code SearchContext} を生成し、
+ * {@link Player#decide(Board, Color, long, long, SearchContext)} に渡します。<br>
+ * <br>
+ * {@code Player} 実装クラスは、思考中に暫定的な最善手を {@link #offer(Point)} で随時公開することができます。
+ * ゲーム実施条件の {@link GameCondition#timeUpPolicy} が {@link GameCondition.TimeUpPolicy#PROVISIONAL} の場合、
+ * 制限時間を超過したプレーヤーは負けとならず、最後に公開された暫定手を指したものとみなされます。<br>
+ * <br>
+ * ゲーム実行フレームワークは、制限時間の少し前になると {@link #abort()} により中断を要求します。
+ * {@code Player} 実装クラスは、探索の一定ノードごとに {@link #isAborted()} を確認し、
+ * 中断が要求されていれば速やかに思考を切り上げて手を返すべきです。
+ * {@link #isAborted()} は {@code volatile} 変数を読むだけなので、時刻の取得よりも低コストです。<br>
+ * <br>
+ * ゲーム実施条件で一手あたりの探索ノード数や探索深さの上限が指定された場合は、{@link #nodeBudget()}、{@link #depthBudget()} で
+ * その値を知ることができます。{@code Player} 実装クラスは、探索したノード数を {@link #addNodes(long)} で随時報告してください。
+ * 報告されたノード数の合計が上限に達すると、中断が要求されたものとみなされます。
+ * 上限が指定されている場合は、時間ではなく上限に達するまで探索することで、計算機の負荷によらない一定の強さで思考することができます。<br>
+ * <br>
+ * このクラスはスレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class SearchContext {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * 指定された色のプレーヤーのための {@code SearchContext} を生成します。<br>
+     * 制限時間は、このメソッドを呼び出した時点から起算されます。<br>
+     * 
+     * @param color 思考するプレーヤーの石の色
+     * @param timeLimitMillis この一手の制限時間（ミリ秒）
+     * @return 新たな {@code SearchContext}
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     * @throws IllegalArgumentException {@code timeLimitMillis} が負の場合
+     */
+    public static SearchContext of(Color color, long timeLimitMillis) {
+        Objects.requireNonNull(color);
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("timeLimitMillis=" + timeLimitMillis);
+        }
+        return new SearchContext(color, timeLimitMillis, 0, 0);
+    }
+    
+    /**
+     * 指定された色のプレーヤーのための、探索量の上限付きの {@code SearchContext} を生成します。<br>
+     * 制限時間は、このメソッドを呼び出した時点から起算されます。<br>
+     * 
+     * @param color 思考するプレーヤーの石の色
+     * @param timeLimitMillis この一手の制限時間（ミリ秒）
+     * @param nodeBudget この一手の探索ノード数の上限（{@code 0} の場合は上限なし）
+     * @param depthBudget この一手の探索深さの上限（{@code 0} の場合は上限なし）
+     * @return 新たな {@code SearchContext}
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     * @throws IllegalArgumentException {@code timeLimitMillis}、{@code nodeBudget}、{@code depthBudget} のいずれかが負の場合
+     */
+    public static SearchContext of(Color color, long timeLimitMillis, long nodeBudget, int depthBudget) {
+        Objects.requireNonNull(color);
+        if (timeLimitMillis < 0 || nodeBudget < 0 || depthBudget < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "timeLimitMillis=%d, nodeBudget=%d, depthBudget=%d", timeLimitMillis, nodeBudget, depthBudget));
+        }
+        return new SearchContext(color, timeLimitMillis, nodeBudget, depthBudget);
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 思考するプレーヤーの石の色 */
+    public final Color color;
+    
+    private final long deadlineNanos;
+    private final long nodeBudget;
+    private final int depthBudget;
+    private final LongAdder nodes = new LongAdder();
+    private volatile boolean aborted;
+    private volatile Move provisional;
+    
+    private SearchContext(Color color, long timeLimitMillis, long nodeBudget, int depthBudget) {
+        assert color != null;
+        assert 0 <= timeLimitMillis;
+        assert 0 <= nodeBudget;
+        assert 0 <= depthBudget;
+        
+        this.color = color;
+        // System.nanoTime はオーバーフローし得るため、期限は差分で比較する必要がある。
+        deadlineNanos = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(Long.min(timeLimitMillis, TimeUnit.DAYS.toMillis(365)));
+        this.nodeBudget = nodeBudget;
+        this.depthBudget = depthBudget;
+    }
+    
+    /**
+     * この一手の制限時間の期限を {@link System#nanoTime()} の値で返します。<br>
+     * {@code System.nanoTime()} の値はオーバーフローし得るため、
+     * 期限との比較は {@code System.nanoTime() - deadlineNanos() < 0} のように差分で行ってください。<br>
+     * 
+     * @return この一手の制限時間の期限（{@link System#nanoTime()} の値）
+     */
+    public long deadlineNanos() {
+        return deadlineNanos;
+    }
+    
+    /**
+     * この一手の制限時間の残り時間を返します。<br>
+     * 
+     * @return 制限時間の残り時間（ナノ秒）（期限を過ぎている場合は負の値）
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+    
+    /**
+     * 思考の中断を要求します。<br>
+     * 通常はゲーム実行フレームワークが呼び出しますが、{@code Player} 実装クラスが
+     * 自身の補助スレッドを止めるために呼び出しても構いません。<br>
+     */
+    public void abort() {
+        aborted = true;
+    }
+    
+    /**
+     * 思考の中断が要求されているかを返します。<br>
+     * 
+     * @return 中断が要求されている場合は {@code true}
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+    
+    /**
+     * この一手の探索ノード数の上限を返します。<br>
+     * 
+     * @return 探索ノード数の上限（上限がない場合は {@code 0}）
+     */
+    public long nodeBudget() {
+        return nodeBudget;
+    }
+    
+    /**
+     * この一手の探索深さの上限を返します。<br>
+     * 探索深さの数え方は {@code Player} 実装クラスの探索方式によりますが、
+     * 通常は現在の局面からの手数（プライ数）として扱ってください。<br>
+     * 
+     * @return 探索深さの上限（上限がない場合は {@code 0}）
+     */
+    public int depthBudget() {
+        return depthBudget;
+    }
+    
+    /**
+     * 探索ノード数または探索深さの上限が指定されているかを返します。<br>
+     * {@code true} の場合、{@code Player} 実装クラスは持ち時間の配分よりも上限を優先して探索量を決めるべきです。<br>
+     * 
+     * @return 上限が指定されている場合は {@code true}
+     */
+    public boolean hasSearchBudget() {
+        return 0 < nodeBudget || 0 < depthBudget;
+    }
+    
+    /**
+     * 探索したノード数を報告します。<br>
+     * 報告されたノード数の合計が {@link #nodeBudget()} に達すると、以降 {@link #isAborted()} は {@code true} を返します。
+     * 一ノードごとではなく、一定数ごとにまとめて報告しても構いません。
+     * 複数のスレッドから同時に呼び出しても構いません。<br>
+     * 
+     * @param count 新たに探索したノード数
+     */
+    public void addNodes(long count) {
+        nodes.add(count);
+        if (0 < nodeBudget && nodeBudget <= nodes.sum()) {
+            aborted = true;
+        }
+    }
+    
+    /**
+     * これまでに報告された探索ノード数の合計を返します。<br>
+     * 
+     * @return 探索ノード数の合計
+     */
+    public long nodes() {
+        return nodes.sum();
+    }
+    
+    /**
+     * 暫定的な最善手を公開します。<br>
+     * 既に公開されている暫定手がある場合は、新たな暫定手で置き換えます。<br>
+     * 
+     * @param point 石を打つ位置（パスの場合は {@code null}）
+     */
+    public void offer(Point point) {
+        provisional = Move.of(color, point);
+    }
+    
+    /**
+     * 最後に公開された暫定手を返します。<br>
+     * 
+     * @return 最後に公開された暫定手（まだ公開されていない場合は {@code null}）
+     */
+    public Move provisional() {
+        return provisional;
+    }
+}
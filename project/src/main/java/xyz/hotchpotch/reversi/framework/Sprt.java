@@ -0,0 +1,158 @@
+package xyz.hotchpotch.reversi.framework;
+
+import java.util.Optional;
+
+import xyz.hotchpotch.reversi.framework.MatchResult.StopReason;
+
+/**
+ * マッチを打ち切るための逐次確率比検定（SPRT）の設定を表す不変クラスです。<br>
+ * <br>
+ * プレーヤーBに対するプレーヤーAのレーティング差（Elo）について、
+ * 帰無仮説 H0：差は {@link #elo0}、対立仮説 H1：差は {@link #elo1} を検定します。
+ * ゲームが終わるたびに対数尤度比（LLR）を求め、{@link #lowerBound()} 以下となれば H0 を、
+ * {@link #upperBound()} 以上となれば H1 を採択してマッチを打ち切ります。
+ * {@link #alpha} は H0 が正しいのに H1 を採択する確率、{@link #beta} は H1 が正しいのに H0 を採択する確率の目安です。<br>
+ * <br>
+ * 対数尤度比は、勝ち・引き分け・負けをそれぞれ 1, 0.5, 0 点とした得点の平均と分散を用いて、正規分布で近似して求めます。
+ * ただし、分散が {@code 0} とならないように、また少数のゲームで早まった判定をしないように、
+ * 勝ち・引き分け・負けの回数にそれぞれ 0.5 回ずつを加えて求めます。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public final class Sprt {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 勝ち・引き分け・負けの回数にそれぞれ加える回数 */
+    private static final double PSEUDO_COUNT = 0.5;
+    
+    /**
+     * 逐次確率比検定の設定を生成します。<br>
+     * 
+     * @param elo0 帰無仮説 H0 のレーティング差
+     * @param elo1 対立仮説 H1 のレーティング差
+     * @param alpha 第一種の過誤の確率
+     * @param beta 第二種の過誤の確率
+     * @return 逐次確率比検定の設定
+     * @throws IllegalArgumentException {@code elo0}、{@code elo1} が有限の数値でないか {@code elo0 < elo1} でない場合や、
+     *                                  {@code alpha}、{@code beta} が {@code 0} より大きく {@code alpha + beta < 1} を満たす値でない場合
+     */
+    public static Sprt of(double elo0, double elo1, double alpha, double beta) {
+        if (!Double.isFinite(elo0) || !Double.isFinite(elo1) || elo1 <= elo0) {
+            throw new IllegalArgumentException(String.format("elo0 < elo1 が必要です。elo0=%f, elo1=%f", elo0, elo1));
+        }
+        if (!(0 < alpha && 0 < beta && alpha + beta < 1)) {
+            throw new IllegalArgumentException(String.format(
+                    "0 < alpha, 0 < beta, alpha + beta < 1 が必要です。alpha=%f, beta=%f", alpha, beta));
+        }
+        return new Sprt(elo0, elo1, alpha, beta);
+    }
+    
+    /**
+     * レーティング差を、期待される得点（勝ちを 1、引き分けを 0.5、負けを 0 とする）に換算する。<br>
+     * 
+     * @param elo レーティング差
+     * @return 期待される得点
+     */
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 帰無仮説 H0 のレーティング差 */
+    public final double elo0;
+    
+    /** 対立仮説 H1 のレーティング差 */
+    public final double elo1;
+    
+    /** 第一種の過誤の確率 */
+    public final double alpha;
+    
+    /** 第二種の過誤の確率 */
+    public final double beta;
+    
+    private Sprt(double elo0, double elo1, double alpha, double beta) {
+        assert elo0 < elo1;
+        assert 0 < alpha && 0 < beta && alpha + beta < 1;
+        
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+    
+    /**
+     * H0 を採択する対数尤度比の境界値を返します。<br>
+     * 
+     * @return H0 を採択する境界値（負の値）
+     */
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+    
+    /**
+     * H1 を採択する対数尤度比の境界値を返します。<br>
+     * 
+     * @return H1 を採択する境界値（正の値）
+     */
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+    
+    /**
+     * プレーヤーAの対戦成績から対数尤度比を求めます。<br>
+     * 
+     * @param win プレーヤーAの勝ち数
+     * @param draw 引き分け数
+     * @param lose プレーヤーAの負け数
+     * @return 対数尤度比
+     * @throws IllegalArgumentException {@code win}、{@code draw}、{@code lose} のいずれかが負の場合
+     */
+    public double llr(int win, int draw, int lose) {
+        if (win < 0 || draw < 0 || lose < 0) {
+            throw new IllegalArgumentException(String.format("win=%d, draw=%d, lose=%d", win, draw, lose));
+        }
+        if (win + draw + lose == 0) {
+            return 0;
+        }
+        
+        // 圧倒的に強い（弱い）プレーヤーとのマッチでも打ち切れるよう、分散が 0 にならないようにする。
+        double w = win + PSEUDO_COUNT;
+        double d = draw + PSEUDO_COUNT;
+        double l = lose + PSEUDO_COUNT;
+        double games = w + d + l;
+        double mean = (w + 0.5 * d) / games;
+        double variance = (w + 0.25 * d) / games - mean * mean;
+        double score0 = expectedScore(elo0);
+        double score1 = expectedScore(elo1);
+        return games * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+    
+    /**
+     * 対数尤度比が境界値に達したかを判定します。<br>
+     * 
+     * @param llr 対数尤度比
+     * @return 境界値に達した場合はマッチを打ち切る理由、達していない場合は空の {@code Optional}
+     */
+    public Optional<StopReason> judge(double llr) {
+        if (llr <= lowerBound()) {
+            return Optional.of(StopReason.H0_ACCEPTED);
+        }
+        if (upperBound() <= llr) {
+            return Optional.of(StopReason.H1_ACCEPTED);
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * この設定の文字列表現を返します。<br>
+     * 
+     * @return この設定の文字列表現
+     */
+    @Override
+    public String toString() {
+        return String.format("SPRT(elo0=%s, elo1=%s, alpha=%s, beta=%s)", elo0, elo1, alpha, beta);
+    }
+}
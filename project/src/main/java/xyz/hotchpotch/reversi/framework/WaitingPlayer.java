@@ -0,0 +1,17 @@
+package xyz.hotchpotch.reversi.framework;
+
+/**
+ * {@link Player} 実装クラスが、思考時間の大半を CPU を使わない待機（スリープや入出力待ち）に費やすことを表すマーカーインタフェースです。<br>
+ * 実行環境はこのインタフェースを実装するプレーヤーの思考を、多数を同時に実行しても CPU を占有しない軽量なスレッドで実行することができます。
+ * 探索等により CPU を使い続けるプレーヤーは、このインタフェースを実装するべきではありません。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public interface WaitingPlayer {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+
+}
@@ -1,14 +1,18 @@
 package xyz.hotchpotch.reversi.framework.console;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -22,11 +26,14 @@ import xyz.hotchpotch.reversi.core.Rule;
 import xyz.hotchpotch.reversi.core.StrictBoard;
 import xyz.hotchpotch.reversi.framework.Game;
 import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.GameCondition.TimeUpPolicy;
 import xyz.hotchpotch.reversi.framework.GameResult;
 import xyz.hotchpotch.reversi.framework.GoCrazyException;
 import xyz.hotchpotch.reversi.framework.IllegalMoveException;
+import xyz.hotchpotch.reversi.framework.MoveRecord;
 import xyz.hotchpotch.reversi.framework.Player;
 import xyz.hotchpotch.reversi.framework.RuleViolationException;
+import xyz.hotchpotch.reversi.framework.SearchContext;
 import xyz.hotchpotch.reversi.framework.TimeUpException;
 import xyz.hotchpotch.reversi.framework.console.ConsolePrinter.Level;
 import xyz.hotchpotch.util.console.ConsoleScanner;
@@ -49,7 +56,22 @@ public class ConsoleGame implements ConsolePlayable<Game> {
      * @throws NullPointerException {@code gameCondition} が {@code null} の場合
      */
     public static ConsoleGame of(GameCondition gameCondition) {
-        return new ConsoleGame(Objects.requireNonNull(gameCondition));
+        return new ConsoleGame(Objects.requireNonNull(gameCondition), new PlayerPool());
+    }
+    
+    /**
+     * ゲーム実施条件と、プレーヤーのインスタンスを取得するプールを指定してゲーム実行クラスを生成します。<br>
+     * マッチ内のゲームで {@link xyz.hotchpotch.reversi.framework.ReusablePlayer} のインスタンスを再利用するために用います。<br>
+     * 
+     * @param gameCondition ゲーム実施条件
+     * @param playerPool プレーヤーのインスタンスを取得するプール
+     * @return ゲーム実行クラス
+     */
+    /*package*/ static ConsoleGame of(GameCondition gameCondition, PlayerPool playerPool) {
+        assert gameCondition != null;
+        assert playerPool != null;
+        
+        return new ConsoleGame(gameCondition, playerPool);
     }
     
     /**
@@ -58,7 +80,7 @@ public class ConsoleGame implements ConsolePlayable<Game> {
      * @return ゲーム実行クラス
      */
     public static ConsoleGame arrange() {
-        return new ConsoleGame(arrangeGameCondition());
+        return new ConsoleGame(arrangeGameCondition(), new PlayerPool());
     }
     
     private static GameCondition arrangeGameCondition() {
@@ -75,22 +97,171 @@ public class ConsoleGame implements ConsolePlayable<Game> {
         return GameCondition.of(playerBlack, playerWhite, givenMillisPerTurn, givenMillisInGame, params);
     }
     
+    /** 制限時間の何ミリ秒前にプレーヤーに思考の中断を要求するかのデフォルト値 */
+    private static final long DEFAULT_ABORT_MARGIN = 20;
+    
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    
+    /**
+     * 指定されたスレッドがこれまでに消費した CPU 時間を返す。<br>
+     * 
+     * @param thread スレッド
+     * @return CPU 時間（ナノ秒）。実行環境が計測に対応していない場合や、スレッドが既に終了している場合は {@link MoveRecord#UNMEASURED}
+     */
+    private static long cpuTimeOf(Thread thread) {
+        assert thread != null;
+        
+        try {
+            long nanos = thread == Thread.currentThread()
+                    ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                    : THREAD_MX_BEAN.getThreadCpuTime(thread.getId());
+            return nanos < 0 ? MoveRecord.UNMEASURED : nanos;
+        } catch (UnsupportedOperationException e) {
+            return MoveRecord.UNMEASURED;
+        }
+    }
+    
+    /**
+     * プレーヤーのインスタンス化に失敗した原因を返す。<br>
+     * コンストラクタが例外をスローした場合は、その例外を原因とする。
+     * パラメータの誤りなどを利用者が知ることができるようにするためである。<br>
+     * 
+     * @param e インスタンス化の際にスローされた例外
+     * @return 失敗した原因を表す文字列
+     */
+    private static String causeOf(ReflectiveOperationException e) {
+        assert e != null;
+        
+        // 引数なしのコンストラクタによる再試行の例外に、最初の試行の例外が抑制された例外として追加されている。
+        for (Throwable suppressed : e.getSuppressed()) {
+            if (suppressed instanceof InvocationTargetException) {
+                return String.valueOf(suppressed.getCause());
+            }
+        }
+        if (e instanceof InvocationTargetException) {
+            return String.valueOf(e.getCause());
+        }
+        return e.getMessage();
+    }
+    
+    /**
+     * プレーヤーの一手分の思考を実行するタスク。<br>
+     * 思考スレッド上で、思考の開始を通知し、思考に消費した CPU 時間を計測する。<br>
+     */
+    private static class Decision implements Callable<Point> {
+        private final Player player;
+        private final Board board;
+        private final Color color;
+        private final long givenMillisPerTurn;
+        private final long remainingMillisInGame;
+        private final long timeLimit;
+        private final long nodeBudget;
+        private final int depthBudget;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        
+        // started のカウントダウンより後に読む値は、カウントダウンより前に書き込む。
+        private volatile SearchContext context;
+        private volatile Thread thread;
+        private volatile long cpuStart;
+        private volatile long cpuNanos;
+        private volatile boolean finished;
+        
+        private Decision(
+                Player player,
+                Board board,
+                Color color,
+                long givenMillisPerTurn,
+                long remainingMillisInGame,
+                long timeLimit,
+                long nodeBudget,
+                int depthBudget) {
+                
+            this.player = player;
+            this.board = board;
+            this.color = color;
+            this.givenMillisPerTurn = givenMillisPerTurn;
+            this.remainingMillisInGame = remainingMillisInGame;
+            this.timeLimit = timeLimit;
+            this.nodeBudget = nodeBudget;
+            this.depthBudget = depthBudget;
+        }
+        
+        @Override
+        public Point call() {
+            // 制限時間は、SearchContext を生成した時点から起算される。
+            context = SearchContext.of(color, timeLimit, nodeBudget, depthBudget);
+            thread = Thread.currentThread();
+            cpuStart = cpuTimeOf(thread);
+            started.countDown();
+            try {
+                return player.decide(board, color, givenMillisPerTurn, remainingMillisInGame, context);
+            } finally {
+                long cpuEnd = cpuTimeOf(thread);
+                cpuNanos = cpuStart == MoveRecord.UNMEASURED || cpuEnd == MoveRecord.UNMEASURED
+                        ? MoveRecord.UNMEASURED
+                        : cpuEnd - cpuStart;
+                finished = true;
+                terminated.countDown();
+            }
+        }
+        
+        /**
+         * 思考が終了するまで、指定された時間だけ待機する。<br>
+         * 
+         * @param nanos 待機する最大時間（ナノ秒）
+         * @return 思考が終了した場合は {@code true}
+         */
+        private boolean awaitTermination(long nanos) {
+            try {
+                return terminated.await(nanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        
+        /**
+         * 思考に消費した CPU 時間を返す。<br>
+         * 思考が終わっていない場合は、現時点までに消費した CPU 時間を返す。<br>
+         * 
+         * @return CPU 時間（ナノ秒）。計測できない場合は {@link MoveRecord#UNMEASURED}
+         */
+        private long cpuNanos() {
+            if (finished) {
+                return cpuNanos;
+            }
+            if (thread == null || cpuStart == MoveRecord.UNMEASURED) {
+                return MoveRecord.UNMEASURED;
+            }
+            long cpuNow = cpuTimeOf(thread);
+            return cpuNow == MoveRecord.UNMEASURED ? MoveRecord.UNMEASURED : cpuNow - cpuStart;
+        }
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     private final GameCondition gameCondition;
+    private final PlayerPool playerPool;
     private final ConsolePrinter printer;
     private final ConsoleScanner<String> waiter = ConsoleScanner.waiter();
     private final boolean auto;
+    private final long abortMargin;
+    private final Scheduler scheduler;
     
     private Map<Color, Player> players;
+    private Map<Color, ExecutorService> executors;
     private Board board;
     private Color currColor;
-    private Map<Color, Long> remainingMillisInGame;
+    private Map<Color, Long> remainingNanosInGame;
+    private List<MoveRecord> moveRecords;
     
-    private ConsoleGame(GameCondition gameCondition) {
+    private ConsoleGame(GameCondition gameCondition, PlayerPool playerPool) {
         assert gameCondition != null;
+        assert playerPool != null;
         
         this.gameCondition = gameCondition;
+        this.playerPool = playerPool;
         
         Level level;
         if (NeedsUserInput.class.isAssignableFrom(gameCondition.playerClasses.get(Color.BLACK))
@@ -106,6 +277,8 @@ public class ConsoleGame implements ConsolePlayable<Game> {
         }
         printer = ConsolePrinter.of(level);
         auto = CommonUtil.getParameter(gameCondition, "auto", Boolean::valueOf, false);
+        abortMargin = CommonUtil.getParameter(gameCondition, "abortMargin", Long::valueOf, DEFAULT_ABORT_MARGIN);
+        scheduler = CommonUtil.getParameter(gameCondition, "scheduler", Scheduler::valueOf, Scheduler.PLATFORM);
     }
     
     /**
@@ -118,27 +291,36 @@ public class ConsoleGame implements ConsolePlayable<Game> {
         printer.println(Level.GAME, "");
         printer.println(Level.GAME, "****************************************************************");
         printer.println(Level.GAME, "ゲームを開始します。");
-        printer.print(Level.GAME, gameCondition.toStringKindly());
+        printer.print(Level.GAME, gameCondition::toStringKindly);
         printer.println(Level.GAME, "****************************************************************");
         
+        // 出力をバッファリング中の場合は、利用者に見えていない出力の確認を求めることになるため、待機しない。
+        boolean waits = !auto && !ConsolePrinter.isBuffered();
+        
         GameResult gameResult;
         try {
             init();
+            notifyOfGameStart();
             
             while (Rule.isGameOngoing(board)) {
                 
                 printer.println(Level.GAME, "");
-                printer.println(Level.GAME, board.toStringKindly());
+                printer.println(Level.GAME, board::toStringKindly);
                 
-                long remainingBefore = remainingMillisInGame.get(currColor);
-                Point point = getPoint();
-                Move move = Move.of(currColor, point);
-                long remainingAfter = remainingMillisInGame.get(currColor);
+                MoveRecord moveRecord = getMove();
+                moveRecords.add(moveRecord);
+                Move move = moveRecord.move;
+                long remainingAfter = TimeUnit.NANOSECONDS.toMillis(remainingNanosInGame.get(currColor));
                 
-                printer.println(Level.GAME, String.format(
-                        "%s が選択されました。（%d ミリ秒経過、残り持ち時間 %d ミリ秒）",
-                        move, remainingBefore - remainingAfter, remainingAfter));
-                if (!auto) {
+                printer.println(Level.GAME, () -> String.format(
+                        "%s が選択されました。（%d ミリ秒経過、CPU 時間 %s、残り持ち時間 %d ミリ秒）",
+                        move,
+                        TimeUnit.NANOSECONDS.toMillis(moveRecord.elapsedNanos),
+                        moveRecord.cpuNanos == MoveRecord.UNMEASURED
+                                ? "不明"
+                                : TimeUnit.NANOSECONDS.toMillis(moveRecord.cpuNanos) + " ミリ秒",
+                        remainingAfter));
+                if (waits) {
                     waiter.get();
                 }
                 
@@ -146,12 +328,12 @@ public class ConsoleGame implements ConsolePlayable<Game> {
             }
             
             printer.println(Level.GAME, "");
-            printer.println(Level.GAME, board.toStringKindly());
-            gameResult = GameResult.of(gameCondition, board, remainingMillisInGame);
+            printer.println(Level.GAME, board::toStringKindly);
+            gameResult = GameResult.of(gameCondition, board, remainingMillisInGame(), moveRecords);
             
         } catch (RuleViolationException e) {
             printer.println(Level.GAME, "");
-            gameResult = GameResult.of(gameCondition, board, remainingMillisInGame, e);
+            gameResult = GameResult.of(gameCondition, board, remainingMillisInGame(), moveRecords, e);
         }
         
         // ゲーム結果を各プレーヤーに通知する。
@@ -164,15 +346,25 @@ public class ConsoleGame implements ConsolePlayable<Game> {
         } catch (RuntimeException e) {
         }
         
+        // ルール違反をしたプレーヤーのインスタンスは、状態が不定であるため再利用しない。
+        // 思考を終えていない可能性があるのはルール違反をしたプレーヤーのみであるため、
+        // 思考中のインスタンスが再利用されることもない。
+        RuleViolationException violation = gameResult.violation();
+        for (Color color : Color.values()) {
+            if (players.get(color) != null && (violation == null || violation.violator != color)) {
+                playerPool.release(players.get(color));
+            }
+        }
+        
         if (printer.level != Level.GAME) {
-            printer.println(Level.MATCH, board.toStringKindly());
+            printer.println(Level.MATCH, board::toStringKindly);
         }
         printer.println(Level.GAME, "****************************************************************");
         printer.println(Level.GAME, "ゲームが終了しました。");
-        printer.println(Level.MATCH, gameResult.toString());
+        printer.println(Level.MATCH, gameResult::toString);
         printer.println(Level.GAME, "****************************************************************");
         printer.println(Level.GAME, "");
-        if (!auto) {
+        if (waits) {
             waiter.get();
         }
         printer.println(Level.MATCH, "");
@@ -182,60 +374,104 @@ public class ConsoleGame implements ConsolePlayable<Game> {
     }
     
     private void init() throws RuleViolationException {
+        // インスタンス化に失敗した場合もゲーム結果を生成できるよう、プレーヤーより先にリバーシ盤と持ち時間を用意する。
+        board = StrictBoard.initializedBoard();
+        currColor = Color.BLACK;
+        
+        remainingNanosInGame = new EnumMap<>(Color.class);
+        remainingNanosInGame.put(Color.BLACK, TimeUnit.MILLISECONDS.toNanos(gameCondition.givenMillisInGame));
+        remainingNanosInGame.put(Color.WHITE, TimeUnit.MILLISECONDS.toNanos(gameCondition.givenMillisInGame));
+        moveRecords = new ArrayList<>();
+        
         players = new EnumMap<>(Color.class);
         for (Color color : Color.values()) {
             Class<? extends Player> playerClass = gameCondition.playerClasses.get(color);
             try {
-                Player player = Player.getPlayerInstance(playerClass, color, gameCondition);
+                Player player = playerPool.acquire(playerClass, color, gameCondition);
                 players.put(color, player);
             } catch (ReflectiveOperationException e) {
-                throw new GoCrazyException("インスタンス化に失敗しました。" + e.getMessage(), color, e);
+                throw new GoCrazyException("インスタンス化に失敗しました。" + causeOf(e), color, e);
+            } catch (RuntimeException e) {
+                throw new GoCrazyException("再利用のための初期化中に例外が発生しました。" + e.getMessage(), color, e);
             }
         }
         
-        board = StrictBoard.initializedBoard();
-        currColor = Color.BLACK;
-        
-        remainingMillisInGame = new EnumMap<>(Color.class);
-        remainingMillisInGame.put(Color.BLACK, gameCondition.givenMillisInGame);
-        remainingMillisInGame.put(Color.WHITE, gameCondition.givenMillisInGame);
+        // 一手ごとにスレッドを生成するコストを避けるため、ゲームを通してプレーヤーごとに同じ ExecutorService で思考させる。
+        executors = new EnumMap<>(Color.class);
+        for (Color color : Color.values()) {
+            executors.put(color, scheduler.newDecisionExecutor(
+                    gameCondition.playerClasses.get(color), color, gameCondition.threadsPerPlayer));
+        }
     }
     
     private void cleanUp() {
         // なんかVBAのコードみたいだ... orz
+        if (executors != null) {
+            executors.values().forEach(ExecutorService::shutdown);
+        }
         players = null;
+        executors = null;
         board = null;
         currColor = null;
-        remainingMillisInGame = null;
+        remainingNanosInGame = null;
+        moveRecords = null;
+    }
+    
+    private Map<Color, Long> remainingMillisInGame() {
+        Map<Color, Long> remainingMillisInGame = new EnumMap<>(Color.class);
+        remainingNanosInGame.forEach((color, nanos) -> remainingMillisInGame.put(color, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return remainingMillisInGame;
     }
     
-    private Point getPoint() throws RuleViolationException {
+    private MoveRecord getMove() throws RuleViolationException {
+        long remainingNanos = remainingNanosInGame.get(currColor);
+        long limitNanos1 = TimeUnit.MILLISECONDS.toNanos(gameCondition.givenMillisPerTurn);
+        long limitNanos3 = Long.min(limitNanos1, remainingNanos);
+        
         long timeLimit1 = gameCondition.givenMillisPerTurn;
-        long timeLimit2 = remainingMillisInGame.get(currColor);
+        long timeLimit2 = TimeUnit.NANOSECONDS.toMillis(remainingNanos);
         long timeLimit3 = Long.min(timeLimit1, timeLimit2);
         
-        Player player = players.get(currColor);
-        Board snapshot = BoardSnapshot.of(board);
-        FutureTask<Point> task = new FutureTask<>(() -> player.decide(snapshot, currColor, timeLimit1, timeLimit2));
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Decision decision = new Decision(
+                players.get(currColor), BoardSnapshot.of(board), currColor, timeLimit1, timeLimit2, timeLimit3,
+                gameCondition.nodesPerMove, gameCondition.depthPerMove);
+        FutureTask<Point> task = new FutureTask<>(decision);
+        ExecutorService executor = executors.get(currColor);
         
-        Instant start = null;
-        Instant end = null;
+        long start;
+        long elapsedNanos;
+        long cpuNanos;
         Point point = null;
-        long elapsed;
+        boolean timeUp = false;
+        
+        // 制限時間の少し前（制限時間が短い場合はその 1/10 前）に中断を要求し、
+        // 行儀の良いプレーヤーには制限時間内に手を返す猶予を与える。
+        long abortNanos = TimeUnit.MILLISECONDS.toNanos(abortMargin);
+        long abortLimit = limitNanos3 - Long.max(0, Long.min(abortNanos, limitNanos3 / 10));
         
+        // 壁時計の時刻は調整により前後し得るため、経過時間は System.nanoTime で計測する。
+        start = System.nanoTime();
         try {
-            start = Instant.now();
             executor.execute(task);
-            point = task.get(timeLimit3, TimeUnit.MILLISECONDS);
             
-        } catch (TimeoutException e) {
-            if (timeLimit2 == timeLimit3) {
-                throw new TimeUpException("ゲーム内での持ち時間が無くなりました。", currColor);
-            } else {
-                throw new TimeUpException("一手あたりの制限時間を超過しました。", currColor);
+            // 共有のスレッドプールが混み合っていると思考の開始が待たされることがあるため、
+            // 制限時間は、タスクを投入した時点ではなく思考を開始した時点から計測する。
+            // ただし、中断に応じないプレーヤーがスレッドを占有し続けてゲームが進まなくなることを避けるため、
+            // 一手の制限時間を過ぎても思考を開始できない場合は時間切れとする。
+            if (!decision.started.await(limitNanos3, TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException();
+            }
+            start = System.nanoTime();
+            try {
+                point = task.get(abortLimit, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                decision.context.abort();
+                point = task.get(limitNanos3 - abortLimit, TimeUnit.NANOSECONDS);
             }
             
+        } catch (TimeoutException e) {
+            timeUp = true;
+            
         } catch (ExecutionException e) {
             throw new GoCrazyException("思考中に例外が発生しました。" + e.getMessage(), currColor, e);
             
@@ -244,27 +480,56 @@ public class ConsoleGame implements ConsolePlayable<Game> {
             
         } finally {
             // 例外で負けの場合も残り時間を差し引く。
-            end = Instant.now();
-            elapsed = Long.min(timeLimit3, Duration.between(start, end).toMillis());
-            remainingMillisInGame.put(currColor, timeLimit2 - elapsed);
+            // ミリ秒単位に切り捨てると端数の分だけ持ち時間が目減りしなくなるため、ナノ秒単位で差し引く。
+            elapsedNanos = System.nanoTime() - start;
+            cpuNanos = decision.cpuNanos();
+            remainingNanosInGame.put(currColor, remainingNanos - Long.min(limitNanos3, elapsedNanos));
             
             // TODO: java.util.concurrent.ExecutorService 周りがよく分かってないので要お勉強
             // これで良いのか？？
             if (!task.isDone()) {
+                if (decision.context != null) {
+                    decision.context.abort();
+                }
                 task.cancel(true);
-            }
-            if (!executor.isShutdown()) {
+                
+                // 中断に応じないプレーヤーがスレッドを占有し続ける可能性があるため、
+                // このスレッドは手放し、以降の手は新しいスレッドで思考させる。
                 executor.shutdown();
+                executors.put(currColor, scheduler.newDecisionExecutor(
+                        gameCondition.playerClasses.get(currColor), currColor, gameCondition.threadsPerPlayer));
             }
         }
         
-        if (timeLimit2 <= elapsed) {
-            throw new TimeUpException("ゲーム内での持ち時間が無くなりました。", currColor);
-        } else if (timeLimit1 <= elapsed) {
-            throw new TimeUpException("一手あたりの制限時間を超過しました。", currColor);
+        long charged = Long.min(limitNanos3, elapsedNanos);
+        if (timeUp || remainingNanos <= charged || limitNanos1 <= charged) {
+            // 暫定手を採用するポリシーの場合は、思考が完了していればその手を、
+            // 完了していなければ公開済みの暫定手を採用する。
+            if (gameCondition.timeUpPolicy == TimeUpPolicy.PROVISIONAL) {
+                if (!timeUp) {
+                    return MoveRecord.of(Move.of(currColor, point), elapsedNanos, cpuNanos, decision.context.nodes());
+                }
+                Move provisional = decision.context == null ? null : decision.context.provisional();
+                if (provisional != null) {
+                    // 思考を続けるプレーヤーの暫定手を採用すると、次の手の思考やインスタンスの再利用が
+                    // 続いている思考と並行してしまうため、中断の猶予時間内に思考を終えなかった場合は負けとする。
+                    if (!decision.awaitTermination(abortNanos)) {
+                        throw new TimeUpException("制限時間を超過し、中断の要求にも応じませんでした。", currColor);
+                    }
+                    printer.println(Level.GAME, "制限時間を超過したため、暫定手を採用します。");
+                    return MoveRecord.of(provisional, elapsedNanos, cpuNanos, decision.context.nodes());
+                }
+            }
+            
+            boolean inGame = timeUp ? remainingNanos <= limitNanos1 : remainingNanos <= charged;
+            if (inGame) {
+                throw new TimeUpException("ゲーム内での持ち時間が無くなりました。", currColor);
+            } else {
+                throw new TimeUpException("一手あたりの制限時間を超過しました。", currColor);
+            }
         }
         
-        return point;
+        return MoveRecord.of(Move.of(currColor, point), elapsedNanos, cpuNanos, decision.context.nodes());
     }
     
     private void applyMove(Move move) throws RuleViolationException {
@@ -280,5 +545,29 @@ public class ConsoleGame implements ConsolePlayable<Game> {
         
         board.apply(move);
         currColor = currColor.opposite();
+        notifyOfMove(move);
+    }
+    
+    private void notifyOfGameStart() throws RuleViolationException {
+        Board snapshot = BoardSnapshot.of(board);
+        for (Color color : Color.values()) {
+            try {
+                players.get(color).notifyOfGameStart(snapshot);
+            } catch (RuntimeException e) {
+                throw new GoCrazyException("ゲーム開始の通知中に例外が発生しました。" + e.getMessage(), color, e);
+            }
+        }
+    }
+    
+    private void notifyOfMove(Move move) throws RuleViolationException {
+        assert move != null;
+        
+        for (Color color : Color.values()) {
+            try {
+                players.get(color).notifyOfMove(move);
+            } catch (RuntimeException e) {
+                throw new GoCrazyException("手の通知中に例外が発生しました。" + e.getMessage(), color, e);
+            }
+        }
     }
 }
@@ -1,9 +1,15 @@
 package xyz.hotchpotch.reversi.framework.console;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import xyz.hotchpotch.reversi.framework.League;
 import xyz.hotchpotch.reversi.framework.League.Pair;
@@ -12,11 +18,22 @@ import xyz.hotchpotch.reversi.framework.LeagueResult;
 import xyz.hotchpotch.reversi.framework.MatchCondition;
 import xyz.hotchpotch.reversi.framework.MatchResult;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.Ratings;
+import xyz.hotchpotch.reversi.framework.Ratings.Rating;
 import xyz.hotchpotch.reversi.framework.console.ConsolePrinter.Level;
 import xyz.hotchpotch.util.console.ConsoleScanner;
 
 /**
  * 標準入出力を用いたリーグ実行クラスです。<br>
+ * <br>
+ * リーグ実施条件のパラメータ {@code matchParallelism} に 2 以上の整数を指定すると、
+ * 指定された数のワーカースレッドでそれぞれの組み合わせのマッチを並行して実行します（デフォルトは 1 で、逐次実行します）。
+ * 並行して実行する場合、各マッチの出力はマッチの終了時にまとめて出力されます。
+ * また、並行して実行するマッチ同士が CPU を奪い合うため、プレーヤーが制限時間内に行える思考の量は逐次実行の場合よりも減ります。
+ * 並行数は CPU のコア数を超えない範囲で指定するべきです。<br>
+ * パラメータ {@code scheduler} に {@code VIRTUAL} を指定した場合は、マッチを仮想スレッドで実行します（{@link ConsoleMatch} を参照）。<br>
+ * <br>
+ * マッチが終了するたびにレーティング（{@link Ratings} を参照）を更新し、その時点での首位のプレーヤーを出力します。<br>
  * 
  * @since 2.0.0
  * @author nmby
@@ -34,11 +51,46 @@ public class ConsoleLeague implements ConsolePlayable<League> {
      * @throws IllegalArgumentException {@code leagueCondition.playerClasses} に {@link NeedsUserInput} 実装クラスが含まれる場合
      */
     public static ConsoleLeague of(LeagueCondition leagueCondition) {
+        return of(leagueCondition, (idxA, idxB, matchResult) -> {
+        });
+    }
+    
+    /**
+     * マッチが終了するたびに呼び出されるリスナーを表します。<br>
+     * 
+     * @since 2.2.0
+     * @author nmby
+     */
+    @FunctionalInterface
+    /*package*/ static interface MatchListener {
+        
+        /**
+         * マッチの終了を通知します。<br>
+         * マッチを並行して実行する場合は、複数のスレッドから同時に呼び出される可能性があります。<br>
+         * 
+         * @param idxA リーグ参加プレーヤーのリストにおける、プレーヤーAのインデックス
+         * @param idxB リーグ参加プレーヤーのリストにおける、プレーヤーBのインデックス
+         * @param matchResult マッチ結果
+         */
+        void matchFinished(int idxA, int idxB, MatchResult matchResult);
+    }
+    
+    /**
+     * リーグ実施条件と、マッチが終了するたびに呼び出されるリスナーを指定してリーグ実行クラスを生成します。<br>
+     * 
+     * @param leagueCondition リーグ実施条件
+     * @param matchListener マッチ結果を受け取るリスナー
+     * @return リーグ実行クラス
+     * @throws NullPointerException {@code leagueCondition}、{@code matchListener} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code leagueCondition.playerClasses} に {@link NeedsUserInput} 実装クラスが含まれる場合
+     */
+    /*package*/ static ConsoleLeague of(LeagueCondition leagueCondition, MatchListener matchListener) {
         Objects.requireNonNull(leagueCondition);
+        Objects.requireNonNull(matchListener);
         if (leagueCondition.playerClasses.stream().anyMatch(NeedsUserInput.class::isAssignableFrom)) {
             throw new IllegalArgumentException(String.format("%s 実装クラスは指定できません。", NeedsUserInput.class.getSimpleName()));
         }
-        return new ConsoleLeague(leagueCondition);
+        return new ConsoleLeague(leagueCondition, matchListener);
     }
     
     /**
@@ -47,7 +99,8 @@ public class ConsoleLeague implements ConsolePlayable<League> {
      * @return リーグ実行クラス
      */
     public static ConsoleLeague arrange() {
-        return new ConsoleLeague(arrangeLeagueCondition());
+        return new ConsoleLeague(arrangeLeagueCondition(), (idxA, idxB, matchResult) -> {
+        });
     }
     
     private static LeagueCondition arrangeLeagueCondition() {
@@ -70,12 +123,17 @@ public class ConsoleLeague implements ConsolePlayable<League> {
     
     private final LeagueCondition leagueCondition;
     private final ConsolePrinter printer;
+    private final int matchParallelism;
+    private final Scheduler scheduler;
+    private final MatchListener matchListener;
     private final ConsoleScanner<String> waiter = ConsoleScanner.waiter();
     
-    private ConsoleLeague(LeagueCondition leagueCondition) {
+    private ConsoleLeague(LeagueCondition leagueCondition, MatchListener matchListener) {
         assert leagueCondition != null;
+        assert matchListener != null;
         
         this.leagueCondition = leagueCondition;
+        this.matchListener = matchListener;
         
         Level level = CommonUtil.getParameter(
                 leagueCondition,
@@ -83,6 +141,16 @@ public class ConsoleLeague implements ConsolePlayable<League> {
                 Level::valueOf,
                 Level.LEAGUE);
         printer = ConsolePrinter.of(level);
+        matchParallelism = CommonUtil.getParameter(
+                leagueCondition,
+                "matchParallelism",
+                Integer::valueOf,
+                1);
+        scheduler = CommonUtil.getParameter(
+                leagueCondition,
+                "scheduler",
+                Scheduler::valueOf,
+                Scheduler.PLATFORM);
     }
     
     /**
@@ -95,28 +163,20 @@ public class ConsoleLeague implements ConsolePlayable<League> {
         printer.println(Level.LEAGUE, "");
         printer.println(Level.LEAGUE, "****************************************************************");
         printer.println(Level.LEAGUE, "リーグを開始します。");
-        printer.print(Level.LEAGUE, leagueCondition.toStringKindly());
+        printer.print(Level.LEAGUE, leagueCondition::toStringKindly);
         printer.println(Level.LEAGUE, "****************************************************************");
         printer.println(Level.LEAGUE, "");
         
-        Map<Pair, MatchResult> matchResults = new HashMap<>();
-        
-        int num = leagueCondition.playerClasses.size();
-        for (int idx1 = 0; idx1 < num - 1; idx1++) {
-            for (int idx2 = idx1 + 1; idx2 < num; idx2++) {
-                MatchCondition matchCondition = leagueCondition.matchConditions.get(Pair.of(idx1, idx2));
-                ConsoleMatch match = ConsoleMatch.of(matchCondition);
-                MatchResult matchResult = match.play();
-                matchResults.put(Pair.of(idx1, idx2), matchResult);
-            }
-        }
+        // マッチが終わるたびに、それまでの結果からレーティングを更新する。
+        Ratings ratings = Ratings.of(leagueCondition.playerClasses.size());
+        Map<Pair, MatchResult> matchResults = matchParallelism <= 1 ? playSequentially(ratings) : playInParallel(ratings);
         
         LeagueResult leagueResult = LeagueResult.of(leagueCondition, matchResults);
         
         printer.println(Level.LEAGUE, "");
         printer.println(Level.LEAGUE, "****************************************************************");
         printer.println(Level.LEAGUE, "リーグが終了しました。");
-        printer.println(Level.LEAGUE, leagueResult.toString());
+        printer.println(Level.LEAGUE, leagueResult::toString);
         printer.println(Level.LEAGUE, "****************************************************************");
         printer.println(Level.LEAGUE, "");
         if (printer.level == Level.LEAGUE) {
@@ -126,4 +186,79 @@ public class ConsoleLeague implements ConsolePlayable<League> {
         
         return leagueResult;
     }
+    
+    private void matchFinished(int idxA, int idxB, MatchResult matchResult, Ratings ratings) {
+        matchListener.matchFinished(idxA, idxB, matchResult);
+        ratings.add(idxA, idxB, matchResult);
+        
+        // 出力しない場合はレーティングの計算も省く。
+        printer.println(Level.LEAGUE, () -> {
+            Rating top = ratings.ratings().stream()
+                    .max(Comparator.comparingDouble(r -> r.elo))
+                    .orElseThrow(AssertionError::new);
+            return String.format("暫定レーティング首位：[%d] %s %s",
+                    top.idx + 1, leagueCondition.playerClasses.get(top.idx).getSimpleName(), top);
+        });
+    }
+    
+    private Map<Pair, MatchResult> playSequentially(Ratings ratings) {
+        Map<Pair, MatchResult> matchResults = new HashMap<>();
+        
+        int num = leagueCondition.playerClasses.size();
+        for (int idx1 = 0; idx1 < num - 1; idx1++) {
+            for (int idx2 = idx1 + 1; idx2 < num; idx2++) {
+                MatchCondition matchCondition = leagueCondition.matchConditions.get(Pair.of(idx1, idx2));
+                ConsoleMatch match = ConsoleMatch.of(matchCondition);
+                MatchResult matchResult = match.play();
+                matchFinished(idx1, idx2, matchResult, ratings);
+                matchResults.put(Pair.of(idx1, idx2), matchResult);
+            }
+        }
+        return matchResults;
+    }
+    
+    private Map<Pair, MatchResult> playInParallel(Ratings ratings) {
+        Map<Pair, MatchResult> matchResults = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executor = scheduler.newExecutor(matchParallelism);
+        
+        try {
+            // 各マッチの出力はワーカースレッド上でバッファリングし、マッチの終了時にまとめて出力する。
+            int num = leagueCondition.playerClasses.size();
+            for (int idx1 = 0; idx1 < num - 1; idx1++) {
+                for (int idx2 = idx1 + 1; idx2 < num; idx2++) {
+                    int idxA = idx1;
+                    int idxB = idx2;
+                    Pair pair = Pair.of(idxA, idxB);
+                    ConsoleMatch match = ConsoleMatch.of(leagueCondition.matchConditions.get(pair));
+                    futures.add(executor.submit(() -> {
+                        MatchResult matchResult = ConsolePrinter.buffered(match::play);
+                        matchFinished(idxA, idxB, matchResult, ratings);
+                        matchResults.put(pair, matchResult);
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("マッチの実行中に例外が発生しました。", cause);
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("マッチの実行中に割り込みが発生しました。", e);
+            
+        } finally {
+            executor.shutdownNow();
+        }
+        return matchResults;
+    }
 }
@@ -6,18 +6,47 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.framework.GameResult;
 import xyz.hotchpotch.reversi.framework.Match;
 import xyz.hotchpotch.reversi.framework.Match.Entrant;
 import xyz.hotchpotch.reversi.framework.MatchCondition;
 import xyz.hotchpotch.reversi.framework.MatchResult;
+import xyz.hotchpotch.reversi.framework.MatchResult.StopReason;
 import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.ReusablePlayer;
+import xyz.hotchpotch.reversi.framework.Sprt;
+import xyz.hotchpotch.reversi.framework.WaitingPlayer;
 import xyz.hotchpotch.reversi.framework.console.ConsolePrinter.Level;
 import xyz.hotchpotch.util.console.ConsoleScanner;
 
 /**
  * 標準入出力を用いたマッチ実行クラスです。<br>
+ * <br>
+ * マッチ実施条件のパラメータ {@code gameParallelism} に 2 以上の整数を指定すると、
+ * 指定された数のワーカースレッドでマッチ内のゲームを並行して実行します（デフォルトは 1 で、逐次実行します）。
+ * 並行して実行する場合も、ゲーム結果と各ゲームの出力は、ゲームの終了順ではなく対戦順に並べられます。
+ * 並行して実行するゲーム同士が CPU を奪い合うため、並行数は CPU のコア数を超えない範囲で指定するべきです。<br>
+ * <br>
+ * ただし、思考時間の大半を待機に費やすプレーヤー（{@link WaitingPlayer}）同士のマッチでは、
+ * パラメータ {@code scheduler} に {@code VIRTUAL} を指定することで、CPU のコア数よりはるかに多くのゲームを並行して実行できます。
+ * この場合、ゲームとそうしたプレーヤーの思考は仮想スレッドで、その他のプレーヤーの思考は CPU のコア数と同じ数のスレッドから成る共有のプールで実行されます。<br>
+ * <br>
+ * {@link ReusablePlayer} を実装したプレーヤーのインスタンスは、マッチ内のゲームで再利用されます。
+ * また、マッチ実施条件のパラメータ {@code warmUp} に正の整数を指定すると、マッチの開始前に、
+ * 持ち時間に算入されない練習として各プレーヤーに指定された数の局面で手を考えさせます（デフォルトは 0 で、練習しません）。
+ * JIT コンパイル等により最初のゲームの序盤の手の思考が遅くなることを避けるためのものです。<br>
+ * <br>
+ * マッチ実施条件で逐次確率比検定（{@link MatchCondition#sprt}）が指定された場合は、対戦順にゲーム結果を検定し、
+ * 境界値に達した時点でマッチを打ち切ります。
+ * ゲームを並行して実行する場合も、打ち切るかどうかは対戦順に判定するため、逐次実行する場合と同じゲーム数で打ち切られます。
+ * 打ち切った時点で実行中のゲームは中断され、その結果はマッチ結果に含まれません。<br>
  * 
  * @since 2.0.0
  * @author nmby
@@ -35,13 +64,29 @@ public class ConsoleMatch implements ConsolePlayable<Match> {
      * @throws IllegalArgumentException {@code matchCondition.playerClasses} に {@link NeedsUserInput} 実装クラスが含まれる場合
      */
     public static ConsoleMatch of(MatchCondition matchCondition) {
+        return of(matchCondition, gameResult -> {
+        });
+    }
+    
+    /**
+     * マッチ実施条件と、ゲームが終了するたびに呼び出されるリスナーを指定してマッチ実行クラスを生成します。<br>
+     * リスナーは、ゲームを並行して実行する場合も対戦順に、マッチを実行するスレッドから呼び出されます。<br>
+     * 
+     * @param matchCondition マッチ実施条件
+     * @param gameListener ゲーム結果を受け取るリスナー
+     * @return マッチ実行クラス
+     * @throws NullPointerException {@code matchCondition}、{@code gameListener} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code matchCondition.playerClasses} に {@link NeedsUserInput} 実装クラスが含まれる場合
+     */
+    /*package*/ static ConsoleMatch of(MatchCondition matchCondition, Consumer<GameResult> gameListener) {
         Objects.requireNonNull(matchCondition);
+        Objects.requireNonNull(gameListener);
         if (NeedsUserInput.class.isAssignableFrom(matchCondition.playerClasses.get(Entrant.A))
                 || NeedsUserInput.class.isAssignableFrom(matchCondition.playerClasses.get(Entrant.B))) {
                 
             throw new IllegalArgumentException(String.format("%s 実装クラスは指定できません。", NeedsUserInput.class.getSimpleName()));
         }
-        return new ConsoleMatch(matchCondition);
+        return new ConsoleMatch(matchCondition, gameListener);
     }
     
     /**
@@ -50,7 +95,54 @@ public class ConsoleMatch implements ConsolePlayable<Match> {
      * @return マッチ実行クラス
      */
     public static ConsoleMatch arrange() {
-        return new ConsoleMatch(arrangeMatchCondition());
+        return new ConsoleMatch(arrangeMatchCondition(), gameResult -> {
+        });
+    }
+    
+    /**
+     * 対戦順にゲーム結果を受け取り、逐次確率比検定によりマッチを打ち切るべきかを判定する。<br>
+     * 逐次確率比検定を行わない場合は、常に打ち切らないと判定する。<br>
+     */
+    private static class SprtMonitor {
+        private final Sprt sprt;
+        private final List<Double> llrs = new ArrayList<>();
+        private StopReason stopReason = StopReason.TIMES_REACHED;
+        private int win;
+        private int draw;
+        private int lose;
+        
+        private SprtMonitor(Sprt sprt) {
+            this.sprt = sprt;
+        }
+        
+        /**
+         * 対戦順で {@code n} 番目のゲーム結果を検定に反映する。<br>
+         * 
+         * @param n ゲームの対戦順（0 始まり）
+         * @param gameResult ゲーム結果
+         * @return マッチを打ち切るべき場合は {@code true}
+         */
+        private boolean accept(int n, GameResult gameResult) {
+            assert gameResult != null;
+            
+            if (sprt == null) {
+                return false;
+            }
+            Color colorA = n % 2 == 0 ? Color.BLACK : Color.WHITE;
+            if (gameResult.winner == null) {
+                draw++;
+            } else if (gameResult.winner == colorA) {
+                win++;
+            } else {
+                lose++;
+            }
+            double llr = sprt.llr(win, draw, lose);
+            llrs.add(llr);
+            
+            Optional<StopReason> reason = sprt.judge(llr);
+            reason.ifPresent(r -> stopReason = r);
+            return reason.isPresent();
+        }
     }
     
     private static MatchCondition arrangeMatchCondition() {
@@ -74,12 +166,18 @@ public class ConsoleMatch implements ConsolePlayable<Match> {
     
     private final MatchCondition matchCondition;
     private final ConsolePrinter printer;
+    private final int gameParallelism;
+    private final Scheduler scheduler;
+    private final int warmUp;
+    private final Consumer<GameResult> gameListener;
     private final ConsoleScanner<String> waiter = ConsoleScanner.waiter();
     
-    private ConsoleMatch(MatchCondition matchCondition) {
+    private ConsoleMatch(MatchCondition matchCondition, Consumer<GameResult> gameListener) {
         assert matchCondition != null;
+        assert gameListener != null;
         
         this.matchCondition = matchCondition;
+        this.gameListener = gameListener;
         
         Level level = CommonUtil.getParameter(
                 matchCondition,
@@ -87,6 +185,21 @@ public class ConsoleMatch implements ConsolePlayable<Match> {
                 Level::valueOf,
                 Level.MATCH);
         printer = ConsolePrinter.of(level);
+        gameParallelism = CommonUtil.getParameter(
+                matchCondition,
+                "gameParallelism",
+                Integer::valueOf,
+                1);
+        scheduler = CommonUtil.getParameter(
+                matchCondition,
+                "scheduler",
+                Scheduler::valueOf,
+                Scheduler.PLATFORM);
+        warmUp = CommonUtil.getParameter(
+                matchCondition,
+                "warmUp",
+                Integer::valueOf,
+                0);
     }
     
     /**
@@ -99,39 +212,121 @@ public class ConsoleMatch implements ConsolePlayable<Match> {
         printer.println(Level.MATCH, "");
         printer.println(Level.MATCH, "****************************************************************");
         printer.println(Level.MATCH, "マッチを開始します。");
-        printer.print(Level.MATCH, matchCondition.toStringKindly());
+        printer.print(Level.MATCH, matchCondition::toStringKindly);
         printer.println(Level.MATCH, "****************************************************************");
         printer.println(Level.MATCH, "");
         
-        Map<Entrant, ConsoleGame> games = new EnumMap<>(Entrant.class);
+        // ReusablePlayer のインスタンスは、このマッチの中で使い回す。
+        PlayerPool playerPool = new PlayerPool();
+        if (0 < warmUp) {
+            printer.println(Level.MATCH, "ウォームアップを行います。");
+            for (Entrant entrant : Entrant.values()) {
+                playerPool.warmUp(
+                        matchCondition.playerClasses.get(entrant),
+                        Color.BLACK,
+                        matchCondition.gameConditions.get(entrant),
+                        warmUp);
+            }
+            printer.println(Level.MATCH, "");
+        }
+        
+        SprtMonitor monitor = new SprtMonitor(matchCondition.sprt);
+        List<GameResult> results = gameParallelism <= 1
+                ? playSequentially(playerPool, monitor)
+                : playInParallel(playerPool, monitor);
+        if (monitor.stopReason != StopReason.TIMES_REACHED) {
+            printer.println(Level.MATCH, String.format("逐次確率比検定により、%d 局でマッチを打ち切りました。（%s, LLR=%.3f）",
+                    results.size(), monitor.stopReason, monitor.llrs.get(monitor.llrs.size() - 1)));
+            printer.println(Level.MATCH, "");
+        }
+        
+        // ゲーム結果は、n 番目のゲームの黒番が n の偶奇に応じて対戦者A・Bと交互になる順に並んでいる。
         Map<Entrant, List<GameResult>> gameResults = new EnumMap<>(Entrant.class);
         for (Entrant entrant : Entrant.values()) {
-            games.put(entrant, ConsoleGame.of(matchCondition.gameConditions.get(entrant)));
             gameResults.put(entrant, new ArrayList<>());
         }
-        
-        Entrant currEntrant = Entrant.A;
-        for (int n = 0; n < matchCondition.times; n++) {
-            
-            ConsoleGame game = games.get(currEntrant);
-            GameResult gameResult = game.play();
-            gameResults.get(currEntrant).add(gameResult);
-            
-            currEntrant = currEntrant.opposite();
+        for (int n = 0; n < results.size(); n++) {
+            gameResults.get(n % 2 == 0 ? Entrant.A : Entrant.B).add(results.get(n));
         }
         
-        MatchResult matchResult = MatchResult.of(matchCondition, gameResults);
+        MatchResult matchResult = MatchResult.of(matchCondition, gameResults, monitor.stopReason, monitor.llrs);
         
         printer.println(Level.MATCH, "****************************************************************");
         printer.println(Level.MATCH, "マッチが終了しました。");
-        printer.println(Level.LEAGUE, matchResult.toString());
+        printer.println(Level.LEAGUE, matchResult::toString);
         printer.println(Level.MATCH, "****************************************************************");
         printer.println(Level.MATCH, "");
-        if (printer.level == Level.MATCH) {
+        // 出力をバッファリング中の場合は、利用者に見えていない出力の確認を求めることになるため、待機しない。
+        if (printer.level == Level.MATCH && !ConsolePrinter.isBuffered()) {
             waiter.get();
         }
         printer.println(Level.MATCH, "");
         
         return matchResult;
     }
+    
+    private ConsoleGame gameOf(int n, PlayerPool playerPool) {
+        Entrant entrant = n % 2 == 0 ? Entrant.A : Entrant.B;
+        return ConsoleGame.of(matchCondition.gameConditions.get(entrant), playerPool);
+    }
+    
+    private List<GameResult> playSequentially(PlayerPool playerPool, SprtMonitor monitor) {
+        List<GameResult> results = new ArrayList<>();
+        for (int n = 0; n < matchCondition.times; n++) {
+            GameResult gameResult = gameOf(n, playerPool).play();
+            gameListener.accept(gameResult);
+            results.add(gameResult);
+            if (monitor.accept(n, gameResult)) {
+                break;
+            }
+        }
+        return results;
+    }
+    
+    private List<GameResult> playInParallel(PlayerPool playerPool, SprtMonitor monitor) {
+        // ゲームごとに ConsoleGame を生成し、それぞれの出力を個別のバッファに溜めておく。
+        List<StringBuilder> outputs = new ArrayList<>();
+        List<Future<GameResult>> futures = new ArrayList<>();
+        ExecutorService executor = scheduler.newExecutor(gameParallelism);
+        
+        try {
+            for (int n = 0; n < matchCondition.times; n++) {
+                ConsoleGame game = gameOf(n, playerPool);
+                StringBuilder output = new StringBuilder();
+                outputs.add(output);
+                futures.add(executor.submit(() -> ConsolePrinter.captured(game::play, output)));
+            }
+            
+            // 終了した順ではなく対戦順に、結果を集めて出力する。
+            List<GameResult> results = new ArrayList<>();
+            for (int n = 0; n < futures.size(); n++) {
+                GameResult gameResult = futures.get(n).get();
+                ConsolePrinter.write(outputs.get(n).toString());
+                gameListener.accept(gameResult);
+                results.add(gameResult);
+                if (monitor.accept(n, gameResult)) {
+                    break;
+                }
+            }
+            return results;
+            
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("ゲームの実行中に例外が発生しました。", cause);
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ゲームの実行中に割り込みが発生しました。", e);
+            
+        } finally {
+            // マッチを打ち切った場合は、未着手のゲームを取り消し、実行中のゲームを中断する。
+            executor.shutdownNow();
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package xyz.hotchpotch.reversi.framework.console;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * 標準出力への簡易ロガーです。<br>
@@ -26,7 +27,14 @@ import java.util.Objects;
         MATCH,
         
         /** リーグで出力すべきレベル */
-        LEAGUE;
+        LEAGUE,
+        
+        /**
+         * 何も出力しないレベル
+         * 
+         * @since 2.2.0
+         */
+        SILENT;
         
         private boolean hasObligation(Level level) {
             return ordinal() <= level.ordinal();
@@ -44,6 +52,82 @@ import java.util.Objects;
         return new ConsolePrinter(Objects.requireNonNull(level));
     }
     
+    /** 出力をバッファリング中のスレッドにおける出力先 */
+    private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<>();
+    
+    /**
+     * 現在のスレッドでの出力をバッファに溜めながら処理を実行し、終了後にまとめて標準出力へ出力します。<br>
+     * 複数のスレッドで並行して処理を実行する場合も、それぞれの処理の出力が行の途中で混ざり合うことはありません。<br>
+     * 処理の中で例外が発生した場合も、それまでにバッファに溜めた内容を出力します。<br>
+     * 既にバッファリング中のスレッドで呼び出された場合は、外側のバッファに追記します。<br>
+     * 
+     * @param <T> 処理結果の型
+     * @param task 実行する処理
+     * @return 処理結果
+     * @throws NullPointerException {@code task} が {@code null} の場合
+     */
+    public static <T> T buffered(Supplier<T> task) {
+        Objects.requireNonNull(task);
+        StringBuilder sb = new StringBuilder();
+        try {
+            return captured(task, sb);
+        } finally {
+            write(sb.toString());
+        }
+    }
+    
+    /**
+     * 現在のスレッドでの出力を標準出力へは出力せずに指定されたバッファに溜めながら、処理を実行します。<br>
+     * 溜めた内容は、呼び出し元が {@link #write(String)} により任意の時点で出力できます。<br>
+     * 
+     * @param <T> 処理結果の型
+     * @param task 実行する処理
+     * @param sink 出力を溜めるバッファ
+     * @return 処理結果
+     * @throws NullPointerException {@code task}、{@code sink} のいずれかが {@code null} の場合
+     */
+    public static <T> T captured(Supplier<T> task, StringBuilder sink) {
+        Objects.requireNonNull(task);
+        Objects.requireNonNull(sink);
+        StringBuilder outer = buffer.get();
+        buffer.set(sink);
+        try {
+            return task.get();
+        } finally {
+            buffer.set(outer);
+        }
+    }
+    
+    /**
+     * 現在のスレッドがバッファリング中か否かを返します。<br>
+     * 
+     * @return バッファリング中の場合は {@code true}
+     */
+    public static boolean isBuffered() {
+        return buffer.get() != null;
+    }
+    
+    /**
+     * ログ出力レベルによらず、文字列をそのまま出力します。<br>
+     * 現在のスレッドがバッファリング中の場合はバッファに追記し、そうでない場合は標準出力へ一度に出力します。<br>
+     * 
+     * @param str 文字列
+     * @throws NullPointerException {@code str} が {@code null} の場合
+     */
+    public static void write(String str) {
+        Objects.requireNonNull(str);
+        
+        StringBuilder sb = buffer.get();
+        if (sb != null) {
+            sb.append(str);
+        } else if (!str.isEmpty()) {
+            synchronized (System.out) {
+                System.out.print(str);
+                System.out.flush();
+            }
+        }
+    }
+    
     // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
     
     /** このロガーのログ出力レベル */
@@ -64,9 +148,24 @@ import java.util.Objects;
      * @throws NullPointerException {@code level} が {@code null} の場合
      */
     public void print(Level level, String str) {
-        Objects.requireNonNull(level);
-        if (this.level.hasObligation(level)) {
-            System.out.print(str);
+        if (isEnabled(level)) {
+            write(str);
+        }
+    }
+    
+    /**
+     * 文字列を組み立てて標準出力へ出力します。<br>
+     * このロガーのログ出力レベルよりも {@code level} の詳細度が高い場合は、文字列の組み立て自体を行いません。
+     * リバーシ盤の整形など、組み立てのコストが高い文字列の出力に利用します。<br>
+     * 
+     * @param level ログ出力レベル
+     * @param str 文字列を組み立てる {@code Supplier}
+     * @throws NullPointerException {@code level} が {@code null} の場合
+     * @since 2.2.0
+     */
+    public void print(Level level, Supplier<String> str) {
+        if (isEnabled(level)) {
+            write(str.get());
         }
     }
     
@@ -79,6 +178,36 @@ import java.util.Objects;
      * @throws NullPointerException {@code level} が {@code null} の場合
      */
     public void println(Level level, String str) {
-        print(level, str + System.lineSeparator());
+        if (isEnabled(level)) {
+            write(str + System.lineSeparator());
+        }
+    }
+    
+    /**
+     * 文字列を組み立てて標準出力へ出力し、改行します。<br>
+     * このロガーのログ出力レベルよりも {@code level} の詳細度が高い場合は、文字列の組み立て自体を行いません。<br>
+     * 
+     * @param level ログ出力レベル
+     * @param str 文字列を組み立てる {@code Supplier}
+     * @throws NullPointerException {@code level} が {@code null} の場合
+     * @since 2.2.0
+     */
+    public void println(Level level, Supplier<String> str) {
+        if (isEnabled(level)) {
+            write(str.get() + System.lineSeparator());
+        }
+    }
+    
+    /**
+     * 指定されたログ出力レベルの出力が、このロガーにより行われるか否かを返します。<br>
+     * 
+     * @param level ログ出力レベル
+     * @return 出力が行われる場合は {@code true}
+     * @throws NullPointerException {@code level} が {@code null} の場合
+     * @since 2.2.0
+     */
+    public boolean isEnabled(Level level) {
+        Objects.requireNonNull(level);
+        return this.level.hasObligation(level);
     }
 }
@@ -0,0 +1,312 @@
+package xyz.hotchpotch.reversi.framework.console;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.framework.GameResult;
+import xyz.hotchpotch.reversi.framework.League.Pair;
+import xyz.hotchpotch.reversi.framework.LeagueCondition;
+import xyz.hotchpotch.reversi.framework.LeagueResult;
+import xyz.hotchpotch.reversi.framework.Match.Entrant;
+import xyz.hotchpotch.reversi.framework.MatchCondition;
+import xyz.hotchpotch.reversi.framework.MatchResult;
+import xyz.hotchpotch.reversi.framework.Ratings.Rating;
+import xyz.hotchpotch.reversi.framework.Result.ResultCount;
+import xyz.hotchpotch.reversi.framework.RuleViolationException;
+import xyz.hotchpotch.reversi.framework.Sprt;
+
+/**
+ * 対話的な入力や盤面の表示を一切行わずに、マッチまたはリーグを実行するアプリケーションのエントリ・ポイントです。<br>
+ * パラメータ調整などのために大量のゲームを実行する用途を想定しています。<br>
+ * <br>
+ * 起動パラメータには、実施条件を記述したプロパティファイルのパスか、{@code キー=値} 形式のパラメータを任意の数だけ指定します。
+ * 後に指定したものほど優先されます。<br>
+ * {@code player.1}、{@code player.2}、... が指定された場合はリーグ（{@link LeagueCondition#of(Map)} を参照）を、
+ * {@code player.a}、{@code player.b} が指定された場合はマッチ（{@link MatchCondition#of(Map)} を参照）を実行します。
+ * いずれの場合も {@code print.level} は {@code SILENT} に、{@code auto} は {@code true} に固定されます。<br>
+ * <br>
+ * 結果は、パラメータ {@code result.file} で指定されたファイル（指定が無い場合は標準出力）へ、タブ区切りのテキストとして逐次出力します。
+ * <table border="1">
+ *   <caption>出力される行</caption>
+ *   <tr><th>実行対象</th><th>出力のタイミング</th><th>形式</th></tr>
+ *   <tr><td>マッチ</td><td>ゲームの終了ごと（対戦順）</td>
+ *       <td>{@code game 連番 黒のクラス 白のクラス 勝者(BLACK/WHITE/DRAW) 黒の石数 白の石数 反則の内容}</td></tr>
+ *   <tr><td>マッチ</td><td>マッチの終了時</td>
+ *       <td>{@code match Aのクラス Bのクラス Aの勝ち数 引き分け数 Bの勝ち数}</td></tr>
+ *   <tr><td>マッチ</td><td>マッチの終了時（逐次確率比検定を行った場合のみ）</td>
+ *       <td>{@code sprt 終了理由 ゲーム数 最終的な対数尤度比 H0を採択する境界値 H1を採択する境界値}</td></tr>
+ *   <tr><td>リーグ</td><td>マッチの終了ごと（終了順）</td>
+ *       <td>{@code match Aの番号 Bの番号 Aのクラス Bのクラス Aの勝ち数 引き分け数 Bの勝ち数}</td></tr>
+ *   <tr><td>リーグ</td><td>マッチの終了ごと（逐次確率比検定を行った場合のみ）</td>
+ *       <td>{@code sprt Aの番号 Bの番号 終了理由 ゲーム数 最終的な対数尤度比 H0を採択する境界値 H1を採択する境界値}</td></tr>
+ *   <tr><td>リーグ</td><td>リーグの終了時（プレーヤーごと）</td>
+ *       <td>{@code total 番号 クラス 勝ち数 引き分け数 負け数}</td></tr>
+ *   <tr><td>リーグ</td><td>リーグの終了時（レーティングの高い順）</td>
+ *       <td>{@code rating 順位 番号 クラス レーティング 95%信頼区間の半幅}</td></tr>
+ * </table>
+ * 終了時には、次の終了ステータスでJVMを終了します。
+ * <ul>
+ *   <li>{@value #EXIT_SUCCESS}：正常に終了した場合</li>
+ *   <li>{@value #EXIT_ILLEGAL_ARGUMENT}：起動パラメータや実施条件が不正な場合</li>
+ *   <li>{@value #EXIT_IO_ERROR}：ファイルの入出力に失敗した場合</li>
+ *   <li>{@value #EXIT_FAILURE}：実行中に予期せぬ例外が発生した場合</li>
+ * </ul>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+public class HeadlessRunner {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** 正常に終了した場合の終了ステータス */
+    public static final int EXIT_SUCCESS = 0;
+    
+    /** 起動パラメータや実施条件が不正な場合の終了ステータス */
+    public static final int EXIT_ILLEGAL_ARGUMENT = 1;
+    
+    /** ファイルの入出力に失敗した場合の終了ステータス */
+    public static final int EXIT_IO_ERROR = 2;
+    
+    /** 実行中に予期せぬ例外が発生した場合の終了ステータス */
+    public static final int EXIT_FAILURE = 3;
+    
+    private static final String KEY_RESULT_FILE = "result.file";
+    
+    /**
+     * マッチまたはリーグを実行し、終了ステータスを指定してJVMを終了します。<br>
+     * 
+     * @param args 実施条件を記述したプロパティファイルのパス、または {@code キー=値} 形式のパラメータ
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+    
+    /**
+     * マッチまたはリーグを実行し、終了ステータスを返す。<br>
+     * 
+     * @param args 起動パラメータ
+     * @return 終了ステータス
+     */
+    /*package*/ static int run(String[] args) {
+        assert args != null;
+        
+        Map<String, String> params;
+        try {
+            params = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return EXIT_ILLEGAL_ARGUMENT;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("実施条件を読み込めません。" + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+        params.put("print.level", ConsolePrinter.Level.SILENT.name());
+        params.put("auto", "true");
+        String resultFile = params.get(KEY_RESULT_FILE);
+        
+        // 標準出力はこのクラスが開いたものではないため、閉じずにフラッシュのみ行う。
+        if (resultFile == null) {
+            return play(params, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        }
+        try (Writer out = Files.newBufferedWriter(Paths.get(resultFile), StandardCharsets.UTF_8)) {
+            return play(params, out);
+            
+        } catch (IOException e) {
+            System.err.println("結果を出力できません。" + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+    }
+    
+    /**
+     * マッチまたはリーグを実行して結果を出力し、終了ステータスを返す。<br>
+     * 出力先はフラッシュするが、閉じない。<br>
+     * 
+     * @param params 実施条件
+     * @param out 結果の出力先
+     * @return 終了ステータス
+     */
+    private static int play(Map<String, String> params, Writer out) {
+        assert params != null;
+        assert out != null;
+        
+        try {
+            HeadlessRunner runner = new HeadlessRunner(out);
+            if (params.keySet().stream().anyMatch(key -> key.matches("player\\.\\d+"))) {
+                runner.playLeague(LeagueCondition.of(params));
+            } else {
+                runner.playMatch(MatchCondition.of(params));
+            }
+            out.flush();
+            return EXIT_SUCCESS;
+            
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return EXIT_ILLEGAL_ARGUMENT;
+            
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("結果を出力できません。" + e.getMessage());
+            return EXIT_IO_ERROR;
+            
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return EXIT_FAILURE;
+        }
+    }
+    
+    private static Map<String, String> parse(String[] args) throws IOException {
+        assert args != null;
+        
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            int idx = arg.indexOf('=');
+            if (0 < idx) {
+                params.put(arg.substring(0, idx), arg.substring(idx + 1));
+            } else {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(Paths.get(arg), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                properties.stringPropertyNames().forEach(key -> params.put(key, properties.getProperty(key)));
+            }
+        }
+        if (params.isEmpty()) {
+            throw new IllegalArgumentException("実施条件を指定してください。");
+        }
+        return params;
+    }
+    
+    private static String winnerOf(GameResult gameResult) {
+        return gameResult.winner == null ? "DRAW" : gameResult.winner.name();
+    }
+    
+    private static long discsOf(GameResult gameResult, Color color) {
+        return Point.stream().filter(p -> gameResult.board.colorAt(p) == color).count();
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Writer out;
+    private int gameCount;
+    
+    private HeadlessRunner(Writer out) {
+        assert out != null;
+        this.out = out;
+    }
+    
+    private void playMatch(MatchCondition matchCondition) {
+        MatchResult matchResult = ConsoleMatch.of(matchCondition, gameResult -> {
+            RuleViolationException violation = gameResult.violation();
+            writeLine("game", ++gameCount,
+                    gameResult.gameCondition.playerClasses.get(Color.BLACK).getName(),
+                    gameResult.gameCondition.playerClasses.get(Color.WHITE).getName(),
+                    winnerOf(gameResult),
+                    discsOf(gameResult, Color.BLACK),
+                    discsOf(gameResult, Color.WHITE),
+                    violation == null ? "" : violation.getMessage());
+        }).play();
+        
+        ResultCount count = matchResult.resultCounts.get(Entrant.A);
+        writeLine("match",
+                matchCondition.playerClasses.get(Entrant.A).getName(),
+                matchCondition.playerClasses.get(Entrant.B).getName(),
+                count.win, count.draw, count.lose);
+        writeSprtLine(matchResult);
+    }
+    
+    private void playLeague(LeagueCondition leagueCondition) {
+        LeagueResult leagueResult = ConsoleLeague.of(leagueCondition, (idxA, idxB, matchResult) -> {
+            ResultCount count = matchResult.resultCounts.get(Entrant.A);
+            writeLine("match", idxA + 1, idxB + 1,
+                    matchResult.matchCondition.playerClasses.get(Entrant.A).getName(),
+                    matchResult.matchCondition.playerClasses.get(Entrant.B).getName(),
+                    count.win, count.draw, count.lose);
+            writeSprtLine(matchResult, idxA + 1, idxB + 1);
+        }).play();
+        
+        int num = leagueCondition.playerClasses.size();
+        for (int idxA = 0; idxA < num; idxA++) {
+            int win = 0;
+            int draw = 0;
+            int lose = 0;
+            for (int idxB = 0; idxB < num; idxB++) {
+                if (idxA != idxB) {
+                    ResultCount count = leagueResult.counts.get(Pair.of(idxA, idxB));
+                    win += count.win;
+                    draw += count.draw;
+                    lose += count.lose;
+                }
+            }
+            writeLine("total", idxA + 1, leagueCondition.playerClasses.get(idxA).getName(), win, draw, lose);
+        }
+        
+        Rating[] ranking = leagueResult.ratings.stream()
+                .sorted(Comparator.comparingDouble((Rating r) -> r.elo).reversed())
+                .toArray(Rating[]::new);
+        for (int rank = 0; rank < ranking.length; rank++) {
+            Rating rating = ranking[rank];
+            writeLine("rating", rank + 1, rating.idx + 1, leagueCondition.playerClasses.get(rating.idx).getName(),
+                    String.format("%.1f", rating.elo), String.format("%.1f", rating.margin));
+        }
+    }
+    
+    /**
+     * 逐次確率比検定を行ったマッチの場合に、その結果を一行に出力する。<br>
+     * 
+     * @param matchResult マッチ結果
+     * @param keys 行の先頭に出力する値
+     */
+    private void writeSprtLine(MatchResult matchResult, Object... keys) {
+        Sprt sprt = matchResult.matchCondition.sprt;
+        if (sprt == null || matchResult.llrs.isEmpty()) {
+            return;
+        }
+        List<Object> values = new ArrayList<>();
+        values.add("sprt");
+        values.addAll(Arrays.asList(keys));
+        values.add(matchResult.stopReason);
+        values.add(matchResult.llrs.size());
+        values.add(matchResult.llrs.get(matchResult.llrs.size() - 1));
+        values.add(sprt.lowerBound());
+        values.add(sprt.upperBound());
+        writeLine(values.toArray());
+    }
+    
+    /**
+     * 値をタブ区切りで一行に出力し、直ちにフラッシュする。<br>
+     * マッチを並行して実行する場合は複数のスレッドから呼び出されるため、同期化する。<br>
+     * 
+     * @param values 出力する値
+     * @throws UncheckedIOException 出力に失敗した場合
+     */
+    private synchronized void writeLine(Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (0 < i) {
+                    out.write('\t');
+                }
+                out.write(String.valueOf(values[i]));
+            }
+            out.write(System.lineSeparator());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
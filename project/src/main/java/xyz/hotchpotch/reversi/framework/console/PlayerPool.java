@@ -0,0 +1,193 @@
+package xyz.hotchpotch.reversi.framework.console;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.BoardSnapshot;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.core.Rule;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.ReusablePlayer;
+import xyz.hotchpotch.reversi.framework.SearchContext;
+
+/**
+ * マッチ内のゲームで再利用する {@link ReusablePlayer} のインスタンスを保持するプールです。<br>
+ * {@code ReusablePlayer} を実装しないプレーヤーについては、常に新たなインスタンスを生成します。<br>
+ * このクラスはスレッドセーフです。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+/*package*/ class PlayerPool {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /** ウォームアップ用の局面を生成する乱数ジェネレータのシード値（実行のたびに同じ局面とするため固定する） */
+    private static final long WARM_UP_SEED = 20160501L;
+    
+    /**
+     * 指定された色の手番で、石を置ける位置のある局面を、初期盤面からランダムに手を進めて生成する。<br>
+     * 
+     * @param color 手番の色
+     * @param random 乱数ジェネレータ
+     * @return 生成した局面（生成できなかった場合は {@code null}）
+     */
+    private static Board randomPosition(Color color, Random random) {
+        assert color != null;
+        assert random != null;
+        
+        Board board = StrictBoard.initializedBoard();
+        Color currColor = Color.BLACK;
+        int plies = random.nextInt(Point.HEIGHT * Point.WIDTH - 4);
+        Board candidate = null;
+        
+        for (int n = 0; Rule.isGameOngoing(board) && (n < plies || candidate == null); n++) {
+            Color turn = currColor;
+            Point[] availables = Point.stream().filter(p -> Rule.canPutAt(board, turn, p)).toArray(Point[]::new);
+            if (currColor == color && 0 < availables.length) {
+                candidate = BoardSnapshot.of(board);
+            }
+            board.apply(availables.length == 0
+                    ? Move.passOf(currColor)
+                    : Move.of(currColor, availables[random.nextInt(availables.length)]));
+            currColor = currColor.opposite();
+        }
+        return candidate;
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    private final Map<Class<? extends Player>, Deque<ReusablePlayer>> idles = new HashMap<>();
+    
+    /**
+     * プレーヤーのインスタンスを取得する。<br>
+     * 再利用可能なインスタンスがプールにある場合は、{@link ReusablePlayer#reset(Color, GameCondition)} を呼び出してから返す。
+     * そうでない場合は、新たなインスタンスを生成して返す。<br>
+     * 
+     * @param playerClass プレーヤーのクラス
+     * @param color プレーヤーの石の色
+     * @param gameCondition ゲーム実施条件
+     * @return プレーヤーのインスタンス
+     * @throws ReflectiveOperationException インスタンスの生成に失敗した場合
+     * @throws RuntimeException {@link ReusablePlayer#reset(Color, GameCondition)} が実行時例外を発生させた場合
+     */
+    /*package*/ Player acquire(Class<? extends Player> playerClass, Color color, GameCondition gameCondition)
+            throws ReflectiveOperationException {
+        
+        assert playerClass != null;
+        assert color != null;
+        assert gameCondition != null;
+        
+        ReusablePlayer idle;
+        synchronized (idles) {
+            Deque<ReusablePlayer> deque = idles.get(playerClass);
+            idle = deque == null ? null : deque.pollFirst();
+        }
+        if (idle == null) {
+            return Player.getPlayerInstance(playerClass, color, gameCondition);
+        }
+        idle.reset(color, gameCondition);
+        return idle;
+    }
+    
+    /**
+     * 使い終わったプレーヤーのインスタンスをプールに戻す。<br>
+     * {@link ReusablePlayer} を実装しないプレーヤーの場合は、何もしない。<br>
+     * 
+     * @param player 使い終わったプレーヤーのインスタンス
+     */
+    /*package*/ void release(Player player) {
+        assert player != null;
+        
+        if (player instanceof ReusablePlayer) {
+            synchronized (idles) {
+                idles.computeIfAbsent(player.getClass(), k -> new ArrayDeque<>()).offerFirst((ReusablePlayer) player);
+            }
+        }
+    }
+    
+    /**
+     * 持ち時間に算入されない練習として、プレーヤーにいくつかの局面で手を考えさせる。<br>
+     * JIT コンパイルやクラスの初期化が、最初のゲームの持ち時間を消費しないようにするためのものである。
+     * JIT コンパイルの結果はクラス単位で共有されるため、{@link ReusablePlayer} を実装しないプレーヤーにも効果がある。<br>
+     * 練習を終えたインスタンスは、{@code ReusablePlayer} であればプールに戻す。<br>
+     * <br>
+     * 練習中の例外や制限時間の超過は、プレーヤーの負けとはせずに練習を打ち切るだけとする。
+     * 問題のあるプレーヤーは、本番のゲームで相応に扱われる。<br>
+     * 
+     * @param playerClass プレーヤーのクラス
+     * @param color プレーヤーの石の色
+     * @param gameCondition ゲーム実施条件
+     * @param positions 練習する局面の数
+     */
+    /*package*/ void warmUp(Class<? extends Player> playerClass, Color color, GameCondition gameCondition, int positions) {
+        assert playerClass != null;
+        assert color != null;
+        assert gameCondition != null;
+        
+        Player player;
+        try {
+            player = acquire(playerClass, color, gameCondition);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return;
+        }
+        
+        long timeLimit = Long.min(gameCondition.givenMillisPerTurn, gameCondition.givenMillisInGame);
+        Random random = new Random(WARM_UP_SEED);
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "reversi-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            for (int n = 0; n < positions; n++) {
+                Board board = randomPosition(color, random);
+                if (board == null) {
+                    continue;
+                }
+                SearchContext context = SearchContext.of(
+                        color, timeLimit, gameCondition.nodesPerMove, gameCondition.depthPerMove);
+                FutureTask<Point> task = new FutureTask<>(() -> {
+                    player.notifyOfGameStart(board);
+                    return player.decide(board, color, gameCondition.givenMillisPerTurn,
+                            gameCondition.givenMillisInGame, context);
+                });
+                executor.execute(task);
+                try {
+                    try {
+                        task.get(timeLimit, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        context.abort();
+                        task.get(timeLimit, TimeUnit.MILLISECONDS);
+                    }
+                } catch (TimeoutException | ExecutionException e) {
+                    // 中断に応じないインスタンスや例外を発生させたインスタンスは、状態が不定であるため再利用しない。
+                    task.cancel(true);
+                    return;
+                }
+            }
+            release(player);
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
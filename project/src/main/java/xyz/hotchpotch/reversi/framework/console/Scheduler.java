@@ -0,0 +1,302 @@
+package xyz.hotchpotch.reversi.framework.console;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.framework.GameCondition;
+import xyz.hotchpotch.reversi.framework.Player;
+import xyz.hotchpotch.reversi.framework.WaitingPlayer;
+
+/**
+ * マッチ内のゲームやリーグ内のマッチ、プレーヤーの思考をどのスレッドで実行するかを表す列挙型です。<br>
+ * 実施条件のパラメータ {@code scheduler} により選択します（デフォルトは {@link #PLATFORM}）。<br>
+ * ただし、ゲーム実施条件で {@link GameCondition#threadsPerPlayer} が指定された場合は、いずれのスケジューラでも、
+ * プレーヤーの思考をプレーヤー専用の {@link ForkJoinPool} で実行します。<br>
+ * 
+ * @since 2.2.0
+ * @author nmby
+ */
+/*package*/ enum Scheduler {
+    
+    // [static members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * ゲームやマッチを並行数と同じ数のプラットフォームスレッドから成るプールで、
+     * プレーヤーの思考をゲームごと・プレーヤーごとの専用のプラットフォームスレッドで実行します。<br>
+     */
+    PLATFORM {
+        @Override
+        /*package*/ ExecutorService newExecutor(int parallelism) {
+            return Executors.newFixedThreadPool(parallelism);
+        }
+        
+        @Override
+        /*package*/ ExecutorService newDecisionExecutor(Class<? extends Player> playerClass, Color color) {
+            return Executors.newSingleThreadExecutor(daemonThreads("reversi-player-" + color.name().toLowerCase()));
+        }
+    },
+    
+    /**
+     * ゲームやマッチを仮想スレッドで実行し、同時に実行する数を並行数で制限します。<br>
+     * {@link WaitingPlayer} または {@link NeedsUserInput} を実装するプレーヤーの思考は一手ごとに仮想スレッドで、
+     * その他のプレーヤーの思考は CPU のコア数と同じ数のプラットフォームスレッドから成る共有のプールで実行します。
+     * CPU を使い続けるプレーヤーが、仮想スレッドを実行するキャリアスレッドを占有しないようにするためです。<br>
+     * 仮想スレッドを利用できない実行環境（Java 20 以前）では、仮想スレッドの代わりに必要に応じて生成されるプラットフォームスレッドを用います。<br>
+     * <br>
+     * 共有のプールが混み合っている場合、思考の開始は待たされますが、制限時間は思考の開始時点から計測されます。
+     * ただし、一手の制限時間を過ぎても思考を開始できない場合は、時間切れとして扱います。
+     * 中断に応じないプレーヤーは、思考を終えるまで共有のプールのスレッドを占有し続けることに注意してください。<br>
+     */
+    VIRTUAL {
+        @Override
+        /*package*/ ExecutorService newExecutor(int parallelism) {
+            return new DelegatingExecutor(newVirtualThreadPerTaskExecutor(), true, parallelism);
+        }
+        
+        @Override
+        /*package*/ ExecutorService newDecisionExecutor(Class<? extends Player> playerClass, Color color) {
+            if (WaitingPlayer.class.isAssignableFrom(playerClass) || NeedsUserInput.class.isAssignableFrom(playerClass)) {
+                return newVirtualThreadPerTaskExecutor();
+            }
+            return new DelegatingExecutor(CpuPool.INSTANCE, false, Integer.MAX_VALUE);
+        }
+    };
+    
+    /** CPU を使い続けるプレーヤーの思考を実行する、共有のプール（初回利用時に生成する） */
+    private static class CpuPool {
+        private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), daemonThreads("reversi-cpu"));
+    }
+    
+    /** {@code Executors#newVirtualThreadPerTaskExecutor()}（Java 21 以降）。利用できない場合は {@code null} */
+    private static final Method VIRTUAL_THREAD_PER_TASK = virtualThreadPerTaskMethod();
+    
+    private static Method virtualThreadPerTaskMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+    
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (VIRTUAL_THREAD_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_PER_TASK.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return Executors.newCachedThreadPool(daemonThreads("reversi-waiting"));
+    }
+    
+    private static ThreadFactory daemonThreads(String name) {
+        assert name != null;
+        
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /** 指定された並列度の、デーモンスレッドから成る {@link ForkJoinPool} を生成する。 */
+    private static ForkJoinPool newForkJoinPool(int parallelism, String name) {
+        assert 0 < parallelism;
+        assert name != null;
+        
+        // ワーカースレッドはデーモンスレッドとして生成される。
+        AtomicInteger count = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-" + count.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+    
+    /**
+     * 他の {@link ExecutorService} にタスクの実行を委譲する {@code ExecutorService} です。<br>
+     * 同時に実行するタスクの数を制限したり、共有のプールを自身の終了に巻き込まずに利用したりするために用います。<br>
+     * 実行数の上限を超えるタスクは委譲先に渡さずにこのクラスで待たせるため、委譲先のスレッドが上限を超えて生成されることはなく、
+     * {@link #shutdownNow()} により未着手のタスクを取り消すことができます。<br>
+     */
+    private static class DelegatingExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final boolean ownsDelegate;
+        private final int maxRunning;
+        
+        // 以下のフィールドは this で同期して読み書きする。
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private int running;
+        private boolean shutdown;
+        
+        private DelegatingExecutor(ExecutorService delegate, boolean ownsDelegate, int maxRunning) {
+            assert delegate != null;
+            assert 0 < maxRunning;
+            
+            this.delegate = delegate;
+            this.ownsDelegate = ownsDelegate;
+            this.maxRunning = maxRunning;
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command);
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("shutdown");
+                }
+                pending.add(command);
+            }
+            dispatch();
+        }
+        
+        /**
+         * 実行数の上限に達するまで、待っているタスクを委譲先に渡す。<br>
+         */
+        private void dispatch() {
+            while (true) {
+                Runnable command;
+                synchronized (this) {
+                    if (maxRunning <= running || pending.isEmpty()) {
+                        return;
+                    }
+                    command = pending.remove();
+                    running++;
+                }
+                try {
+                    delegate.execute(() -> {
+                        try {
+                            command.run();
+                        } finally {
+                            finished();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    finished();
+                    throw e;
+                }
+            }
+        }
+        
+        private void finished() {
+            synchronized (this) {
+                running--;
+                if (shutdown && running == 0 && pending.isEmpty()) {
+                    if (ownsDelegate) {
+                        delegate.shutdown();
+                    }
+                    notifyAll();
+                }
+            }
+            dispatch();
+        }
+        
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            if (running == 0 && pending.isEmpty()) {
+                if (ownsDelegate) {
+                    delegate.shutdown();
+                }
+                notifyAll();
+            }
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> notStarted;
+            synchronized (this) {
+                notStarted = new ArrayList<>(pending);
+                pending.clear();
+                shutdown();
+            }
+            if (ownsDelegate) {
+                delegate.shutdownNow();
+            }
+            return notStarted;
+        }
+        
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+        
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && running == 0 && pending.isEmpty() && (!ownsDelegate || delegate.isTerminated());
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (!shutdown || 0 < running || !pending.isEmpty()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return !ownsDelegate || delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // [instance members] ++++++++++++++++++++++++++++++++++++++++++++++++++++++
+    
+    /**
+     * ゲームやマッチを実行するための {@link ExecutorService} を生成します。<br>
+     * 
+     * @param parallelism 同時に実行するタスクの最大数
+     * @return タスクを実行する {@code ExecutorService}
+     */
+    /*package*/ abstract ExecutorService newExecutor(int parallelism);
+    
+    /**
+     * プレーヤーの思考を実行するための {@link ExecutorService} を生成します。<br>
+     * 返された {@code ExecutorService} は、ゲームの終了時に {@link ExecutorService#shutdown()} する必要があります。<br>
+     * 
+     * @param playerClass プレーヤーのクラス
+     * @param color プレーヤーの石の色
+     * @return 思考を実行する {@code ExecutorService}
+     */
+    /*package*/ abstract ExecutorService newDecisionExecutor(Class<? extends Player> playerClass, Color color);
+    
+    /**
+     * プレーヤーの思考を実行するための {@link ExecutorService} を、並列処理用のスレッド数を指定して生成します。<br>
+     * {@code parallelism} が正の場合は、指定された並列度のプレーヤー専用の {@link ForkJoinPool} を返します。
+     * 思考はこのプールのワーカースレッドで実行されるため、思考中の {@code parallelStream()} 等もこのプールで実行され、
+     * JVM 全体で共有される共通プールを他のプレーヤーと奪い合うことがありません。
+     * {@code parallelism} が {@code 0} の場合は、{@link #newDecisionExecutor(Class, Color)} と同じです。<br>
+     * 返された {@code ExecutorService} は、ゲームの終了時に {@link ExecutorService#shutdown()} する必要があります。<br>
+     * 
+     * @param playerClass プレーヤーのクラス
+     * @param color プレーヤーの石の色
+     * @param parallelism 並列処理用のスレッド数（{@code 0} の場合は専用のプールを用意しない）
+     * @return 思考を実行する {@code ExecutorService}
+     */
+    /*package*/ ExecutorService newDecisionExecutor(Class<? extends Player> playerClass, Color color, int parallelism) {
+        assert 0 <= parallelism;
+        
+        if (0 < parallelism) {
+            return newForkJoinPool(parallelism, "reversi-player-" + color.name().toLowerCase());
+        }
+        return newDecisionExecutor(playerClass, color);
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.*;
 import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
 import static xyz.hotchpotch.jutaime.throwable.Testee.*;
 
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -309,4 +310,29 @@ public class AIPlayerUtilTest {
         
         assertThat(AIPlayerUtil.getBooleanParameter(condition, "wrongKey"), is(Optional.empty()));
     }
+    
+    @Test
+    public void testGetEvaluatorParameter() {
+        Map<String, String> params = new HashMap<>();
+        params.put("basic", "BLENDED");
+        params.put("spec", "mobility:10:0, discs:0:1");
+        params.put("wrongSpec", "mobility:x");
+        params.put("wrongClass", "java.lang.String");
+        params.put("missingFile", "@no/such/evaluator.txt");
+        GameCondition condition = GameCondition.of(SimplestAIPlayer.class, RandomAIPlayer.class, 100L, 3000L, params);
+        
+        assertThat(AIPlayerUtil.getEvaluatorParameter(condition, "basic"),
+                is(Optional.<Evaluator> of(BasicEvaluator.BLENDED)));
+        Evaluator evaluator = AIPlayerUtil.getEvaluatorParameter(condition, "spec").get();
+        assertThat(evaluator.evaluate(0x0000000810000000L, 0x0000001008000000L, 60),
+                is(BasicEvaluator.BLENDED.evaluate(0x0000000810000000L, 0x0000001008000000L, 60)));
+        
+        // 評価関数の記述やファイルの誤りは、既定の評価関数で代用されないよう例外とする。
+        assertThat(of(() -> AIPlayerUtil.getEvaluatorParameter(condition, "wrongSpec")),
+                raise(IllegalArgumentException.class));
+        assertThat(of(() -> AIPlayerUtil.getEvaluatorParameter(condition, "missingFile")),
+                raise(UncheckedIOException.class));
+        assertThat(AIPlayerUtil.getEvaluatorParameter(condition, "wrongClass"), is(Optional.empty()));
+        assertThat(AIPlayerUtil.getEvaluatorParameter(condition, "wrongKey"), is(Optional.empty()));
+    }
 }
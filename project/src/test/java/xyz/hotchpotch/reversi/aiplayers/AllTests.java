@@ -6,7 +6,14 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
-        AIPlayerUtilTest.class
+        AIPlayerUtilTest.class,
+        BitBoardsTest.class,
+        EvalCacheTest.class,
+        EvaluatorCompilerTest.class,
+        NTupleEvaluatorTest.class,
+        PatternEvaluatorTest.class,
+        PatternTrainerTest.class,
+        TimeManagerTest.class
 })
 public class AllTests {
 }
@@ -0,0 +1,151 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.AIPlayerUtil.LightweightBoard;
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Direction;
+import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.core.Rule;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+
+public class BitBoardsTest {
+    
+    private static long expectedBits(Board board, Color color) {
+        long bits = 0L;
+        for (Point p : Point.values()) {
+            if (board.colorAt(p) == color) {
+                bits |= 1L << p.ordinal();
+            }
+        }
+        return bits;
+    }
+    
+    private static long bitsOf(String... points) {
+        long bits = 0L;
+        for (String p : points) {
+            bits |= 1L << Point.of(p).ordinal();
+        }
+        return bits;
+    }
+    
+    private static long expectedMobility(Board board, Color color) {
+        long bits = 0L;
+        for (Point p : Point.values()) {
+            if (Rule.canPutAt(board, color, p)) {
+                bits |= 1L << p.ordinal();
+            }
+        }
+        return bits;
+    }
+    
+    private static long expectedNeighbours(long bits) {
+        long neighbours = 0L;
+        for (Point p : Point.values()) {
+            if ((bits & 1L << p.ordinal()) != 0) {
+                for (Direction d : Direction.values()) {
+                    if (p.hasNext(d)) {
+                        neighbours |= 1L << p.next(d).ordinal();
+                    }
+                }
+            }
+        }
+        return neighbours;
+    }
+    
+    @Test
+    public void testBitsOf() {
+        Board board = StrictBoard.initializedBoard();
+        long black = BitBoards.bitsOf(board, Color.BLACK);
+        long white = BitBoards.bitsOf(board, Color.WHITE);
+        
+        assertThat(black, is((1L << Point.of("d5").ordinal()) | (1L << Point.of("e4").ordinal())));
+        assertThat(white, is((1L << Point.of("d4").ordinal()) | (1L << Point.of("e5").ordinal())));
+        assertThat(BitBoards.bitsOf(new LightweightBoard(board), Color.BLACK), is(black));
+        assertThat(BitBoards.bitsOf(new LightweightBoard(board), Color.WHITE), is(white));
+        
+        assertThat(of(() -> BitBoards.bitsOf(null, Color.BLACK)), raise(NullPointerException.class));
+        assertThat(of(() -> BitBoards.bitsOf(board, null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testEmpties() {
+        Board board = StrictBoard.initializedBoard();
+        long black = BitBoards.bitsOf(board, Color.BLACK);
+        long white = BitBoards.bitsOf(board, Color.WHITE);
+        
+        assertThat(BitBoards.empties(black, white), is(60));
+        assertThat(BitBoards.empties(0L, 0L), is(64));
+        assertThat(BitBoards.empties(-1L, 0L), is(0));
+    }
+    
+    @Test
+    public void testMobility1() {
+        Board board = StrictBoard.initializedBoard();
+        long black = BitBoards.bitsOf(board, Color.BLACK);
+        long white = BitBoards.bitsOf(board, Color.WHITE);
+        
+        assertThat(BitBoards.mobility(black, white), is(expectedMobility(board, Color.BLACK)));
+        assertThat(BitBoards.mobility(white, black), is(expectedMobility(board, Color.WHITE)));
+        assertThat(Long.bitCount(BitBoards.mobility(black, white)), is(4));
+    }
+    
+    @Test
+    public void testSquares() {
+        assertThat(BitBoards.CORNERS, is(bitsOf("a1", "h1", "a8", "h8")));
+        assertThat(BitBoards.X_SQUARES, is(bitsOf("b2", "g2", "b7", "g7")));
+        assertThat(BitBoards.C_SQUARES, is(bitsOf("b1", "g1", "a2", "h2", "a7", "h7", "b8", "g8")));
+        
+        // 隅が空いている X 打ちのみが対象となる
+        long mine = bitsOf("b2", "g2", "b7");
+        long his = bitsOf("a1", "h8");
+        assertThat(BitBoards.openXSquares(mine, his), is(bitsOf("g2", "b7")));
+        assertThat(BitBoards.openXSquares(his, mine), is(0L));
+    }
+    
+    @Test
+    public void testMobilityAndFlips() {
+        // ランダムに進めたゲームの各局面で、Rule による判定結果と一致することを確認する。
+        Random random = new Random(2016L);
+        
+        for (int n = 0; n < 50; n++) {
+            Board board = new LightweightBoard(StrictBoard.initializedBoard());
+            Color color = Color.BLACK;
+            
+            while (Rule.isGameOngoing(board)) {
+                long mine = BitBoards.bitsOf(board, color);
+                long his = BitBoards.bitsOf(board, color.opposite());
+                assertThat(mine, is(expectedBits(board, color)));
+                assertThat(BitBoards.mobility(mine, his), is(expectedMobility(board, color)));
+                
+                long empty = ~(mine | his);
+                assertThat(BitBoards.neighbours(mine), is(expectedNeighbours(mine)));
+                assertThat(BitBoards.potentialMobility(mine, his), is(expectedNeighbours(his) & empty));
+                assertThat(BitBoards.frontier(mine, his), is(expectedNeighbours(empty) & mine));
+                
+                Color c = color;
+                Point[] availables = Point.stream().filter(p -> Rule.canPutAt(board, c, p)).toArray(Point[]::new);
+                if (0 < availables.length) {
+                    Move move = Move.of(color, availables[random.nextInt(availables.length)]);
+                    long expected = 0L;
+                    for (Point p : Rule.reversibles(board, move)) {
+                        expected |= 1L << p.ordinal();
+                    }
+                    assertThat(BitBoards.flips(mine, his, move.point.ordinal()), is(expected));
+                    assertThat(BitBoards.flips(mine, his, Point.of("d4").ordinal()), is(0L));
+                    board.apply(move);
+                }
+                color = color.opposite();
+            }
+        }
+    }
+}
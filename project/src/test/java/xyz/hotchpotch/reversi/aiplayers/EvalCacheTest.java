@@ -0,0 +1,91 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class EvalCacheTest {
+    
+    @Test
+    public void testOf() {
+        assertThat(EvalCache.of(BasicEvaluator.DISCS, 1).size(), is(1));
+        assertThat(EvalCache.of(BasicEvaluator.DISCS, 1000).size(), is(1024));
+        assertThat(EvalCache.of(BasicEvaluator.DISCS, 1024).size(), is(1024));
+        
+        assertThat(of(() -> EvalCache.of(null, 1)), raise(NullPointerException.class));
+        assertThat(of(() -> EvalCache.of(BasicEvaluator.DISCS, 0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> EvalCache.of(BasicEvaluator.DISCS, EvalCache.MAX_SIZE + 1)),
+                raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testEvaluate() {
+        AtomicInteger calls = new AtomicInteger();
+        EvalCache cache = EvalCache.of((mine, his, empties) -> {
+            calls.incrementAndGet();
+            return BasicEvaluator.BLENDED.evaluate(mine, his, empties);
+        }, 1024);
+        Random random = new Random(2016L);
+        long[][] positions = new long[100][];
+        for (int n = 0; n < positions.length; n++) {
+            long mine = random.nextLong();
+            positions[n] = new long[] { mine, random.nextLong() & ~mine };
+        }
+        
+        for (int round = 0; round < 3; round++) {
+            for (long[] p : positions) {
+                assertThat(cache.evaluate(p[0], p[1], BitBoards.empties(p[0], p[1])),
+                        is(BasicEvaluator.BLENDED.evaluate(p[0], p[1], BitBoards.empties(p[0], p[1]))));
+            }
+        }
+        // 衝突による追い出しがあり得るため、評価関数の呼び出し回数は局面数以上となり得る。
+        assertThat(cache.hits() + cache.misses(), is(300L));
+        assertThat(cache.misses(), is((long) calls.get()));
+        assertThat(100 <= calls.get() && calls.get() < 150, is(true));
+        
+        // 空のエントリにヒットしないこと
+        EvalCache empty = EvalCache.of((mine, his, empties) -> 1, 1);
+        assertThat(empty.evaluate(0L, 0L, 64), is(1));
+        assertThat(empty.hits(), is(0L));
+    }
+    
+    @Test
+    public void testConcurrentEvaluate() {
+        // 複数のスレッドから同時に呼び出しても、常に正しい評価値が返されること
+        EvalCache cache = EvalCache.of(BasicEvaluator.FEATURES, 16);
+        long[] mines = new Random(1L).longs(64).toArray();
+        
+        IntStream.range(0, 100000).parallel().forEach(n -> {
+            long mine = mines[n % mines.length];
+            long his = ~mine & mines[(n + 1) % mines.length];
+            int empties = BitBoards.empties(mine, his);
+            assertThat(cache.evaluate(mine, his, empties), is(BasicEvaluator.FEATURES.evaluate(mine, his, empties)));
+        });
+    }
+    
+    @Test
+    public void testRelease() {
+        AtomicInteger releases = new AtomicInteger();
+        EvalCache cache = EvalCache.of(new Evaluator() {
+            @Override
+            public int evaluate(long mine, long his, int empties) {
+                return 0;
+            }
+            
+            @Override
+            public void release() {
+                releases.incrementAndGet();
+            }
+        }, 1);
+        
+        cache.release();
+        assertThat(releases.get(), is(1));
+    }
+}
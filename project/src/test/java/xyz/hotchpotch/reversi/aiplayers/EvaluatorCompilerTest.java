@@ -0,0 +1,89 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.EvaluatorCompiler.Feature;
+
+public class EvaluatorCompilerTest {
+    
+    private static void assertSameValues(Evaluator expected, Evaluator actual) {
+        Random random = new Random(2016L);
+        for (int n = 0; n < 1000; n++) {
+            long mine = random.nextLong() & random.nextLong();
+            long his = random.nextLong() & ~mine;
+            int empties = BitBoards.empties(mine, his);
+            assertThat(actual.evaluate(mine, his, empties), is(expected.evaluate(mine, his, empties)));
+        }
+    }
+    
+    @Test
+    public void testCompile() {
+        // 手書きの評価関数と同じ評価値を返すこと
+        assertSameValues(BasicEvaluator.DISCS, EvaluatorCompiler.compile("discs:1"));
+        assertSameValues(BasicEvaluator.BLENDED, EvaluatorCompiler.compile("mobility:10:0, discs:0:1"));
+        assertSameValues(BasicEvaluator.STABILITY_BLENDED,
+                EvaluatorCompiler.compile("MOBILITY:10:0 DISCS:0:1 STABILITY:128"));
+        assertSameValues(BasicEvaluator.FEATURES, EvaluatorCompiler.compile(
+                "mobility:10:0, potential_mobility:4:0, frontier:-4:0, corners:80:0, open_x_squares:-40:0, discs:0:1"));
+        
+        // 定数の大きさによらず、解釈実行した場合と同じ評価値を返すこと
+        Random random = new Random(1L);
+        int[] weights = { 0, 1, -1, 127, -128, 200, -32768, 40000, Integer.MIN_VALUE };
+        for (int n = 0; n < 20; n++) {
+            StringBuilder spec = new StringBuilder();
+            for (Feature feature : Feature.values()) {
+                if (random.nextBoolean()) {
+                    spec.append(feature).append(':').append(weights[random.nextInt(weights.length)]);
+                    if (random.nextBoolean()) {
+                        spec.append(':').append(weights[random.nextInt(weights.length)]);
+                    }
+                    spec.append(',');
+                }
+            }
+            assertSameValues(EvaluatorCompiler.interpret(spec.toString()), EvaluatorCompiler.compile(spec.toString()));
+        }
+        
+        // 空の記述は常に 0 を返すこと
+        assertThat(EvaluatorCompiler.compile(" # nothing").evaluate(-1L, 0L, 0), is(0));
+        
+        // 同じ内容の記述には同じインスタンスを返すこと
+        Evaluator evaluator = EvaluatorCompiler.compile("corners:10, x_squares:-5 # comment");
+        assertThat(EvaluatorCompiler.compile("CORNERS:10:10\nX_SQUARES:-5"), not(sameInstance(evaluator)));
+        assertThat(EvaluatorCompiler.compile("X_SQUARES:-5, CORNERS:10"), not(sameInstance(evaluator)));
+        assertThat(EvaluatorCompiler.compile("CORNERS:10\nX_SQUARES:-5"), sameInstance(evaluator));
+        assertThat(evaluator.toString(), is("corners:10, x_squares:-5"));
+        
+        assertThat(of(() -> EvaluatorCompiler.compile((String) null)), raise(NullPointerException.class));
+        assertThat(of(() -> EvaluatorCompiler.compile("discs")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> EvaluatorCompiler.compile("discs:1:2:3")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> EvaluatorCompiler.compile("unknown:1")), raise(IllegalArgumentException.class));
+        assertThat(of(() -> EvaluatorCompiler.compile("discs:x")), raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testCompileFile() throws IOException {
+        Path path = Files.createTempFile("evaluator", ".txt");
+        try {
+            Files.write(path, "# BLENDED\nmobility:10:0\ndiscs:0:1\n".getBytes(StandardCharsets.UTF_8));
+            assertSameValues(BasicEvaluator.BLENDED, EvaluatorCompiler.compile(path));
+        } finally {
+            Files.delete(path);
+        }
+        
+        assertThat(of(() -> EvaluatorCompiler.compile((Path) null)), raise(NullPointerException.class));
+        assertThat(of(() -> EvaluatorCompiler.compile(Paths.get("no such file"))), raise(UncheckedIOException.class));
+    }
+}
@@ -0,0 +1,128 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import xyz.hotchpotch.reversi.aiplayers.PatternEvaluator.Indices;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+
+/**
+ * {@link NTupleEvaluator} の一回あたりの評価時間を計測します。<br>
+ * ランダムに進めたゲームの各局面について、次の二つの方法で評価する時間を {@link PatternEvaluator} と比較します。
+ * <ol>
+ *   <li>ビットボードから直接評価する場合</li>
+ *   <li>{@link Indices} を差分更新（適用と取り消し）しながら評価する場合</li>
+ * </ol>
+ * 
+ * @author nmby
+ */
+public class NTupleBenchmark {
+    
+    /** 局面と、その局面に至る直前の手 */
+    private static class Position {
+        private final long black;
+        private final long white;
+        private final Color color;
+        private final int square;
+        private final long flipped;
+        
+        private Position(long black, long white, Color color, int square, long flipped) {
+            this.black = black;
+            this.white = white;
+            this.color = color;
+            this.square = square;
+            this.flipped = flipped;
+        }
+    }
+    
+    private static List<Position> positions(int count) {
+        List<Position> positions = new ArrayList<>();
+        Random random = new Random(2016L);
+        while (positions.size() < count) {
+            long black = BitBoards.bitsOf(StrictBoard.initializedBoard(), Color.BLACK);
+            long white = BitBoards.bitsOf(StrictBoard.initializedBoard(), Color.WHITE);
+            Color color = Color.BLACK;
+            while (BitBoards.mobility(black, white) != 0 || BitBoards.mobility(white, black) != 0) {
+                long mine = color == Color.BLACK ? black : white;
+                long his = color == Color.BLACK ? white : black;
+                long moves = BitBoards.mobility(mine, his);
+                if (moves != 0) {
+                    int nth = random.nextInt(Long.bitCount(moves));
+                    for (int k = 0; k < nth; k++) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    long flipped = BitBoards.flips(mine, his, square);
+                    positions.add(new Position(black, white, color, square, flipped));
+                    mine |= flipped | 1L << square;
+                    his &= ~flipped;
+                    black = color == Color.BLACK ? mine : his;
+                    white = color == Color.BLACK ? his : mine;
+                }
+                color = color.opposite();
+            }
+        }
+        return positions;
+    }
+    
+    private static void report(String name, long evaluations, long nanos, long checksum) {
+        System.out.printf("%-32s %8.1f ns/eval (checksum %d)%n", name, (double) nanos / evaluations, checksum);
+    }
+    
+    public static void main(String[] args) {
+        int rounds = args.length < 1 ? 5 : Integer.parseInt(args[0]);
+        List<Position> positions = positions(20000);
+        PatternWeights weights = PatternWeights.heuristic();
+        PatternEvaluator pattern = new PatternEvaluator(weights);
+        NTupleEvaluator ntuple = new NTupleEvaluator(weights);
+        
+        // 直前の局面のインデックスを用意しておき、計測では差分更新と評価のみを行う。
+        Indices[] indices = new Indices[positions.size()];
+        for (int n = 0; n < indices.length; n++) {
+            Position p = positions.get(n);
+            indices[n] = Indices.of(p.black, p.white);
+        }
+        
+        for (int round = 0; round < rounds; round++) {
+            System.out.printf("round %d%n", round + 1);
+            
+            long sum = 0;
+            long start = System.nanoTime();
+            for (Position p : positions) {
+                sum += pattern.evaluate(p.black, p.white, BitBoards.empties(p.black, p.white));
+            }
+            report("PatternEvaluator (bitboards)", positions.size(), System.nanoTime() - start, sum);
+            
+            sum = 0;
+            start = System.nanoTime();
+            for (Position p : positions) {
+                sum += ntuple.evaluate(p.black, p.white, BitBoards.empties(p.black, p.white));
+            }
+            report("NTupleEvaluator (bitboards)", positions.size(), System.nanoTime() - start, sum);
+            
+            sum = 0;
+            start = System.nanoTime();
+            for (int n = 0; n < indices.length; n++) {
+                Position p = positions.get(n);
+                int empties = BitBoards.empties(p.black, p.white) - 1;
+                indices[n].apply(p.color, p.square, p.flipped);
+                sum += pattern.evaluate(indices[n], p.color, empties);
+                indices[n].undo(p.color, p.square, p.flipped);
+            }
+            report("PatternEvaluator (incremental)", indices.length, System.nanoTime() - start, sum);
+            
+            sum = 0;
+            start = System.nanoTime();
+            for (int n = 0; n < indices.length; n++) {
+                Position p = positions.get(n);
+                int empties = BitBoards.empties(p.black, p.white) - 1;
+                indices[n].apply(p.color, p.square, p.flipped);
+                sum += ntuple.evaluate(indices[n], p.color, empties);
+                indices[n].undo(p.color, p.square, p.flipped);
+            }
+            report("NTupleEvaluator (incremental)", indices.length, System.nanoTime() - start, sum);
+        }
+    }
+}
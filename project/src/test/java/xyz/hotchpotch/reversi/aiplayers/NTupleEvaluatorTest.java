@@ -0,0 +1,108 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.PatternEvaluator.Indices;
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+
+public class NTupleEvaluatorTest {
+    
+    private static short[] randomWeights(long seed) {
+        Random random = new Random(seed);
+        short[] values = new short[PatternWeights.length()];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = (short) (random.nextInt(2001) - 1000);
+        }
+        return values;
+    }
+    
+    @Test
+    public void testEvaluate() {
+        // ランダムに進めたゲームの各局面で、次のことを確認する。
+        // ・差分更新したインデックスによる評価値が、一から求めた評価値と一致すること
+        // ・量子化前の重みによる評価値との差が、量子化の誤差の範囲に収まること
+        // ・undo によりインデックスが元に戻ること
+        PatternWeights weights = PatternWeights.of(randomWeights(1L));
+        PatternEvaluator pattern = new PatternEvaluator(weights);
+        NTupleEvaluator ntuple = new NTupleEvaluator(weights);
+        int instances = PatternEvaluator.INSTANCES.length;
+        Random random = new Random(2016L);
+        
+        for (int n = 0; n < 20; n++) {
+            Board board = StrictBoard.initializedBoard();
+            long black = BitBoards.bitsOf(board, Color.BLACK);
+            long white = BitBoards.bitsOf(board, Color.WHITE);
+            Indices indices = Indices.of(black, white);
+            Color color = Color.BLACK;
+            
+            while (BitBoards.mobility(black, white) != 0 || BitBoards.mobility(white, black) != 0) {
+                long mine = color == Color.BLACK ? black : white;
+                long his = color == Color.BLACK ? white : black;
+                long moves = BitBoards.mobility(mine, his);
+                
+                if (moves != 0) {
+                    int nth = random.nextInt(Long.bitCount(moves));
+                    for (int k = 0; k < nth; k++) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    long flipped = BitBoards.flips(mine, his, square);
+                    
+                    Indices before = indices.copy();
+                    indices.apply(color, square, flipped);
+                    indices.undo(color, square, flipped);
+                    assertThat(indices, is(before));
+                    indices.apply(color, square, flipped);
+                    
+                    mine |= flipped | 1L << square;
+                    his &= ~flipped;
+                    black = color == Color.BLACK ? mine : his;
+                    white = color == Color.BLACK ? his : mine;
+                    
+                    int empties = BitBoards.empties(black, white);
+                    int scale = ntuple.scaleOf(PatternEvaluator.stageOf(empties));
+                    int blackScore = ntuple.evaluate(indices, Color.BLACK, empties);
+                    int whiteScore = ntuple.evaluate(indices, Color.WHITE, empties);
+                    assertThat(blackScore, is(ntuple.evaluate(black, white, empties)));
+                    assertThat(whiteScore, is(ntuple.evaluate(white, black, empties)));
+                    assertThat(Math.abs(blackScore - pattern.evaluate(black, white, empties)) <= instances * scale / 2,
+                            is(true));
+                    assertThat(Math.abs(whiteScore - pattern.evaluate(white, black, empties)) <= instances * scale / 2,
+                            is(true));
+                }
+                color = color.opposite();
+            }
+        }
+    }
+    
+    @Test
+    public void testQuantize() {
+        // 重みの絶対値が 127 以下であれば、量子化による誤差は生じない。
+        short[] values = new short[PatternWeights.length()];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = (short) (n % 255 - 127);
+        }
+        PatternWeights weights = PatternWeights.of(values);
+        PatternEvaluator pattern = new PatternEvaluator(weights);
+        NTupleEvaluator ntuple = new NTupleEvaluator(weights);
+        Random random = new Random(3L);
+        for (int n = 0; n < 100; n++) {
+            long mine = random.nextLong();
+            long his = random.nextLong() & ~mine;
+            int empties = BitBoards.empties(mine, his);
+            assertThat(ntuple.scaleOf(PatternEvaluator.stageOf(empties)), is(1));
+            assertThat(ntuple.evaluate(mine, his, empties), is(pattern.evaluate(mine, his, empties)));
+        }
+        
+        assertThat(of(() -> new NTupleEvaluator((PatternWeights) null)), raise(NullPointerException.class));
+    }
+}
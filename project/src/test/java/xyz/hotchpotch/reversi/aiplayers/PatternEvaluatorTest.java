@@ -0,0 +1,164 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.PatternEvaluator.Indices;
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+
+public class PatternEvaluatorTest {
+    
+    private static short[] randomWeights(long seed) {
+        Random random = new Random(seed);
+        short[] values = new short[PatternWeights.length()];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = (short) (random.nextInt(2001) - 1000);
+        }
+        return values;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            // Windows ではマップ中のファイルを削除できないため、JVM 終了時の削除に委ねる。
+            path.toFile().deleteOnExit();
+        }
+    }
+    
+    @Test
+    public void testIndices() {
+        // ランダムに進めたゲームの各局面で、差分更新したインデックスと評価値が一から求めたものと一致することを確認する。
+        PatternEvaluator evaluator = new PatternEvaluator(PatternWeights.of(randomWeights(1L)));
+        Random random = new Random(2016L);
+        
+        for (int n = 0; n < 20; n++) {
+            Board board = StrictBoard.initializedBoard();
+            long black = BitBoards.bitsOf(board, Color.BLACK);
+            long white = BitBoards.bitsOf(board, Color.WHITE);
+            Indices indices = Indices.of(black, white);
+            Color color = Color.BLACK;
+            
+            while (BitBoards.mobility(black, white) != 0 || BitBoards.mobility(white, black) != 0) {
+                long mine = color == Color.BLACK ? black : white;
+                long his = color == Color.BLACK ? white : black;
+                long moves = BitBoards.mobility(mine, his);
+                
+                if (moves != 0) {
+                    int nth = random.nextInt(Long.bitCount(moves));
+                    for (int k = 0; k < nth; k++) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    long flipped = BitBoards.flips(mine, his, square);
+                    mine |= flipped | 1L << square;
+                    his &= ~flipped;
+                    black = color == Color.BLACK ? mine : his;
+                    white = color == Color.BLACK ? his : mine;
+                    indices.apply(color, square, flipped);
+                    
+                    int empties = BitBoards.empties(black, white);
+                    assertThat(indices, is(Indices.of(black, white)));
+                    assertThat(evaluator.evaluate(indices, Color.BLACK, empties),
+                            is(evaluator.evaluate(black, white, empties)));
+                    assertThat(evaluator.evaluate(indices, Color.WHITE, empties),
+                            is(evaluator.evaluate(white, black, empties)));
+                }
+                color = color.opposite();
+            }
+        }
+    }
+    
+    @Test
+    public void testHeuristic() {
+        PatternEvaluator evaluator = new PatternEvaluator(PatternWeights.heuristic());
+        Board board = StrictBoard.initializedBoard();
+        long black = BitBoards.bitsOf(board, Color.BLACK);
+        long white = BitBoards.bitsOf(board, Color.WHITE);
+        
+        assertThat(evaluator.evaluate(black, white, 60), is(0));
+        
+        // 隅を取っている側が有利と評価されること
+        long corner = 1L;
+        assertThat(0 < evaluator.evaluate(black | corner, white, 59), is(true));
+        assertThat(evaluator.evaluate(white, black | corner, 59) < 0, is(true));
+    }
+    
+    @Test
+    public void testReadWrite() throws IOException {
+        PatternWeights weights = PatternWeights.of(randomWeights(2L));
+        Path path = Files.createTempFile("weights", ".bin");
+        try {
+            weights.write(path);
+            PatternWeights read = PatternWeights.read(path);
+            assertThat(read.toArray(), is(weights.toArray()));
+            assertThat(read.verify(), is(true));
+            
+            PatternWeights mapped = PatternWeights.map(path);
+            assertThat(mapped.toArray(), is(weights.toArray()));
+            assertThat(mapped.verify(), is(true));
+            
+            // 重みの末尾を書き換えた場合
+            byte[] bytes = Files.readAllBytes(path);
+            bytes[bytes.length - 1]++;
+            Files.write(path, bytes);
+            assertThat(of(() -> PatternWeights.read(path)), raise(IOException.class));
+            assertThat(PatternWeights.map(path).verify(), is(false));
+            
+            // ヘッダを書き換えた場合
+            bytes[bytes.length - 1]--;
+            bytes[Integer.BYTES * 2 + 3]++;
+            Files.write(path, bytes);
+            assertThat(of(() -> PatternWeights.read(path)), raise(IOException.class));
+            assertThat(of(() -> PatternWeights.map(path)), raise(IOException.class));
+            
+            Files.write(path, new byte[] { 0, 1, 2, 3 });
+            assertThat(of(() -> PatternWeights.read(path)), raise(IOException.class));
+            assertThat(of(() -> PatternWeights.map(path)), raise(IOException.class));
+        } finally {
+            deleteQuietly(path);
+        }
+    }
+    
+    @Test
+    public void testWeightRegistry() throws IOException {
+        Path path = Files.createTempFile("weights", ".bin");
+        try {
+            PatternWeights.of(randomWeights(3L)).write(path);
+            assertThat(WeightRegistry.references(path), is(0));
+            
+            PatternWeights weights1 = WeightRegistry.acquire(path);
+            PatternWeights weights2 = WeightRegistry.acquire(path);
+            assertThat(weights2, sameInstance(weights1));
+            assertThat(WeightRegistry.references(path), is(2));
+            
+            WeightRegistry.release(weights1);
+            assertThat(WeightRegistry.references(path), is(1));
+            WeightRegistry.release(weights2);
+            assertThat(WeightRegistry.references(path), is(0));
+            
+            // 管理外の重みテーブルの返却は無視される
+            WeightRegistry.release(PatternWeights.heuristic());
+            assertThat(of(() -> WeightRegistry.release(null)), raise(NullPointerException.class));
+        } finally {
+            deleteQuietly(path);
+        }
+    }
+    
+    @Test
+    public void testOf() {
+        assertThat(of(() -> PatternWeights.of(null)), raise(NullPointerException.class));
+        assertThat(of(() -> PatternWeights.of(new short[1])), raise(IllegalArgumentException.class));
+    }
+}
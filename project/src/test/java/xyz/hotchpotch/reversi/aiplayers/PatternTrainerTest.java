@@ -0,0 +1,85 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.PatternTrainer.Dataset;
+
+public class PatternTrainerTest {
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            // Windows ではマップ中のファイルを削除できないため、JVM 終了時の削除に委ねる。
+            path.toFile().deleteOnExit();
+        }
+    }
+    
+    @Test
+    public void testDataset() throws IOException {
+        Path path = Files.createTempFile("dataset", ".bin");
+        try {
+            try (OutputStream os = Files.newOutputStream(path);
+                    DataOutputStream out = new DataOutputStream(os)) {
+                Dataset.writeRecord(out, 1L, -2L, 10);
+                Dataset.writeRecord(out, Long.MIN_VALUE, 0L, -64);
+            }
+            Dataset dataset = Dataset.map(path);
+            assertThat(dataset.size(), is(2L));
+            assertThat(dataset.black(0), is(1L));
+            assertThat(dataset.white(0), is(-2L));
+            assertThat(dataset.margin(0), is(10));
+            assertThat(dataset.black(1), is(Long.MIN_VALUE));
+            assertThat(dataset.white(1), is(0L));
+            assertThat(dataset.margin(1), is(-64));
+            
+            Files.write(path, new byte[PatternTrainer.RECORD_BYTES + 1]);
+            assertThat(of(() -> Dataset.map(path)), raise(IOException.class));
+        } finally {
+            deleteQuietly(path);
+        }
+    }
+    
+    @Test
+    public void testEpoch() throws Exception {
+        Path path = Files.createTempFile("dataset", ".bin");
+        PatternTrainer trainer = new PatternTrainer(3, 100, 0.01f);
+        try {
+            PatternTrainer.generate(path, 100, 1L);
+            Dataset dataset = Dataset.map(path);
+            Random random = new Random(2L);
+            
+            // 学習を繰り返すと誤差が小さくなること
+            double first = trainer.epoch(dataset, random);
+            double last = first;
+            for (int epoch = 0; epoch < 4; epoch++) {
+                last = trainer.epoch(dataset, random);
+            }
+            assertThat(last < first, is(true));
+            
+            // 学習結果は重みテーブルとして利用できること
+            PatternWeights weights = trainer.toWeights();
+            assertThat(weights.toArray().length, is(PatternWeights.length()));
+            new PatternEvaluator(weights).evaluate(dataset.black(0), dataset.white(0), 59);
+        } finally {
+            trainer.shutdown();
+            deleteQuietly(path);
+        }
+        
+        assertThat(of(() -> new PatternTrainer(0, 1, 0.1f)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> new PatternTrainer(1, 0, 0.1f)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> new PatternTrainer(1, 1, 0.0f)), raise(IllegalArgumentException.class));
+    }
+}
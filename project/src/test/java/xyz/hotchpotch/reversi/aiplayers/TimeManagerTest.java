@@ -0,0 +1,99 @@
+package xyz.hotchpotch.reversi.aiplayers;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.TimeManager.Budget;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.framework.SearchContext;
+
+public class TimeManagerTest {
+    
+    @Test
+    public void testOf() {
+        assertThat(TimeManager.of(0, myTurns -> 1.0), instanceOf(TimeManager.class));
+        assertThat(TimeManager.of(0, myTurns -> 1.0, 0), instanceOf(TimeManager.class));
+        
+        assertThat(of(() -> TimeManager.of(0, null)), raise(NullPointerException.class));
+        assertThat(of(() -> TimeManager.of(-1, myTurns -> 1.0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> TimeManager.of(0, myTurns -> 1.0, -1)), raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testAllocate() {
+        TimeManager timeManager = TimeManager.of(10, myTurns -> 1.0);
+        Budget budget1 = timeManager.allocate(60000, 60000, 60, SearchContext.of(Color.BLACK, 60000));
+        
+        // 残りターン数で均等に割った時間から margin を差し引く。
+        assertThat(budget1.softNanos, is(TimeUnit.MILLISECONDS.toNanos(60000 / 30 - 10)));
+        assertThat(budget1.softNanos <= budget1.hardNanos, is(true));
+        
+        // 一手の制限時間を超えない。
+        Budget budget2 = timeManager.allocate(1000, 60000, 60, SearchContext.of(Color.BLACK, 1000));
+        assertThat(budget2.softNanos <= budget2.hardNanos, is(true));
+        assertThat(budget2.hardNanos <= TimeUnit.MILLISECONDS.toNanos(1000 - 10), is(true));
+        
+        assertThat(of(() -> timeManager.allocate(1000, 60000, 60, null)), raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testObserve() {
+        TimeManager timeManager = TimeManager.of(0, myTurns -> 1.0, 1000000);
+        assertThat(timeManager.nodesPerSecond(), is(0L));
+        
+        // 探索速度が未観測の場合は制限しない。
+        assertThat(0 < timeManager.allocate(1000, 60000, 60, SearchContext.of(Color.BLACK, 1000)).softNanos, is(true));
+        
+        // 1000 ノード／秒では、ソフトリミット内に 1000000 ノードを探索できない。
+        timeManager.observe(1000, TimeUnit.SECONDS.toNanos(1));
+        assertThat(timeManager.nodesPerSecond(), is(1000L));
+        Budget budget = timeManager.allocate(1000, 60000, 60, SearchContext.of(Color.BLACK, 1000));
+        assertThat(budget.softNanos, is(0L));
+        assertThat(budget.hardNanos, is(0L));
+        
+        // 探索速度は移動平均により更新される。
+        timeManager.observe(1000000000L, TimeUnit.SECONDS.toNanos(1));
+        assertThat(1000L < timeManager.nodesPerSecond() && timeManager.nodesPerSecond() < 1000000000L, is(true));
+        assertThat(0 < timeManager.allocate(1000, 60000, 60, SearchContext.of(Color.BLACK, 1000)).softNanos, is(true));
+        
+        // 無効な実績は無視される。
+        long nodesPerSecond = timeManager.nodesPerSecond();
+        timeManager.observe(0, 1);
+        timeManager.observe(1, 0);
+        assertThat(timeManager.nodesPerSecond(), is(nodesPerSecond));
+    }
+    
+    @Test
+    public void testIteration() throws InterruptedException {
+        TimeManager timeManager = TimeManager.of(0, myTurns -> 1.0);
+        Budget budget = timeManager.allocate(1000, 60000, 60, SearchContext.of(Color.BLACK, 1000));
+        
+        // 反復の記録が無い場合は、分岐数 1.0 として次の反復を開始できる。
+        assertThat(budget.branchingFactor(), is(1.0));
+        assertThat(budget.predictNextIterationNanos(), is(0L));
+        assertThat(budget.canStartIteration(), is(true));
+        
+        budget.iterationFinished(100);
+        assertThat(budget.branchingFactor(), is(1.0));
+        budget.iterationFinished(400);
+        assertThat(budget.branchingFactor(), is(4.0));
+        budget.iterationFinished(200);
+        assertThat(budget.branchingFactor(), is(1.0));
+        
+        // 直前の反復に要した時間に分岐数を掛けると超えてはならない時間を過ぎる場合は、次の反復を開始しない。
+        budget.iterationFinished(1);
+        Thread.sleep(20);
+        budget.iterationFinished(1000000);
+        assertThat(budget.branchingFactor(), is(1000000.0));
+        assertThat(budget.hardNanos < budget.predictNextIterationNanos(), is(true));
+        assertThat(budget.canStartIteration(), is(false));
+        
+        assertThat(of(() -> budget.iterationFinished(-1)), raise(IllegalArgumentException.class));
+    }
+}
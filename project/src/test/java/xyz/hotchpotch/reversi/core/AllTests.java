@@ -14,6 +14,7 @@ import org.junit.runners.Suite.SuiteClasses;
         MoveTest.class,
         PointTest.class,
         RuleTest.class,
+        StabilityTest.class,
         StrictBoardTest.class
 })
 public class AllTests {
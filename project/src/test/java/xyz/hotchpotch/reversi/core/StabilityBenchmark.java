@@ -0,0 +1,68 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Stability#stableDiscs(long, long)} の 1 秒あたりの呼び出し回数を計測します。<br>
+ * ランダムに進めたゲームの局面を用意し、それらの局面に対して繰り返し確定石を求めます。<br>
+ * 
+ * @author nmby
+ */
+public class StabilityBenchmark {
+    
+    public static void main(String[] args) {
+        int seconds = args.length < 1 ? 3 : Integer.parseInt(args[0]);
+        
+        List<long[]> positions = new ArrayList<>();
+        Random random = new Random(2016L);
+        while (positions.size() < 10000) {
+            Board board = StrictBoard.initializedBoard();
+            Color color = Color.BLACK;
+            while (Rule.isGameOngoing(board)) {
+                if (Rule.canPut(board, color)) {
+                    Board b = board;
+                    Color c = color;
+                    List<Point> candidates = Point.stream()
+                            .filter(p -> Rule.canPutAt(b, c, p)).collect(Collectors.toList());
+                    board.apply(Move.of(color, candidates.get(random.nextInt(candidates.size()))));
+                } else {
+                    board.apply(Move.passOf(color));
+                }
+                color = color.opposite();
+                
+                long black = 0L;
+                long white = 0L;
+                for (Point p : Point.values()) {
+                    if (board.colorAt(p) == Color.BLACK) {
+                        black |= 1L << p.ordinal();
+                    } else if (board.colorAt(p) == Color.WHITE) {
+                        white |= 1L << p.ordinal();
+                    }
+                }
+                positions.add(new long[] { black, white });
+            }
+        }
+        
+        for (int round = 0; round < seconds + 1; round++) {
+            long count = 0;
+            long sum = 0;
+            long start = System.nanoTime();
+            long end = start + 1_000_000_000L;
+            while (System.nanoTime() < end) {
+                for (long[] position : positions) {
+                    sum += Long.bitCount(Stability.stableDiscs(position[0], position[1]));
+                    sum += Long.bitCount(Stability.stableDiscs(position[1], position[0]));
+                }
+                count += positions.size() * 2;
+            }
+            long elapsed = System.nanoTime() - start;
+            // 最初の 1 回はウォームアップとして扱う。
+            if (0 < round) {
+                System.out.printf("%,d calls/s (checksum %d)%n", count * 1_000_000_000L / elapsed, sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class StabilityTest {
+    
+    private static class TestBoard extends BaseBoard {
+        
+        private TestBoard(String colors) {
+            assert colors != null;
+            assert colors.length() == Point.HEIGHT * Point.WIDTH;
+            assert colors.chars().allMatch(c -> c == '●' || c == '○' || c == '・');
+            
+            for (int i = 0; i < Point.HEIGHT; i++) {
+                for (int j = 0; j < Point.WIDTH; j++) {
+                    char c = colors.charAt(i * Point.WIDTH + j);
+                    map.put(Point.of(i, j), c == '●' ? Color.BLACK : c == '○' ? Color.WHITE : null);
+                }
+            }
+        }
+        
+        @Override
+        public void apply(Move move) {
+            throw new UnsupportedOperationException();
+        }
+    }
+    
+    private static Set<Point> points(String... points) {
+        return Arrays.stream(points).map(Point::of).collect(Collectors.toSet());
+    }
+    
+    @Test
+    public void testStableDiscs() {
+        // 初期状態
+        Board board = StrictBoard.initializedBoard();
+        assertThat(Stability.stableDiscs(board, Color.BLACK), is(Collections.emptySet()));
+        assertThat(Stability.stableDiscs(board, Color.WHITE), is(Collections.emptySet()));
+        
+        // 隅とそれに連なる辺の石
+        board = new TestBoard(""
+                + "●●●○・・・・"
+                + "●・・・・・・・"
+                + "○・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・○");
+        assertThat(Stability.stableDiscs(board, Color.BLACK), is(points("a1", "b1", "c1", "a2")));
+        assertThat(Stability.stableDiscs(board, Color.WHITE), is(points("h8")));
+        
+        // 隅から内側への伝播（b2 は c1-a3 の斜めのラインでひっくり返され得る）
+        board = new TestBoard(""
+                + "●●・・・・・・"
+                + "●●・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・");
+        assertThat(Stability.stableDiscs(board, Color.BLACK), is(points("a1", "b1", "a2")));
+        
+        // 隅を含まないが埋まっている辺
+        board = new TestBoard(""
+                + "○●●○○●○●"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・"
+                + "・・・・・・・・");
+        assertThat(Stability.stableDiscs(board, Color.BLACK), is(points("b1", "c1", "f1", "h1")));
+        assertThat(Stability.stableDiscs(board, Color.WHITE), is(points("a1", "d1", "e1", "g1")));
+        
+        // すべてのマスが埋まっている場合
+        StringBuilder colors = new StringBuilder();
+        Random random = new Random(1L);
+        for (int n = 0; n < Point.HEIGHT * Point.WIDTH; n++) {
+            colors.append(random.nextBoolean() ? '●' : '○');
+        }
+        board = new TestBoard(colors.toString());
+        for (Color color : Color.values()) {
+            Board b = board;
+            assertThat(Stability.stableDiscs(board, color),
+                    is(Point.stream().filter(p -> b.colorAt(p) == color).collect(Collectors.toSet())));
+        }
+        
+        assertThat(of(() -> Stability.stableDiscs(null, Color.BLACK)), raise(NullPointerException.class));
+        assertThat(of(() -> Stability.stableDiscs(StrictBoard.initializedBoard(), null)),
+                raise(NullPointerException.class));
+    }
+    
+    @Test
+    public void testStableDiscsAreNeverReversed() {
+        // ランダムに進めたゲームにおいて、確定石と判定された石がその後ひっくり返されないことを確認する。
+        Random random = new Random(2016L);
+        
+        for (int n = 0; n < 200; n++) {
+            Board board = StrictBoard.initializedBoard();
+            Color color = Color.BLACK;
+            Map<Point, Color> stables = new HashMap<>();
+            
+            while (Rule.isGameOngoing(board)) {
+                if (Rule.canPut(board, color)) {
+                    Board b = board;
+                    Color c = color;
+                    List<Point> candidates = Point.stream()
+                            .filter(p -> Rule.canPutAt(b, c, p)).collect(Collectors.toList());
+                    board.apply(Move.of(color, candidates.get(random.nextInt(candidates.size()))));
+                } else {
+                    board.apply(Move.passOf(color));
+                }
+                color = color.opposite();
+                
+                for (Map.Entry<Point, Color> entry : stables.entrySet()) {
+                    assertThat(board.colorAt(entry.getKey()), is(entry.getValue()));
+                }
+                for (Color c : Color.values()) {
+                    Stability.stableDiscs(board, c).forEach(p -> stables.put(p, c));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package xyz.hotchpotch.reversi.framework;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+@RunWith(Suite.class)
+@SuiteClasses({
+        RatingsTest.class,
+        SprtTest.class
+})
+public class AllTests {
+}
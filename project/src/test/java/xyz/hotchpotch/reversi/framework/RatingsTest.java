@@ -0,0 +1,128 @@
+package xyz.hotchpotch.reversi.framework;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.framework.Ratings.Rating;
+import xyz.hotchpotch.reversi.framework.Result.ResultCount;
+
+public class RatingsTest {
+    
+    /** 反復計算の打ち切りによる誤差として許容するレーティングの差 */
+    private static final double DELTA = 0.01;
+    
+    @Test
+    public void testOf() {
+        List<Rating> ratings = Ratings.of(3).ratings();
+        assertThat(ratings.size(), is(3));
+        for (int i = 0; i < 3; i++) {
+            assertThat(ratings.get(i).idx, is(i));
+            assertThat(ratings.get(i).elo, is(0.0));
+        }
+        
+        assertThat(of(() -> Ratings.of(0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Ratings.of(-1)), raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testAdd() {
+        Ratings ratings = Ratings.of(3);
+        ResultCount count = new ResultCount(1, 0, 0);
+        
+        assertThat(of(() -> ratings.add(-1, 0, count)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> ratings.add(0, -1, count)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> ratings.add(3, 0, count)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> ratings.add(0, 3, count)), raise(IndexOutOfBoundsException.class));
+        assertThat(of(() -> ratings.add(1, 1, count)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> ratings.add(0, 1, (ResultCount) null)), raise(NullPointerException.class));
+        assertThat(of(() -> ratings.add(0, 1, (MatchResult) null)), raise(NullPointerException.class));
+        
+        // 不正な追加は成績に反映されない。
+        for (Rating rating : ratings.ratings()) {
+            assertThat(rating.elo, is(0.0));
+        }
+    }
+    
+    @Test
+    public void testRatings1() {
+        // 三すくみの成績であれば、全員のレーティングが等しく、合計は 0 となる。
+        Ratings ratings = Ratings.of(3);
+        ratings.add(0, 1, new ResultCount(7, 1, 2));
+        ratings.add(1, 2, new ResultCount(7, 1, 2));
+        ratings.add(2, 0, new ResultCount(7, 1, 2));
+        
+        List<Rating> result = ratings.ratings();
+        assertEquals(0, result.stream().mapToDouble(r -> r.elo).sum(), DELTA);
+        assertEquals(result.get(0).elo, result.get(1).elo, DELTA);
+        assertEquals(result.get(1).elo, result.get(2).elo, DELTA);
+        assertEquals(result.get(0).margin, result.get(1).margin, DELTA);
+        assertEquals(result.get(1).margin, result.get(2).margin, DELTA);
+    }
+    
+    @Test
+    public void testRatings2() {
+        // 全勝したプレーヤーのレーティングも発散せず、最上位となる。
+        Ratings ratings = Ratings.of(3);
+        ratings.add(0, 1, new ResultCount(10, 0, 0));
+        ratings.add(2, 0, new ResultCount(0, 0, 10));
+        ratings.add(1, 2, new ResultCount(6, 0, 4));
+        
+        List<Rating> result = ratings.ratings();
+        for (Rating rating : result) {
+            assertThat(Double.isFinite(rating.elo), is(true));
+            assertThat(Double.isFinite(rating.margin), is(true));
+        }
+        assertThat(result.get(1).elo < result.get(0).elo, is(true));
+        assertThat(result.get(2).elo < result.get(1).elo, is(true));
+        assertEquals(0, result.stream().mapToDouble(r -> r.elo).sum(), DELTA);
+    }
+    
+    @Test
+    public void testRatings3() {
+        // マッチ結果をひとつずつ追加して再計算しても、まとめて追加した場合と同じ結果となる。
+        ResultCount[] counts = {
+                new ResultCount(6, 1, 3),
+                new ResultCount(2, 2, 6),
+                new ResultCount(5, 0, 5),
+                new ResultCount(9, 0, 1),
+        };
+        int[][] pairs = { { 0, 1 }, { 1, 2 }, { 2, 3 }, { 0, 3 } };
+        
+        Ratings incremental = Ratings.of(4);
+        Ratings batch = Ratings.of(4);
+        for (int n = 0; n < counts.length; n++) {
+            incremental.add(pairs[n][0], pairs[n][1], counts[n]);
+            incremental.ratings();
+            batch.add(pairs[n][0], pairs[n][1], counts[n]);
+        }
+        
+        List<Rating> expected = batch.ratings();
+        List<Rating> actual = incremental.ratings();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected.get(i).elo, actual.get(i).elo, DELTA);
+            assertEquals(expected.get(i).margin, actual.get(i).margin, DELTA);
+        }
+    }
+    
+    @Test
+    public void testRatings4() {
+        // 対戦数が多いほど信頼区間は狭くなる。
+        Ratings small = Ratings.of(2);
+        small.add(0, 1, new ResultCount(6, 0, 4));
+        Ratings large = Ratings.of(2);
+        large.add(0, 1, new ResultCount(60, 0, 40));
+        
+        List<Rating> smallResult = small.ratings();
+        List<Rating> largeResult = large.ratings();
+        for (int i = 0; i < 2; i++) {
+            assertThat(largeResult.get(i).margin < smallResult.get(i).margin, is(true));
+        }
+        assertThat(0 < largeResult.get(0).elo, is(true));
+    }
+}
@@ -0,0 +1,163 @@
+package xyz.hotchpotch.reversi.framework;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static xyz.hotchpotch.jutaime.throwable.RaiseMatchers.*;
+import static xyz.hotchpotch.jutaime.throwable.Testee.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import xyz.hotchpotch.reversi.aiplayers.RandomAIPlayer;
+import xyz.hotchpotch.reversi.aiplayers.SimplestAIPlayer;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.StrictBoard;
+import xyz.hotchpotch.reversi.framework.Match.Entrant;
+import xyz.hotchpotch.reversi.framework.MatchResult.StopReason;
+
+public class SprtTest {
+    
+    private static final Sprt SPRT = Sprt.of(0, 50, 0.05, 0.05);
+    
+    @Test
+    public void testOf() {
+        Sprt sprt = Sprt.of(-10, 20, 0.01, 0.1);
+        assertThat(sprt.elo0, is(-10.0));
+        assertThat(sprt.elo1, is(20.0));
+        assertThat(sprt.alpha, is(0.01));
+        assertThat(sprt.beta, is(0.1));
+        assertThat(sprt.lowerBound() < 0, is(true));
+        assertThat(0 < sprt.upperBound(), is(true));
+        
+        assertThat(of(() -> Sprt.of(50, 50, 0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(50, 0, 0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(Double.NaN, 50, 0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, Double.POSITIVE_INFINITY, 0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(Double.NEGATIVE_INFINITY, 0, 0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, 50, 0, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, 50, 0.05, 0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, 50, -0.05, 0.05)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, 50, 0.5, 0.5)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> Sprt.of(0, 50, Double.NaN, 0.05)), raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testLlr1() {
+        // ゲームが無い場合は 0
+        assertThat(SPRT.llr(0, 0, 0), is(0.0));
+        
+        // 勝ち越していれば正、負け越していれば負
+        assertThat(0 < SPRT.llr(1, 0, 0), is(true));
+        assertThat(SPRT.llr(0, 0, 1) < 0, is(true));
+        assertThat(0 < SPRT.llr(30, 10, 10), is(true));
+        assertThat(SPRT.llr(10, 10, 30) < 0, is(true));
+        
+        assertThat(of(() -> SPRT.llr(-1, 0, 0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> SPRT.llr(0, -1, 0)), raise(IllegalArgumentException.class));
+        assertThat(of(() -> SPRT.llr(0, 0, -1)), raise(IllegalArgumentException.class));
+    }
+    
+    @Test
+    public void testLlr2() {
+        // 勝ち続ければ単調に増加し、負け続ければ単調に減少する。
+        for (int n = 1; n <= 100; n++) {
+            assertThat(SPRT.llr(n - 1, 0, 0) < SPRT.llr(n, 0, 0), is(true));
+            assertThat(SPRT.llr(0, 0, n) < SPRT.llr(0, 0, n - 1), is(true));
+        }
+        
+        // 同じゲーム数であれば、負けを勝ちに置き換えるほど増加する。
+        for (int n = 1; n <= 50; n++) {
+            for (int win = 0; win < n; win++) {
+                assertThat(SPRT.llr(win, 0, n - win) < SPRT.llr(win + 1, 0, n - win - 1), is(true));
+            }
+        }
+        
+        // 勝ち続ければいずれ H1 を、負け続ければいずれ H0 を採択する。
+        assertThat(SPRT.judge(SPRT.llr(100, 0, 0)), is(Optional.of(StopReason.H1_ACCEPTED)));
+        assertThat(SPRT.judge(SPRT.llr(0, 0, 100)), is(Optional.of(StopReason.H0_ACCEPTED)));
+    }
+    
+    @Test
+    public void testJudge() {
+        // 境界値ちょうどで採択する。
+        assertThat(SPRT.judge(SPRT.lowerBound()), is(Optional.of(StopReason.H0_ACCEPTED)));
+        assertThat(SPRT.judge(SPRT.upperBound()), is(Optional.of(StopReason.H1_ACCEPTED)));
+        assertThat(SPRT.judge(Math.nextDown(SPRT.lowerBound())), is(Optional.of(StopReason.H0_ACCEPTED)));
+        assertThat(SPRT.judge(Math.nextUp(SPRT.upperBound())), is(Optional.of(StopReason.H1_ACCEPTED)));
+        
+        assertThat(SPRT.judge(Math.nextUp(SPRT.lowerBound())), is(Optional.empty()));
+        assertThat(SPRT.judge(Math.nextDown(SPRT.upperBound())), is(Optional.empty()));
+        assertThat(SPRT.judge(0), is(Optional.empty()));
+    }
+    
+    @Test
+    public void testMatchResultOf() {
+        MatchCondition matchCondition = MatchCondition.of(RandomAIPlayer.class, SimplestAIPlayer.class, 100, 5000, 10);
+        
+        // 対戦回数に達して終了した場合は、対戦回数分のゲーム結果が必要
+        assertThat(MatchResult.of(matchCondition, gameResultsOf(matchCondition, 5, 5)).stopReason,
+                is(StopReason.TIMES_REACHED));
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                StopReason.TIMES_REACHED, Collections.emptyList())), raise(IllegalArgumentException.class));
+        
+        // 逐次確率比検定により打ち切った場合は、対戦回数より少なくてよい。
+        MatchResult stopped = MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                StopReason.H1_ACCEPTED, Arrays.asList(0.5, 1.5, 3.0));
+        assertThat(stopped.stopReason, is(StopReason.H1_ACCEPTED));
+        assertThat(stopped.llrs, is(Arrays.asList(0.5, 1.5, 3.0)));
+        assertThat(stopped.resultCounts.get(Entrant.A).win, is(3));
+        assertThat(MatchResult.of(matchCondition, gameResultsOf(matchCondition, 5, 5),
+                StopReason.H0_ACCEPTED, Collections.emptyList()).stopReason, is(StopReason.H0_ACCEPTED));
+        
+        // ただし、1ゲーム以上、対戦回数以下であること
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 0, 0),
+                StopReason.H0_ACCEPTED, Collections.emptyList())), raise(IllegalArgumentException.class));
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 6, 5),
+                StopReason.H1_ACCEPTED, Collections.emptyList())), raise(IllegalArgumentException.class));
+        
+        // 対数尤度比は空か、ゲーム結果と同数であること
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                StopReason.H1_ACCEPTED, Arrays.asList(0.5, 3.0))), raise(IllegalArgumentException.class));
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                StopReason.H1_ACCEPTED, Arrays.asList(0.5, null, 3.0))), raise(NullPointerException.class));
+        
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                null, Collections.emptyList())), raise(NullPointerException.class));
+        assertThat(of(() -> MatchResult.of(matchCondition, gameResultsOf(matchCondition, 2, 1),
+                StopReason.H1_ACCEPTED, null)), raise(NullPointerException.class));
+    }
+    
+    /**
+     * プレーヤーAが全勝したゲーム結果を生成する。<br>
+     * 
+     * @param matchCondition マッチ実施条件
+     * @param gamesA プレーヤーAが黒番のゲーム数
+     * @param gamesB プレーヤーBが黒番のゲーム数
+     * @return ゲーム結果
+     */
+    private static Map<Entrant, List<GameResult>> gameResultsOf(MatchCondition matchCondition, int gamesA, int gamesB) {
+        Map<Color, Long> remainingMillisInGame = new EnumMap<>(Color.class);
+        remainingMillisInGame.put(Color.BLACK, 0L);
+        remainingMillisInGame.put(Color.WHITE, 0L);
+        
+        Map<Entrant, List<GameResult>> gameResults = new EnumMap<>(Entrant.class);
+        gameResults.put(Entrant.A, new ArrayList<>());
+        gameResults.put(Entrant.B, new ArrayList<>());
+        for (int n = 0; n < gamesA; n++) {
+            gameResults.get(Entrant.A).add(GameResult.of(matchCondition.gameConditions.get(Entrant.A),
+                    StrictBoard.initializedBoard(), remainingMillisInGame, new TimeUpException("test", Color.WHITE)));
+        }
+        for (int n = 0; n < gamesB; n++) {
+            gameResults.get(Entrant.B).add(GameResult.of(matchCondition.gameConditions.get(Entrant.B),
+                    StrictBoard.initializedBoard(), remainingMillisInGame, new TimeUpException("test", Color.BLACK)));
+        }
+        return gameResults;
+    }
+}